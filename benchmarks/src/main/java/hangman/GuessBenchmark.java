@@ -0,0 +1,124 @@
+package hangman;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Guess resolution: revealing a letter in the hidden puzzle and rendering
+ * the hidden puzzle as text.
+ *
+ * The frame no longer builds the hidden puzzle as a string on every guess;
+ * hiddenText() keeps that old path measurable for comparison with the
+ * indexed reveal. guessRound() plays every letter of a restarted game
+ * through GameEngine, so it includes the listener calls and the restart.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuessBenchmark {
+  /* Letters guessed in a round, consonants and vowels alike */
+  private static final String ALPHABET = "ETAOINSHRDLCUMWFGYPBVKJXQZ";
+
+  /** Characters in the puzzle. */
+  @Param({"20", "1000", "100000"})
+  public int length;
+
+  /* Puzzle being guessed */
+  private Puzzle puzzle;
+
+  /* Hidden puzzle revealed by reveal() */
+  private char[] hidden;
+
+  /* Game played by guessRound() */
+  private GameState state;
+
+  /* Engine of the game */
+  private GameEngine engine;
+
+  /* Letter revealed next by reveal() */
+  private int next = 0;
+
+  /**
+   * Build a puzzle of the requested length.
+   */
+  @Setup
+  public void setUp() {
+    puzzle = new Puzzle(makeText(length));
+    hidden = puzzle.newHidden();
+    state = new GameState();
+    state.addPlayer("Alice");
+    state.addPlayer("Bob");
+    state.setPuzzle(puzzle);
+    engine = new GameEngine(state);
+  } // setUp()
+
+  /**
+   * Reveal one letter, cycling through the alphabet.
+   * @return occurrences revealed
+   */
+  @Benchmark
+  public int reveal() {
+    char letter = ALPHABET.charAt(next);
+    next = next == ALPHABET.length() - 1 ? 0 : next + 1;
+    return puzzle.reveal(letter, hidden);
+  } // reveal()
+
+  /**
+   * Render the hidden puzzle as spaced text, as the frame used to.
+   * @return hidden puzzle text
+   */
+  @Benchmark
+  public String hiddenText() {
+    StringBuilder temp = new StringBuilder();
+    for (char c : state.getHidden()) {
+      temp.append(c);
+      temp.append(" ");
+    } // for
+    return temp.toString();
+  } // hiddenText()
+
+  /**
+   * Restart the game and guess every letter; reported per guess.
+   * @param blackhole sink for the occurrences found
+   */
+  @Benchmark
+  @OperationsPerInvocation(26)
+  public void guessRound(Blackhole blackhole) {
+    state.restart(puzzle);
+    for (int i = 0; i < ALPHABET.length(); ++i) {
+      char letter = ALPHABET.charAt(i);
+      if (GameEngine.isVowel(letter)) {
+        blackhole.consume(engine.guessVowel(letter));
+      } else {
+        engine.setToAdd(500);
+        blackhole.consume(engine.guessConsonant(letter));
+      }
+    } // for
+  } // guessRound()
+
+  /* Repeat a phrase with spaces up to a length */
+  static String makeText(int length) {
+    String phrase = "THE QUICK BROWN FOX JUMPS OVER THE LAZY DOG ";
+    StringBuilder text = new StringBuilder(length);
+    while (text.length() < length) {
+      text.append(phrase, 0, Math.min(phrase.length(), length - text.length()));
+    } // while
+    return text.toString();
+  } // makeText()
+
+} // GuessBenchmark
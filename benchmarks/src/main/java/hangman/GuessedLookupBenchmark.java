@@ -0,0 +1,77 @@
+package hangman;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Guessed-letter lookups as the frame and the computer players make them:
+ * whether a letter was guessed, and how many vowels and consonants were.
+ *
+ * These replaced the isGuessedCons() and isGuessedVowel() list scans of
+ * GameData; the guessed set is now a bit mask, see Letters.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GuessedLookupBenchmark {
+  /* Game with half of the alphabet guessed */
+  private GameState state;
+
+  /* Letter looked up next */
+  private char next = 'A';
+
+  /**
+   * Guess every other letter.
+   */
+  @Setup
+  public void setUp() {
+    state = new GameState();
+    state.addPlayer("Alice");
+    state.setPuzzle(GuessBenchmark.makeText(100));
+    for (char c = 'A'; c <= 'Z'; c += 2) {
+      state.addGuessed(c);
+    } // for
+  } // setUp()
+
+  /**
+   * Check one letter, cycling through the alphabet.
+   * @return whether the letter was guessed
+   */
+  @Benchmark
+  public boolean isGuessed() {
+    char letter = next;
+    next = letter == 'Z' ? 'A' : (char) (letter + 1);
+    return state.isGuessed(letter);
+  } // isGuessed()
+
+  /**
+   * Count the guessed vowels.
+   * @return number of vowels guessed
+   */
+  @Benchmark
+  public int vowelsGuessed() {
+    return state.vowelsGuessed();
+  } // vowelsGuessed()
+
+  /**
+   * Count the guessed consonants.
+   * @return number of consonants guessed
+   */
+  @Benchmark
+  public int consGuessed() {
+    return state.consGuessed();
+  } // consGuessed()
+
+} // GuessedLookupBenchmark
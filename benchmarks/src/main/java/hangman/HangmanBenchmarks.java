@@ -0,0 +1,47 @@
+package hangman;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar.
+ *
+ * Takes the usual JMH command line and always adds the GC profiler, so
+ * every benchmark reports its allocation rate and bytes allocated per
+ * operation next to its throughput. For example
+ * {@code java -jar benchmarks/target/benchmarks.jar Scoreboard -p numPlayers=2,100000}.
+ **/
+public final class HangmanBenchmarks {
+  /* Not instantiated */
+  private HangmanBenchmarks() {
+  } // HangmanBenchmarks()
+
+  /**
+   * Run the benchmarks selected on the command line.
+   * @param args JMH command line options
+   * @throws CommandLineOptionException if the options are malformed
+   * @throws RunnerException if a benchmark fails
+   * @throws IOException if help or a listing cannot be printed
+   */
+  public static void main(String[] args)
+      throws CommandLineOptionException, RunnerException, IOException {
+    CommandLineOptions cmd = new CommandLineOptions(args);
+    if (cmd.shouldHelp() || cmd.shouldList() || cmd.shouldListProfilers()
+        || cmd.shouldListResultFormats()) {
+      org.openjdk.jmh.Main.main(args);
+      return;
+    }
+    Options options = new OptionsBuilder()
+        .parent(cmd)
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(options).run();
+  } // main()
+
+} // HangmanBenchmarks
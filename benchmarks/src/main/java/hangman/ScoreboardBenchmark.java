@@ -0,0 +1,74 @@
+package hangman;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scoreboard refresh after a move, for rosters from 2 to 100k players.
+ *
+ * Rosters up to GameData.MAX_PANELS use one panel per player and larger
+ * ones a JTable, so the parameters cover both. The components are built
+ * but never shown, so the forked JVM runs headless; what is measured is
+ * the model and component updates a move triggers, not the painting.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class ScoreboardBenchmark {
+  /** Players in the game. */
+  @Param({"2", "16", "1000", "100000"})
+  public int numPlayers;
+
+  /* Game being shown */
+  private GameState state;
+
+  /* Scoreboard of the game */
+  private GameData data;
+
+  /**
+   * Create a game and its scoreboard.
+   */
+  @Setup
+  public void setUp() {
+    state = new GameState();
+    for (int p = 0; p < numPlayers; ++p) {
+      state.addPlayer("Player " + p);
+    } // for
+    state.setPuzzle(GuessBenchmark.makeText(100));
+    data = new GameData(state);
+    data.makeScoreboard();
+  } // setUp()
+
+  /**
+   * Pay the current player, pass the turn and refresh the scoreboard.
+   */
+  @Benchmark
+  public void updatePlayers() {
+    state.addToCurrent(500);
+    state.advancePlayer();
+    data.updatePlayers();
+  } // updatePlayers()
+
+  /**
+   * Refresh every player, as after a restored game.
+   */
+  @Benchmark
+  public void updateAll() {
+    state.addToCurrent(500);
+    data.updateAll();
+  } // updateAll()
+
+} // ScoreboardBenchmark
@@ -0,0 +1,80 @@
+package hangman;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Turn advance and balance updates, for rosters from 2 to 100k players.
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TurnBenchmark {
+  /** Players in the game. */
+  @Param({"2", "100", "100000"})
+  public int numPlayers;
+
+  /* Game being played */
+  private GameState state;
+
+  /* Engine of the game */
+  private GameEngine engine;
+
+  /**
+   * Create a game with the requested number of players.
+   */
+  @Setup
+  public void setUp() {
+    state = new GameState();
+    for (int p = 0; p < numPlayers; ++p) {
+      state.addPlayer("Player " + p);
+    } // for
+    state.setPuzzle(GuessBenchmark.makeText(100));
+    engine = new GameEngine(state);
+  } // setUp()
+
+  /**
+   * Pass the turn to the next player.
+   * @return new current player
+   */
+  @Benchmark
+  public int advancePlayer() {
+    state.advancePlayer();
+    return state.getCurrent();
+  } // advancePlayer()
+
+  /**
+   * Pay the current player and pass the turn.
+   * @return new current player
+   */
+  @Benchmark
+  public int payAndAdvance() {
+    state.addToCurrent(500);
+    state.advancePlayer();
+    return state.getCurrent();
+  } // payAndAdvance()
+
+  /**
+   * Lose a turn through the engine, as a wheel spin does.
+   * @return new current player
+   */
+  @Benchmark
+  public int loseATurn() {
+    engine.loseATurn();
+    return state.getCurrent();
+  } // loseATurn()
+
+} // TurnBenchmark
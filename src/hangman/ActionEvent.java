@@ -0,0 +1,34 @@
+package hangman;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event of one player action handled on the event
+ * dispatch thread. Committed by GameMetrics when a recording is running.
+ **/
+@Name("hangman.Action")
+@Label("Player Action")
+@Category("Hangman")
+@Description("Time the event dispatch thread spent handling a player action")
+@StackTrace(false)
+public class ActionEvent extends Event {
+  /** Action handled, see GameMetrics. */
+  @Label("Action")
+  public String action;
+
+  /** Player whose turn it was. */
+  @Label("Player")
+  public int player;
+
+  /** Time spent handling the action. */
+  @Label("Latency")
+  @Timespan(Timespan.NANOSECONDS)
+  public long latency;
+
+} // ActionEvent
@@ -0,0 +1,136 @@
+package hangman;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import javax.imageio.ImageIO;
+import javax.swing.ImageIcon;
+
+/**
+ * Loads the body part images from the classpath.
+ *
+ * The images are listed, in part order, in a manifest next to them and are
+ * read as streams, so they load the same from a directory or a jar. Every
+ * image is decoded in parallel off the EDT and the decoded parts are cached
+ * for the life of the JVM.
+ **/
+public final class BodyPartLoader {
+  /** Name of the manifest listing the images in part order. */
+  public static final String MANIFEST = "parts.txt";
+
+  /** Width of the placeholder, matching the first body part. */
+  public static final int PLACEHOLDER_WIDTH = 425;
+
+  /** Height of the placeholder, matching the first body part. */
+  public static final int PLACEHOLDER_HEIGHT = 393;
+
+  /* Blank part shown until the images have been decoded */
+  private static final BodyPart PLACEHOLDER = new BodyPart(new ImageIcon(
+      new BufferedImage(PLACEHOLDER_WIDTH, PLACEHOLDER_HEIGHT,
+          BufferedImage.TYPE_INT_RGB)));
+
+  /* Decoded parts, started on first use */
+  private static CompletableFuture<BodyPart[]> parts;
+
+  /* Utility class */
+  private BodyPartLoader() {
+  } // BodyPartLoader()
+
+  /**
+   * Start decoding the body part images if it has not been started yet.
+   * @return future completed with the body parts in order
+   */
+  public static synchronized CompletableFuture<BodyPart[]> load() {
+    if (parts == null) {
+      parts = CompletableFuture.supplyAsync(BodyPartLoader::readManifest)
+          .thenCompose(BodyPartLoader::decodeAll)
+          .exceptionally(BodyPartLoader::placeholders);
+    }
+    return parts;
+  } // load()
+
+  /**
+   * Retrieve the blank part shown while images are loading.
+   * @return placeholder body part
+   */
+  public static BodyPart placeholder() {
+    return PLACEHOLDER;
+  } // placeholder()
+
+  /* Report a failed load and fall back to placeholders for every part */
+  private static BodyPart[] placeholders(Throwable failure) {
+    System.out.println("ERROR: Could not load images: " + failure.getMessage());
+    BodyPart[] bodyParts = new BodyPart[HangmanFrame.NUM_PARTS];
+    Arrays.fill(bodyParts, PLACEHOLDER);
+    return bodyParts;
+  } // placeholders()
+
+  /* Read image names from the manifest */
+  private static String[] readManifest() {
+    ArrayList<String> names = new ArrayList<>();
+    try (InputStream in = open(MANIFEST);
+         BufferedReader reader = new BufferedReader(
+             new InputStreamReader(in, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (!line.isBlank()) {
+          names.add(line.trim());
+        }
+      } // while
+    } catch (IOException ioException) {
+      throw new UncheckedIOException(ioException);
+    }
+
+    if (names.size() != HangmanFrame.NUM_PARTS) {
+      System.out.println("ERROR: Invalid number of images in " + MANIFEST);
+      System.out.println("       Expected " + HangmanFrame.NUM_PARTS
+          + ", but found " + names.size());
+    }
+    return names.toArray(new String[0]);
+  } // readManifest()
+
+  /* Decode every image in parallel */
+  private static CompletableFuture<BodyPart[]> decodeAll(String[] names) {
+    BodyPart[] bodyParts = new BodyPart[HangmanFrame.NUM_PARTS];
+    CompletableFuture<?>[] decoding = new CompletableFuture<?>[bodyParts.length];
+    for (int i = 0; i < bodyParts.length; i++) {
+      int part = i;
+      decoding[i] = CompletableFuture.runAsync(() ->
+          bodyParts[part] = part < names.length ? decode(names[part]) : PLACEHOLDER);
+    } // for
+    return CompletableFuture.allOf(decoding).thenApply(done -> bodyParts);
+  } // decodeAll()
+
+  /* Decode a single image, falling back to the placeholder */
+  private static BodyPart decode(String name) {
+    try (InputStream in = open(name)) {
+      BufferedImage image = ImageIO.read(in);
+      if (image == null) {
+        throw new IOException("Unsupported image format");
+      }
+      return new BodyPart(new ImageIcon(image));
+    } catch (IOException ioException) {
+      System.out.println("ERROR: Could not load image " + name
+          + ": " + ioException.getMessage());
+      return PLACEHOLDER;
+    }
+  } // decode()
+
+  /* Open a resource in the images folder */
+  private static InputStream open(String name) throws IOException {
+    InputStream in = BodyPartLoader.class.getClassLoader()
+        .getResourceAsStream(HangmanFrame.IMAGES_PATH + "/" + name);
+    if (in == null) {
+      throw new IOException("Missing resource " + name);
+    }
+    return in;
+  } // open()
+
+} // BodyPartLoader
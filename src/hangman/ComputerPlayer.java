@@ -0,0 +1,411 @@
+package hangman;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Computer-controlled player that guesses from a dictionary.
+ *
+ * The puzzle is split into words and each word keeps the dictionary words
+ * that still fit it. After every move only those survivors are filtered
+ * against the new hidden state, while the letters they could hold are
+ * counted in the same pass. Large candidate sets are split across a
+ * fork/join pool. Each move has a time budget: work still pending when it
+ * runs out is skipped, which leaves some stale survivors for the next move
+ * to filter but never drops a real candidate. A word is only loaded once
+ * at most MAX_LOADED words fit it and they are found within the budget;
+ * until then it is left out of the scores and tried again next move.
+ *
+ * A solution that was tried and rejected is remembered for the rest of the
+ * puzzle, since a puzzle word missing from the dictionary can leave one
+ * wrong candidate fitting it; the player then goes back to guessing
+ * letters instead of trying the same answer again.
+ *
+ * A ComputerPlayer reads the game only through the hidden puzzle and the
+ * guessed letters, and plays one game at a time.
+ **/
+public class ComputerPlayer {
+  /** Default time budget for a move. */
+  public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+  /** Most candidates loaded for a word. */
+  public static final int MAX_LOADED = 1 << 12;
+
+  /* Letters from most to least common in English, used without candidates */
+  private static final String FALLBACK_ORDER = "ETAOINSHRDLCUMWFGYPBVKJXQZ";
+
+  /* Candidates handled by a single fork/join task */
+  private static final int SPLIT_THRESHOLD = 4096;
+
+  /* Dictionary of candidate words */
+  private final WordIndex dictionary;
+
+  /* Pool that filters candidates */
+  private final ForkJoinPool pool;
+
+  /* Time budget for a move */
+  private final long budgetNanos;
+
+  /* Puzzle the caches were built for */
+  private Puzzle puzzle;
+
+  /* First position of each word of the puzzle */
+  private int[] slotStart;
+
+  /* Length of each word of the puzzle */
+  private int[] slotLength;
+
+  /* Surviving candidates of each word, null until first loaded */
+  private String[][] survivors;
+
+  /* Number of surviving candidates of each word */
+  private int[] numSurvivors;
+
+  /* Letters revealed in each word when too many candidates last fit it */
+  private int[] overflowRevealed;
+
+  /* Expected number of words holding each letter, from the last update */
+  private final double[] scores = new double[Puzzle.NUM_LETTERS];
+
+  /* Copy of the hidden puzzle from the last update */
+  private char[] hidden;
+
+  /* Wrong solutions guessed so far, see guessSolution() */
+  private long attempts;
+
+  /* Solutions rejected for the current puzzle */
+  private final HashSet<String> rejected = new HashSet<>();
+
+  /**
+   * Create a computer player with the default time budget.
+   * @param dictionary dictionary of candidate words
+   */
+  public ComputerPlayer(WordIndex dictionary) {
+    this(dictionary, DEFAULT_BUDGET_NANOS, ForkJoinPool.commonPool());
+  } // ComputerPlayer()
+
+  /**
+   * Create a computer player.
+   * @param dictionary dictionary of candidate words
+   * @param budgetNanos time budget for a move
+   * @param pool pool that filters candidates
+   */
+  public ComputerPlayer(WordIndex dictionary, long budgetNanos,
+      ForkJoinPool pool) {
+    this.dictionary = dictionary;
+    this.budgetNanos = budgetNanos;
+    this.pool = pool;
+  } // ComputerPlayer()
+
+  /**
+   * Play one action for the current player: solve when the answer is
+   * known and has not been rejected before, buy the best vowel when it beats every consonant, or otherwise
+   * spin the wheel and guess the best consonant if it lands on money.
+   * @param engine engine of the game, with this player as current
+   * @param wheel wheel to spin
+   * @param generator random number generator for the spin
+   */
+  public void takeTurn(GameEngine engine, Wheel wheel,
+      RandomGenerator generator) {
+    GameState state = engine.getState();
+    update(state);
+
+    String solution = solution();
+    if (solution != null && !rejected.contains(solution)) {
+      if (!engine.solve(solution)) {
+        rejected.add(solution);
+      }
+      return;
+    }
+
+    int guessed = state.getGuessed();
+    char vowel = bestLetter(Letters.VOWELS & ~guessed);
+    char cons = bestLetter(Letters.CONS & ~guessed);
+    if (vowel != 0 && engine.canBuyVowel()
+        && (cons == 0 || score(vowel) > score(cons))) {
+      engine.buyVowel();
+      engine.guessVowel(vowel);
+    } else if (cons != 0) {
+      if (wheel.apply(engine, wheel.spin(generator))) {
+        engine.guessConsonant(cons);
+      }
+    } else {
+      // Every consonant has been tried and no vowel can be bought
+      engine.solve(guessSolution(state));
+    }
+  } // takeTurn()
+
+  /**
+   * Bring the candidates up to date with the game, within the time budget.
+   * @param state state of the game
+   */
+  public void update(GameState state) {
+    long deadline = System.nanoTime() + budgetNanos;
+    if (state.getPuzzle() != puzzle) {
+      newPuzzle(state);
+    }
+    for (int i = 0; i < hidden.length; ++i) {
+      hidden[i] = state.hiddenAt(i);
+    } // for
+
+    Arrays.fill(scores, 0);
+    int blocked = state.getGuessed();
+    for (int s = 0; s < slotStart.length; ++s) {
+      if (survivors[s] == null) {
+        load(s, blocked, deadline);
+      }
+      if (survivors[s] == null || numSurvivors[s] == 0) {
+        continue;
+      }
+
+      Filter filter = new Filter(s, 0, numSurvivors[s], blocked, deadline);
+      int[] freq = numSurvivors[s] > SPLIT_THRESHOLD
+          ? pool.invoke(filter) : filter.compute();
+      numSurvivors[s] = filter.kept;
+      if (filter.kept > 0) {
+        for (int l = 0; l < Puzzle.NUM_LETTERS; ++l) {
+          scores[l] += (double) freq[l] / filter.kept;
+        } // for
+      }
+    } // for
+  } // update()
+
+  /* Load the candidates of a word, unless too many fit it or time is up */
+  private void load(int s, int blocked, long deadline) {
+    char[] pattern = Arrays.copyOfRange(hidden, slotStart[s],
+        slotStart[s] + slotLength[s]);
+    int revealed = slotLength[s];
+    for (char c : pattern) {
+      if (c == Puzzle.HIDDEN) {
+        --revealed;
+      }
+    } // for
+    if (revealed == overflowRevealed[s]) {
+      // Nothing new was revealed, so too many words still fit
+      return;
+    }
+    List<String> found = dictionary.matches(pattern, blocked, MAX_LOADED + 1,
+        deadline);
+    if (found == null) {
+      return;
+    }
+    if (found.size() > MAX_LOADED) {
+      overflowRevealed[s] = revealed;
+      return;
+    }
+    survivors[s] = found.toArray(new String[0]);
+    numSurvivors[s] = survivors[s].length;
+  } // load()
+
+  /**
+   * Retrieve the solution if every word is known.
+   * @return solution, or null if some word is still uncertain
+   */
+  public String solution() {
+    boolean known = true;
+    char[] guess = hidden.clone();
+    for (int s = 0; s < slotStart.length && known; ++s) {
+      if (isHidden(s)) {
+        known = numSurvivors[s] == 1;
+        if (known) {
+          survivors[s][0].getChars(0, slotLength[s], guess, slotStart[s]);
+        }
+      }
+    } // for
+    return known ? new String(guess) : null;
+  } // solution()
+
+  /* Guess the puzzle, trying a new combination of candidates each call */
+  private String guessSolution(GameState state) {
+    char[] guess = hidden.clone();
+    long combination = attempts++;
+    int vowels = Letters.VOWELS & ~state.getGuessed();
+    int numVowels = Integer.bitCount(vowels);
+    for (int s = 0; s < slotStart.length; ++s) {
+      if (!isHidden(s)) {
+        continue;
+      }
+      if (survivors[s] != null && numSurvivors[s] > 0) {
+        int pick = (int) (combination % numSurvivors[s]);
+        combination /= numSurvivors[s];
+        survivors[s][pick].getChars(0, slotLength[s], guess, slotStart[s]);
+        continue;
+      }
+      // Not in the dictionary, so only unguessed vowels can be hidden
+      for (int i = slotStart[s]; i < slotStart[s] + slotLength[s]; ++i) {
+        if (guess[i] == Puzzle.HIDDEN && numVowels > 0) {
+          int rest = vowels;
+          for (int k = (int) (combination % numVowels); k > 0; --k) {
+            rest &= rest - 1;
+          } // for
+          guess[i] = (char) ('A' + Integer.numberOfTrailingZeros(rest));
+          combination /= numVowels;
+        }
+      } // for
+    } // for
+    return new String(guess);
+  } // guessSolution()
+
+  /**
+   * Pick the letter most likely to be in the puzzle.
+   * @param allowed letters to choose from, see Letters
+   * @return best letter, or 0 if none are allowed
+   */
+  public char bestLetter(int allowed) {
+    int best = -1;
+    for (int rest = allowed; rest != 0; rest &= rest - 1) {
+      int l = Integer.numberOfTrailingZeros(rest);
+      if (best < 0 || scores[l] > scores[best]) {
+        best = l;
+      }
+    } // for
+    if (best >= 0 && scores[best] > 0) {
+      return (char) ('A' + best);
+    }
+
+    // No candidate holds an allowed letter, so guess by English frequency
+    for (int i = 0; i < FALLBACK_ORDER.length(); ++i) {
+      char c = FALLBACK_ORDER.charAt(i);
+      if (Letters.contains(allowed, c)) {
+        return c;
+      }
+    } // for
+    return 0;
+  } // bestLetter()
+
+  /* Retrieve the score of a letter */
+  private double score(char letter) {
+    return scores[Puzzle.letterIndex(letter)];
+  } // score()
+
+  /* Determine if a word still has hidden letters */
+  private boolean isHidden(int s) {
+    for (int i = slotStart[s]; i < slotStart[s] + slotLength[s]; ++i) {
+      if (hidden[i] == Puzzle.HIDDEN) {
+        return true;
+      }
+    } // for
+    return false;
+  } // isHidden()
+
+  /* Split a new puzzle into words and clear the caches */
+  private void newPuzzle(GameState state) {
+    puzzle = state.getPuzzle();
+    hidden = new char[puzzle.length()];
+    attempts = 0;
+    rejected.clear();
+
+    ArrayList<int[]> slots = new ArrayList<>();
+    int start = -1;
+    for (int i = 0; i <= hidden.length; ++i) {
+      char c = i < hidden.length ? state.hiddenAt(i) : ' ';
+      boolean inWord = c == Puzzle.HIDDEN || Puzzle.letterIndex(c) >= 0;
+      if (inWord && start < 0) {
+        start = i;
+      } else if (!inWord && start >= 0) {
+        slots.add(new int[] { start, i - start });
+        start = -1;
+      }
+    } // for
+
+    slotStart = new int[slots.size()];
+    slotLength = new int[slots.size()];
+    for (int s = 0; s < slots.size(); ++s) {
+      slotStart[s] = slots.get(s)[0];
+      slotLength[s] = slots.get(s)[1];
+    } // for
+    survivors = new String[slots.size()][];
+    numSurvivors = new int[slots.size()];
+    overflowRevealed = new int[slots.size()];
+    Arrays.fill(overflowRevealed, -1);
+  } // newPuzzle()
+
+  // Task that compacts the survivors of one word that still fit the hidden
+  // state to the front of its range, and counts the letters they could
+  // hold in hidden positions.
+  private class Filter extends RecursiveTask<int[]> {
+    /* Word being filtered */
+    private final int slot;
+
+    /* First candidate of the range */
+    private final int lo;
+
+    /* End of the range */
+    private final int hi;
+
+    /* Letters that cannot be hidden */
+    private final int blocked;
+
+    /* Time after which candidates are kept unchecked */
+    private final long deadline;
+
+    /* Number of candidates kept at the front of the range */
+    private int kept;
+
+    Filter(int slot, int lo, int hi, int blocked, long deadline) {
+      this.slot = slot;
+      this.lo = lo;
+      this.hi = hi;
+      this.blocked = blocked;
+      this.deadline = deadline;
+    } // Filter()
+
+    @Override
+    protected int[] compute() {
+      if (hi - lo > SPLIT_THRESHOLD) {
+        int mid = (lo + hi) >>> 1;
+        Filter left = new Filter(slot, lo, mid, blocked, deadline);
+        Filter right = new Filter(slot, mid, hi, blocked, deadline);
+        right.fork();
+        int[] freq = left.compute();
+        int[] rightFreq = right.join();
+        String[] words = survivors[slot];
+        System.arraycopy(words, mid, words, lo + left.kept, right.kept);
+        kept = left.kept + right.kept;
+        for (int l = 0; l < Puzzle.NUM_LETTERS; ++l) {
+          freq[l] += rightFreq[l];
+        } // for
+        return freq;
+      }
+
+      int[] freq = new int[Puzzle.NUM_LETTERS];
+      if (System.nanoTime() > deadline) {
+        kept = hi - lo;
+        return freq;
+      }
+      String[] words = survivors[slot];
+      int start = slotStart[slot];
+      int length = slotLength[slot];
+      for (int w = lo; w < hi; ++w) {
+        String word = words[w];
+        int used = 0;
+        boolean fits = true;
+        for (int i = 0; i < length && fits; ++i) {
+          char c = word.charAt(i);
+          char shown = hidden[start + i];
+          if (shown == Puzzle.HIDDEN) {
+            fits = !Letters.contains(blocked, c);
+            used |= Letters.bit(c);
+          } else {
+            fits = shown == c;
+          }
+        } // for
+        if (fits) {
+          words[lo + kept++] = word;
+          for (int rest = used; rest != 0; rest &= rest - 1) {
+            ++freq[Integer.numberOfTrailingZeros(rest)];
+          } // for
+        }
+      } // for
+      return freq;
+    } // compute()
+
+  } // Filter
+
+} // ComputerPlayer
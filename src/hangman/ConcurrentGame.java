@@ -0,0 +1,367 @@
+package hangman;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread-safe game that many players may act on at once.
+ *
+ * Everything that gates a move lives in one packed state word: the
+ * guessed letters, the current player, the value of the last spin and
+ * whether a consonant is owed or the game is over. A move reads the word,
+ * checks it and publishes the next word with a single compare-and-set;
+ * moves that lose the race re-read and re-check, so no lock is ever held.
+ * An out-of-turn move is rejected after one volatile read, without writing
+ * anything. The hidden puzzle is never stored: a letter is shown once it
+ * is in the guessed mask.
+ *
+ * The word is published together with the balances in an immutable
+ * snapshot, so winnings, a bankruptcy or the price of a vowel take effect
+ * in the same compare-and-set as the move that caused them and can never
+ * be reordered with a later move. Only moves that change a balance copy
+ * the balances, and a game holds at most MAX_PLAYERS players so that copy
+ * stays small.
+ **/
+public class ConcurrentGame {
+  /** Rejection of a move by a player who does not have the turn. */
+  public static final int NOT_YOUR_TURN = -1;
+
+  /** Rejection of a letter that has already been guessed. */
+  public static final int ALREADY_GUESSED = -2;
+
+  /** Rejection of a move that the rules do not allow right now. */
+  public static final int NOT_ALLOWED = -3;
+
+  /** Rejection of a move made after the puzzle was solved. */
+  public static final int GAME_OVER = -4;
+
+  /** Most players in one game. */
+  public static final int MAX_PLAYERS = 256;
+
+  /* Bits of the state word holding the guessed letters */
+  private static final long GUESSED_MASK = (1L << Puzzle.NUM_LETTERS) - 1;
+
+  /* Position of the current player in the state word */
+  private static final int TURN_SHIFT = 26;
+
+  /* Position of the spin value in the state word */
+  private static final int MONEY_SHIFT = 42;
+
+  /* Largest player index or spin value the state word can hold */
+  private static final int FIELD_MAX = 0xFFFF;
+
+  /* State word flag set while the current player owes a consonant */
+  private static final long SPUN = 1L << 58;
+
+  /* State word flag set once the puzzle is solved */
+  private static final long OVER = 1L << 59;
+
+  /* Puzzle being solved */
+  private final Puzzle puzzle;
+
+  /* Number of players */
+  private final int numPlayers;
+
+  /* Packed state word and balances */
+  private final AtomicReference<Snapshot> state;
+
+  // State word with the balance of each player as of that word.
+  private static final class Snapshot {
+    /* Packed state word */
+    final long word;
+
+    /* Balance of each player, never modified once published */
+    final long[] balances;
+
+    Snapshot(long word, long[] balances) {
+      this.word = word;
+      this.balances = balances;
+    } // Snapshot()
+
+    /* Copy the balances with one of them changed */
+    long[] withBalance(int player, long balance) {
+      long[] changed = balances.clone();
+      changed[player] = balance;
+      return changed;
+    } // withBalance()
+
+  } // Snapshot
+
+  /**
+   * Create a game for a number of players, with the first player to move.
+   * @param puzzle puzzle to solve
+   * @param numPlayers number of players, 1 to MAX_PLAYERS
+   * @throws IllegalArgumentException if the number of players is not
+   *   allowed
+   */
+  public ConcurrentGame(Puzzle puzzle, int numPlayers) {
+    if (numPlayers < 1 || numPlayers > MAX_PLAYERS) {
+      throw new IllegalArgumentException("Bad number of players: " + numPlayers);
+    }
+    this.puzzle = puzzle;
+    this.numPlayers = numPlayers;
+    state = new AtomicReference<>(new Snapshot(0, new long[numPlayers]));
+  } // ConcurrentGame()
+
+  /**
+   * Retrieve the puzzle being solved.
+   * @return puzzle
+   */
+  public Puzzle getPuzzle() {
+    return puzzle;
+  } // getPuzzle()
+
+  /**
+   * Retrieve the number of players.
+   * @return number of players
+   */
+  public int getNumPlayers() {
+    return numPlayers;
+  } // getNumPlayers()
+
+  /**
+   * Retrieve the index of the current player, or of the winner once the
+   * game is over.
+   * @return index of the current player
+   */
+  public int getCurrent() {
+    return turn(state.get().word);
+  } // getCurrent()
+
+  /**
+   * Retrieve the set of guessed letters.
+   * @return guessed letters, see Letters
+   */
+  public int getGuessed() {
+    return (int) (state.get().word & GUESSED_MASK);
+  } // getGuessed()
+
+  /**
+   * Retrieve the balance of a given player.
+   * @param player index of the player
+   * @return balance of the player
+   */
+  public long getBalance(int player) {
+    return state.get().balances[player];
+  } // getBalance()
+
+  /**
+   * Determine if the puzzle has been solved.
+   * @return whether or not the game is over
+   */
+  public boolean isOver() {
+    return (state.get().word & OVER) != 0;
+  } // isOver()
+
+  /**
+   * Determine if the current player spun money and must guess a consonant.
+   * @return whether or not a consonant is owed
+   */
+  public boolean owesConsonant() {
+    return (state.get().word & SPUN) != 0;
+  } // owesConsonant()
+
+  /**
+   * Retrieve the winner of the game.
+   * @return index of the winner, or GameState.NO_WINNER while playing
+   */
+  public int getWinner() {
+    long s = state.get().word;
+    return (s & OVER) != 0 ? turn(s) : GameState.NO_WINNER;
+  } // getWinner()
+
+  /**
+   * Retrieve a position of the puzzle as the players see it.
+   * @param pos position in the puzzle
+   * @return letter if guessed or not a letter, Puzzle.HIDDEN otherwise
+   */
+  public char hiddenAt(int pos) {
+    char c = Character.toUpperCase(puzzle.getText().charAt(pos));
+    return Puzzle.letterIndex(c) < 0 || Letters.contains(getGuessed(), c)
+        ? c : Puzzle.HIDDEN;
+  } // hiddenAt()
+
+  /**
+   * Apply a spin of the wheel for a player: money makes the player owe a
+   * consonant, a penalty passes the turn.
+   * @param player index of the player spinning
+   * @param space space landed on, see Wheel
+   * @return 0 if applied, or a rejection
+   */
+  public int spin(int player, int space) {
+    Snapshot current;
+    Snapshot next;
+    do {
+      current = state.get();
+      long s = current.word;
+      int rejected = checkTurn(s, player, false);
+      if (rejected != 0) {
+        return rejected;
+      }
+      if ((s & Letters.CONS) == Letters.CONS) {
+        return NOT_ALLOWED;
+      }
+      if (space > 0) {
+        next = new Snapshot((s & ~(((long) FIELD_MAX) << MONEY_SHIFT))
+            | ((long) Math.min(space, FIELD_MAX) << MONEY_SHIFT) | SPUN,
+            current.balances);
+      } else if (space == Wheel.BANKRUPT && current.balances[player] != 0) {
+        next = new Snapshot(withTurn(s, nextPlayer(player)),
+            current.withBalance(player, 0));
+      } else {
+        next = new Snapshot(withTurn(s, nextPlayer(player)),
+            current.balances);
+      }
+    } while (!state.compareAndSet(current, next));
+    return 0;
+  } // spin()
+
+  /**
+   * Guess a consonant after spinning money. A hit pays the spin value, a
+   * miss passes the turn.
+   * @param player index of the player guessing
+   * @param cons upper case consonant
+   * @return number of occurrences revealed, or a rejection
+   */
+  public int guessConsonant(int player, char cons) {
+    if (!GameEngine.isConsonant(cons)) {
+      return NOT_ALLOWED;
+    }
+    long bit = Letters.bit(cons);
+    int found = puzzle.occurrences(cons);
+    Snapshot current;
+    Snapshot next;
+    do {
+      current = state.get();
+      long s = current.word;
+      int rejected = checkTurn(s, player, true);
+      if (rejected != 0) {
+        return rejected;
+      }
+      if ((s & bit) != 0) {
+        return ALREADY_GUESSED;
+      }
+      long word = (s | bit) & ~SPUN;
+      long won = (s >>> MONEY_SHIFT) & FIELD_MAX;
+      if (found == 0) {
+        next = new Snapshot(withTurn(word, nextPlayer(player)),
+            current.balances);
+      } else {
+        next = new Snapshot(word, current.withBalance(player,
+            current.balances[player] + won));
+      }
+    } while (!state.compareAndSet(current, next));
+    return found;
+  } // guessConsonant()
+
+  /**
+   * Buy and guess a vowel. A miss passes the turn.
+   * @param player index of the player buying
+   * @param vowel upper case vowel
+   * @return number of occurrences revealed, or a rejection
+   */
+  public int buyVowel(int player, char vowel) {
+    if (!GameEngine.isVowel(vowel)) {
+      return NOT_ALLOWED;
+    }
+    long bit = Letters.bit(vowel);
+    int found = puzzle.occurrences(vowel);
+    Snapshot current;
+    Snapshot next;
+    do {
+      current = state.get();
+      long s = current.word;
+      int rejected = checkTurn(s, player, false);
+      if (rejected != 0) {
+        return rejected;
+      }
+      if ((s & bit) != 0) {
+        return ALREADY_GUESSED;
+      }
+      long balance = current.balances[player];
+      if (balance < GameEngine.VOWEL_COST) {
+        return NOT_ALLOWED;
+      }
+      long word = s | bit;
+      if (found == 0) {
+        word = withTurn(word, nextPlayer(player));
+      }
+      next = new Snapshot(word,
+          current.withBalance(player, balance - GameEngine.VOWEL_COST));
+    } while (!state.compareAndSet(current, next));
+    return found;
+  } // buyVowel()
+
+  /**
+   * Attempt to solve the puzzle. A wrong answer passes the turn.
+   * @param player index of the player solving
+   * @param guess complete puzzle guess
+   * @return 1 if solved, 0 if wrong, or a rejection
+   */
+  public int solve(int player, String guess) {
+    boolean correct = puzzle.matches(guess);
+    Snapshot current;
+    Snapshot next;
+    do {
+      current = state.get();
+      long s = current.word;
+      int rejected = checkTurn(s, player, false);
+      if (rejected != 0) {
+        return rejected;
+      }
+      next = new Snapshot(correct ? s | OVER : withTurn(s, nextPlayer(player)),
+          current.balances);
+    } while (!state.compareAndSet(current, next));
+    return correct ? 1 : 0;
+  } // solve()
+
+  /**
+   * Copy the game into a single-threaded GameState.
+   * @param names name of each player
+   * @return state of the game as of one moment
+   */
+  public GameState toState(String[] names) {
+    Snapshot current = state.get();
+    long s = current.word;
+    GameState copy = new GameState();
+    for (int p = 0; p < numPlayers; ++p) {
+      copy.addPlayer(names[p]);
+      copy.setBalance(p, current.balances[p]);
+    } // for
+    copy.setPuzzle(puzzle);
+    copy.setGuessed((int) (s & GUESSED_MASK));
+    copy.setCurrent(turn(s));
+    copy.setToAdd((int) ((s >>> MONEY_SHIFT) & FIELD_MAX));
+    if ((s & OVER) != 0) {
+      copy.setWinner(turn(s));
+    }
+    return copy;
+  } // toState()
+
+  /* Check that a player may move in a given state */
+  private static int checkTurn(long s, int player, boolean afterSpin) {
+    if ((s & OVER) != 0) {
+      return GAME_OVER;
+    }
+    if (turn(s) != player) {
+      return NOT_YOUR_TURN;
+    }
+    return ((s & SPUN) != 0) == afterSpin ? 0 : NOT_ALLOWED;
+  } // checkTurn()
+
+  /* Retrieve the current player of a state */
+  private static int turn(long s) {
+    return (int) ((s >>> TURN_SHIFT) & FIELD_MAX);
+  } // turn()
+
+  /* Replace the current player of a state, clearing any owed consonant */
+  private static long withTurn(long s, int player) {
+    return (s & ~((long) FIELD_MAX << TURN_SHIFT) & ~SPUN)
+        | ((long) player << TURN_SHIFT);
+  } // withTurn()
+
+  /* Retrieve the player after a given player */
+  private int nextPlayer(int player) {
+    return player + 1 == numPlayers ? 0 : player + 1;
+  } // nextPlayer()
+
+} // ConcurrentGame
@@ -0,0 +1,217 @@
+package hangman;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures moves per second when many threads act on one shared game.
+ *
+ * Every thread plays one seat and keeps trying to move: spin, guess the
+ * next consonant, buy a vowel when it can or solve once the puzzle is
+ * revealed. Most attempts are out of turn and must be rejected cheaply;
+ * a rejected thread yields before trying again.
+ * When a game ends the thread that notices swaps in a new one. The same
+ * workload runs against ConcurrentGame and against a GameEngine guarded
+ * by one lock, for a growing number of threads.
+ **/
+public class ContentionBenchmark {
+  /* Puzzle of every game */
+  private static final Puzzle PUZZLE =
+      new Puzzle("The quick brown fox jumps over the lazy dog");
+
+  /* Consonants in order of English frequency */
+  private static final String CONSONANTS = "TNSRHLDCMFPGWYBVKXJQZ";
+
+  /* Vowels in order of English frequency */
+  private static final String VOWELS = "EAOIU";
+
+  /* Wheel of the locked games */
+  private static final Wheel WHEEL = new Wheel();
+
+  /* Time each run lasts */
+  private static final long RUN_NANOS = 1_000_000_000L;
+
+  // Game that threads can move in, whatever keeps it consistent.
+  private interface SharedGame {
+    /* Try one move for a player; return whether it was accepted */
+    boolean tryMove(int player, ThreadLocalRandom random);
+
+    /* Determine if the game is over */
+    boolean isOver();
+
+  } // SharedGame
+
+  // Moves resolved by compare-and-set on ConcurrentGame.
+  private static class LockFreeGame implements SharedGame {
+    /* Game being played */
+    private final ConcurrentGame game;
+
+    LockFreeGame(int numPlayers) {
+      game = new ConcurrentGame(PUZZLE, numPlayers);
+    } // LockFreeGame()
+
+    @Override
+    public boolean tryMove(int player, ThreadLocalRandom random) {
+      if (game.getCurrent() != player) {
+        // Rejected after one read unless the turn just arrived
+        return game.solve(player, "") >= 0;
+      }
+      int guessed = game.getGuessed();
+      char cons = next(CONSONANTS, guessed);
+      if (game.owesConsonant()) {
+        return game.guessConsonant(player, cons) >= 0;
+      }
+      char vowel = next(VOWELS, guessed);
+      boolean canBuy = vowel != 0
+          && game.getBalance(player) >= GameEngine.VOWEL_COST;
+      if ((guessed & PUZZLE.letterMask()) == PUZZLE.letterMask()
+          || (cons == 0 && !canBuy)) {
+        return game.solve(player, PUZZLE.getText()) >= 0;
+      }
+      if (canBuy) {
+        return game.buyVowel(player, vowel) >= 0;
+      }
+      int space = Wheel.STANDARD[random.nextInt(Wheel.STANDARD.length)];
+      if (game.spin(player, space) < 0) {
+        return false;
+      }
+      return space <= 0 || game.guessConsonant(player, cons) >= 0;
+    } // tryMove()
+
+    @Override
+    public boolean isOver() {
+      return game.isOver();
+    } // isOver()
+
+  } // LockFreeGame
+
+  // Moves resolved by GameEngine under one lock.
+  private static class LockedGame implements SharedGame {
+    /* Game being played */
+    private final GameEngine engine;
+
+    LockedGame(int numPlayers) {
+      GameState state = new GameState();
+      for (int p = 0; p < numPlayers; ++p) {
+        state.addPlayer("Player " + p);
+      } // for
+      state.setPuzzle(PUZZLE);
+      engine = new GameEngine(state);
+    } // LockedGame()
+
+    @Override
+    public synchronized boolean tryMove(int player, ThreadLocalRandom random) {
+      GameState state = engine.getState();
+      if (engine.isOver() || state.getCurrent() != player) {
+        return false;
+      }
+      int guessed = state.getGuessed();
+      char vowel = next(VOWELS, guessed);
+      boolean canBuy = vowel != 0 && engine.canBuyVowel();
+      if ((guessed & PUZZLE.letterMask()) == PUZZLE.letterMask()
+          || (!engine.canSpin() && !canBuy)) {
+        engine.solve(PUZZLE.getText());
+        return true;
+      }
+      if (canBuy) {
+        engine.buyVowel();
+        engine.guessVowel(vowel);
+        return true;
+      }
+      if (WHEEL.apply(engine, WHEEL.spin(random))) {
+        engine.guessConsonant(next(CONSONANTS, state.getGuessed()));
+      }
+      return true;
+    } // tryMove()
+
+    @Override
+    public synchronized boolean isOver() {
+      return engine.isOver();
+    } // isOver()
+
+  } // LockedGame
+
+  /* Find the first letter of an order that has not been guessed */
+  private static char next(String order, int guessed) {
+    for (int i = 0; i < order.length(); ++i) {
+      if (!Letters.contains(guessed, order.charAt(i))) {
+        return order.charAt(i);
+      }
+    } // for
+    return 0;
+  } // next()
+
+  /* Run the workload with a number of threads and report moves per second */
+  private static String run(String name, int numThreads, boolean lockFree)
+      throws InterruptedException {
+    AtomicReference<SharedGame> current = new AtomicReference<>(
+        lockFree ? new LockFreeGame(numThreads) : new LockedGame(numThreads));
+    LongAdder accepted = new LongAdder();
+    LongAdder rejected = new LongAdder();
+    LongAdder games = new LongAdder();
+    CountDownLatch done = new CountDownLatch(numThreads);
+    long deadline = System.nanoTime() + RUN_NANOS;
+
+    for (int t = 0; t < numThreads; ++t) {
+      int player = t;
+      Thread thread = new Thread(() -> {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long localAccepted = 0;
+        long localRejected = 0;
+        while (System.nanoTime() < deadline) {
+          for (int i = 0; i < 1000; ++i) {
+            SharedGame game = current.get();
+            if (game.isOver()) {
+              SharedGame fresh = lockFree
+                  ? new LockFreeGame(numThreads) : new LockedGame(numThreads);
+              if (current.compareAndSet(game, fresh)) {
+                games.increment();
+              }
+            } else if (game.tryMove(player, random)) {
+              ++localAccepted;
+            } else {
+              ++localRejected;
+              // Let the player with the turn run when cores are scarce
+              Thread.yield();
+            }
+          } // for
+        } // while
+        accepted.add(localAccepted);
+        rejected.add(localRejected);
+        done.countDown();
+      });
+      thread.start();
+    } // for
+    done.await();
+
+    double seconds = RUN_NANOS / 1e9;
+    return String.format("%-10s %2d threads: %,13.0f attempts/s %,11.0f moves/s"
+        + " %,9.0f games/s%n", name, numThreads,
+        (accepted.sum() + rejected.sum()) / seconds, accepted.sum() / seconds,
+        games.sum() / seconds);
+  } // run()
+
+  /**
+   * Run the benchmark for 1, 2, 4, ... threads up to a maximum. Accepts
+   * "--threads N", by default twice the number of cores, and at most one
+   * thread for each player a ConcurrentGame can hold.
+   * @param args command line options
+   * @throws InterruptedException if interrupted while waiting for threads
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int maxThreads = 2 * Runtime.getRuntime().availableProcessors();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--threads")) {
+        maxThreads = Integer.parseInt(args[i + 1]);
+      }
+    } // for
+    maxThreads = Math.min(maxThreads, ConcurrentGame.MAX_PLAYERS);
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      System.out.print(run("lock-free", threads, true));
+      System.out.print(run("locked", threads, false));
+    } // for
+  } // main()
+
+} // ContentionBenchmark
@@ -0,0 +1,102 @@
+package hangman;
+
+/**
+ * Strategy that guesses letters in English frequency order.
+ *
+ * It buys a vowel whenever it can keep a reserve after paying for it, and
+ * models recognizing the phrase: once a given fraction of the letters is
+ * revealed it solves correctly, and before that any forced attempt is the
+ * hidden puzzle as shown, which is wrong. Choices never allocate, so a
+ * simulation can play many games per second per core.
+ **/
+public class FrequencyStrategy implements Strategy {
+  /* Consonants from most to least common in English */
+  private static final String CONS_ORDER = "TNSHRDLCMWFGYPBVKJXQZ";
+
+  /* Vowels from most to least common in English */
+  private static final String VOWEL_ORDER = "EAOIU";
+
+  /* Name of the strategy */
+  private final String name;
+
+  /* Balance kept after buying a vowel */
+  private final long vowelReserve;
+
+  /* Fraction of revealed letters at which the phrase is recognized */
+  private final double recognizeAt;
+
+  /**
+   * Create a frequency strategy.
+   * @param name name of the strategy
+   * @param vowelReserve balance kept after buying a vowel, or a negative
+   *     value to never buy vowels while consonants remain
+   * @param recognizeAt fraction of revealed letters, from 0 to 1, at which
+   *     the phrase is recognized and solved
+   */
+  public FrequencyStrategy(String name, long vowelReserve, double recognizeAt) {
+    if (recognizeAt < 0 || recognizeAt > 1) {
+      throw new IllegalArgumentException("Invalid fraction " + recognizeAt);
+    }
+    this.name = name;
+    this.vowelReserve = vowelReserve;
+    this.recognizeAt = recognizeAt;
+  } // FrequencyStrategy()
+
+  @Override
+  public String getName() {
+    return name;
+  } // getName()
+
+  @Override
+  public int chooseAction(GameEngine engine) {
+    GameState state = engine.getState();
+    if (recognizes(state)) {
+      return SOLVE;
+    }
+    boolean canBuy = engine.canBuyVowel();
+    if (canBuy && vowelReserve >= 0
+        && state.currentBalance() >= GameEngine.VOWEL_COST + vowelReserve) {
+      return BUY_VOWEL;
+    }
+    if (engine.canSpin()) {
+      return SPIN;
+    }
+    return canBuy ? BUY_VOWEL : SOLVE;
+  } // chooseAction()
+
+  @Override
+  public char chooseConsonant(GameState state) {
+    return firstUnguessed(state, CONS_ORDER);
+  } // chooseConsonant()
+
+  @Override
+  public char chooseVowel(GameState state) {
+    return firstUnguessed(state, VOWEL_ORDER);
+  } // chooseVowel()
+
+  @Override
+  public String solve(GameState state) {
+    if (recognizes(state)) {
+      return state.getPuzzle().getText();
+    }
+    return new String(state.getHidden());
+  } // solve()
+
+  /* Determine if enough of the puzzle is revealed to recognize it */
+  private boolean recognizes(GameState state) {
+    int total = state.getPuzzle().numHidden();
+    return total == 0 || state.getNumRevealed() >= recognizeAt * total;
+  } // recognizes()
+
+  /* Find the first letter in an order that has not been guessed */
+  private static char firstUnguessed(GameState state, String order) {
+    for (int i = 0; i < order.length(); ++i) {
+      char c = order.charAt(i);
+      if (!state.isGuessed(c)) {
+        return c;
+      }
+    } // for
+    throw new IllegalStateException("Every letter has been guessed");
+  } // firstUnguessed()
+
+} // FrequencyStrategy
@@ -1,252 +1,214 @@
 package hangman;
 
 import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
 import java.awt.FlowLayout;
-import java.util.ArrayList;
+import java.awt.GridLayout;
 import javax.swing.BorderFactory;
+import javax.swing.JComponent;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
 import javax.swing.border.Border;
 import javax.swing.border.TitledBorder;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
 
 /**
+ * Swing view of the players in a GameState.
  *
- *
+ * All game rules live in GameEngine; this class only renders names and
+ * balances. Every rule changes at most the balance of the current player
+ * and then the turn, so a refresh only touches the cells of the previous
+ * and new current player. Small games get one titled panel per player;
+ * large rosters are shown in a JTable, which only paints visible rows.
  **/
 public class GameData {
-  /* List of player names */
-  private ArrayList<String> playerNames = new ArrayList<>();
+  /** Largest roster shown as individual panels. */
+  public static final int MAX_PANELS = 16;
 
-  /* List of player balances */
-  private ArrayList<Integer> playerBalance = new ArrayList<>();
+  /* Border of the current player */
+  private static final Border CURRENT_BORDER =
+      BorderFactory.createLineBorder(Color.RED);
 
-  /* List of player panels */
-  private ArrayList<JPanel> namePanels = new ArrayList<>();
+  /* Border of every other player */
+  private static final Border OTHER_BORDER =
+      BorderFactory.createLineBorder(Color.BLACK);
 
-  /* List of player titles */
-  private ArrayList<TitledBorder> nameTitles = new ArrayList<>();
+  /* State of the game being displayed */
+  private final GameState state;
 
-  /* List of guessed consonants */
-  private ArrayList<String> guessedCons = new ArrayList<>();
+  /* Player panels, when the roster is small */
+  private JPanel[] namePanels;
 
-  /* List of guessed vowels */
-  private ArrayList<String> guessedVowels = new ArrayList<>();
+  /* Player titles, when the roster is small */
+  private TitledBorder[] nameTitles;
 
-  /* Number of players in the game */
-  private int numPlayers = 0;
+  /* Player balance labels, when the roster is small */
+  private JLabel[] balanceLabels;
 
-  /* Index of the current player */
-  private int current = 0;
+  /* Player table model, when the roster is large */
+  private PlayerTableModel tableModel;
 
-  /* Potential balance increase */
-  private int toAdd = 0;
+  /* Balances as last rendered */
+  private long[] shownBalance;
 
-  /**
-   * Create a new player with a given name.
-   * @param name name of new player
-   */
-  public void addNewPlayer(String name) {
-    playerNames.add(name);
-    playerBalance.add(0);
-  } // addNewPlayer()
+  /* Current player as last rendered */
+  private int shownCurrent;
 
   /**
-   * Set the number of players in the game.
-   * @param numPlayers number of players in the game
+   * Create a view of the players in a given game.
+   * @param state state of the game
    */
-  public void setNumPlayers(int numPlayers) {
-    this.numPlayers = numPlayers;
-  } // setNumPlayers()
+  public GameData(GameState state) {
+    this.state = state;
+  } // GameData()
 
   /**
    * Retrieve the number of players in the game.
    * @return number of players in the game
    */
   public int getNumPlayers() {
-    return numPlayers;
+    return state.getNumPlayers();
   } // getNumPlayers()
 
   /**
-   * Set potential winnings for when a guess is correct.
-   * @param money potential increase in balance
+   * Create the scoreboard showing every player.
+   * @return component holding the scoreboard
    */
-  public void setToAdd(int money) {
-    toAdd = money;
-  } // setPotentialMoney()
-
-  /**
-   * Retrieve the name of the current player.
-   * @return name of the current player
-   */
-  public String currentName() {
-    return playerNames.get(current);
-  } // currentName()
+  public JComponent makeScoreboard() {
+    int numPlayers = getNumPlayers();
+    shownBalance = new long[numPlayers];
+    shownCurrent = state.getCurrent();
+    for (int p = 0; p < numPlayers; ++p) {
+      shownBalance[p] = state.getBalance(p);
+    } // for
 
-  /**
-   * Retrieve the balance of the current player.
-   * @return balance of the current player
-   */
-  public int currentBalance() {
-    return playerBalance.get(current);
-  } // currentBalance()
+    if (numPlayers > MAX_PANELS) {
+      return makeTable();
+    }
 
-  /**
-   * Create panels with all player names.
-   */
-  public void makeNamePanels() {
+    JPanel scoreboard = new JPanel(new GridLayout(1, numPlayers));
+    namePanels = new JPanel[numPlayers];
+    nameTitles = new TitledBorder[numPlayers];
+    balanceLabels = new JLabel[numPlayers];
     for (int p = 0; p < numPlayers; ++p) {
-      namePanels.add(makeNamePanel(p));
+      namePanels[p] = makeNamePanel(p);
+      scoreboard.add(namePanels[p]);
     } // for
-    updatePanels();
-  } // makeNamePanels()
+    return scoreboard;
+  } // makeScoreboard()
 
   /**
-   * Update player information on panels.
+   * Update player information for the previous and new current player.
    */
   public void updatePlayers() {
-    updatePanels();
+    int previous = shownCurrent;
+    shownCurrent = state.getCurrent();
+    updatePlayer(previous);
+    if (shownCurrent != previous) {
+      updatePlayer(shownCurrent);
+    }
   } // updatePlayers();
 
   /**
-   *  Retrieve the name panel for a given player.
-   * @param pos position of given player
-   * @return name panel for given player
-   */
-  public JPanel getNamePanel(int pos) {
-    return namePanels.get(pos);
-  } // getNamePanel()
-
-  /**
-   * Determine if a vowel has been guessed already.
-   * @param vowel vowel that needs to be checked
-   * @return whether or not a vowel has been guessed
-   */
-  public boolean isGuessedVowel(String vowel) {
-    return guessedVowels.contains(vowel);
-  } // isGuessedVowel()
-
-  /**
-   * Determine if a consonant has been guessed already.
-   * @param cons consonant that needs to be checked
-   * @return whether or not a consonant has been guessed
-   */
-  public boolean isGuessedCons(String cons) {
-    return guessedCons.contains(cons);
-  } // isGuessedCons()
-
-  /**
-   * Add a vowel to the list of guessed vowels.
-   * @param vowel vowel that has been guessed
-   */
-  public void addGuessedVowel(String vowel) {
-    guessedVowels.add(vowel);
-  } // addGuessedVowel()
-
-  /**
-   * Add a consonant to the list of guessed consonants.
-   * @param cons consonant that has been guessed
-   */
-  public void addGuessedCons(String cons) {
-    guessedCons.add(cons);
-  } // addGuessedCons()
-
-  /**
-   * Determine how many vowels have been guessed.
-   * @return how many vowels have been guessed
-   */
-  public int vowelsGuessed() {
-    return guessedVowels.size();
-  } // vowelsGuessed()
-
-  /**
-   * Determine how many consonants have been guessed.
-   * @return how many consonants have been guessed
-   */
-  public int consGuessed() {
-    return guessedCons.size();
-  } // consGuessed()
-
-
-  /**
-   * Update player information if correct guess has been made.
-   */
-  public void validGuess() {
-    addMoney();
-    updatePlayers();
-  } // validGuess()
-
-  /**
-   * Update player information if incorrect guess has been made.
-   */
-  public void invalidGuess() {
-    advancePlayer();
-    updatePlayers();
-  } // invalidGuess()
-
-  /**
-   * Update current player information when they purchase a vowel.
-   */
-  public void buyVowel() {
-    playerBalance.set(current, playerBalance.get(current) - 250);
-    updatePlayers();
-  } // buyVowel()
-
-  /**
-   * Bankrupt the current player.
-   */
-  public void bankruptPlayer() {
-    playerBalance.set(current, 0);
-    advancePlayer();
-    updatePlayers();
-  } // bankruptPlayer()
-
-  /**
-   * Make the current player lose a turn.
+   * Update player information for every player, after changes that are
+   * not made through GameEngine.
    */
-  public void loseATurn() {
-    advancePlayer();
-    updatePlayers();
-  } // loseATurn()
-
-  /* Move current player to the next player */
-  private void advancePlayer() {
-    current = (current + 1) % numPlayers;
-  } // advancePlayer()
-
-  /* Add money to current player balance */
-  private void addMoney() {
-    playerBalance.set(current, playerBalance.get(current) + toAdd);
-  } // addMoney()
+  public void updateAll() {
+    shownCurrent = state.getCurrent();
+    for (int p = 0; p < getNumPlayers(); ++p) {
+      updatePlayer(p);
+    } // for
+  } // updateAll()
+
+  /* Update the cell of a single player if it has changed */
+  private void updatePlayer(int p) {
+    long balance = state.getBalance(p);
+    boolean balanceChanged = balance != shownBalance[p];
+    shownBalance[p] = balance;
+
+    if (tableModel != null) {
+      tableModel.fireTableRowsUpdated(p, p);
+      return;
+    }
+
+    Border playerBorder = p == shownCurrent ? CURRENT_BORDER : OTHER_BORDER;
+    if (nameTitles[p].getBorder() != playerBorder) {
+      nameTitles[p].setBorder(playerBorder);
+      namePanels[p].repaint();
+    }
+    if (balanceChanged) {
+      balanceLabels[p].setText(Long.toString(balance));
+    }
+  } // updatePlayer()
 
   /* Create individual name panels for a given player */
   private JPanel makeNamePanel(int p) {
-    TitledBorder title = BorderFactory.createTitledBorder(playerNames.get(p));
-    title.setBorder(BorderFactory.createLineBorder(Color.BLACK));
+    TitledBorder title = BorderFactory.createTitledBorder(state.getName(p));
+    title.setBorder(p == shownCurrent ? CURRENT_BORDER : OTHER_BORDER);
     title.setTitleJustification(TitledBorder.LEFT);
-    nameTitles.add(title);
+    nameTitles[p] = title;
 
+    balanceLabels[p] = new JLabel(Long.toString(shownBalance[p]));
     JPanel namePanel = new JPanel(new FlowLayout());
     namePanel.setBorder(title);
-    namePanel.add(new JLabel(Integer.toString(playerBalance.get(p))));
+    namePanel.add(balanceLabels[p]);
     return namePanel;
   } // makeNamePanel()
 
-  /* Update player panels to reflect new information */
-  private void updatePanels() {
-    for (int p = 0; p < numPlayers; ++p) {
-      Border playerBorder;
-      if (p == current) {
-        playerBorder = BorderFactory.createLineBorder(Color.RED);
-      } else {
-        playerBorder = BorderFactory.createLineBorder(Color.BLACK);
+  /* Create a scrolling table of every player */
+  private JComponent makeTable() {
+    tableModel = new PlayerTableModel();
+    JTable table = new JTable(tableModel);
+    table.setFillsViewportHeight(true);
+    table.setDefaultRenderer(Object.class, new CurrentPlayerRenderer());
+    JScrollPane scroll = new JScrollPane(table);
+    scroll.setPreferredSize(new Dimension(400, 150));
+    return scroll;
+  } // makeTable()
+
+  // Table model that reads names and balances straight from the game,
+  // so rows are only materialized when they are painted.
+  private class PlayerTableModel extends AbstractTableModel {
+    @Override
+    public int getRowCount() {
+      return getNumPlayers();
+    } // getRowCount()
+
+    @Override
+    public int getColumnCount() {
+      return 2;
+    } // getColumnCount()
+
+    @Override
+    public String getColumnName(int column) {
+      return column == 0 ? "Player" : "Balance";
+    } // getColumnName()
+
+    @Override
+    public Object getValueAt(int row, int column) {
+      return column == 0 ? state.getName(row) : shownBalance[row];
+    } // getValueAt()
+
+  } // PlayerTableModel
+
+  // Renderer that highlights the row of the current player.
+  private class CurrentPlayerRenderer extends DefaultTableCellRenderer {
+    @Override
+    public Component getTableCellRendererComponent(JTable table,
+        Object value, boolean isSelected, boolean hasFocus,
+        int row, int column) {
+      super.getTableCellRendererComponent(table, value, isSelected,
+          hasFocus, row, column);
+      if (!isSelected) {
+        setForeground(row == shownCurrent ? Color.RED : table.getForeground());
       }
-      nameTitles.get(p).setBorder(playerBorder);
-      namePanels.get(p).removeAll();
-      namePanels.get(p).add(new JLabel(Integer.toString(playerBalance.get(p))));
-      namePanels.get(p).revalidate();
-      namePanels.get(p).setBorder(nameTitles.get(p));
-      namePanels.get(p).repaint();
-    } // for
-  } // updatePanels()
+      return this;
+    } // getTableCellRendererComponent()
+
+  } // CurrentPlayerRenderer
 
 } // GameData
@@ -0,0 +1,245 @@
+package hangman;
+
+import java.util.Arrays;
+
+/**
+ * Rules of Hangman applied to a GameState.
+ *
+ * The engine has no Swing dependencies, so the same rules drive the
+ * HangmanFrame and headless games. Each engine plays exactly one game and,
+ * like its state, must be confined to a single thread; run independent
+ * games on separate threads to use every core.
+ **/
+public class GameEngine {
+  /** Cost of buying a vowel. */
+  public static final int VOWEL_COST = 250;
+
+  /* State of the game being played */
+  private final GameState state;
+
+  /* Listeners told about every change */
+  private GameListener[] listeners = new GameListener[0];
+
+  /**
+   * Create an engine that plays a given game.
+   * @param state state of the game
+   */
+  public GameEngine(GameState state) {
+    this.state = state;
+  } // GameEngine()
+
+  /**
+   * Retrieve the state of the game being played.
+   * @return state of the game
+   */
+  public GameState getState() {
+    return state;
+  } // getState()
+
+  /**
+   * Tell a listener about every later change to the game.
+   * @param listener listener to add
+   */
+  public void addListener(GameListener listener) {
+    listeners = Arrays.copyOf(listeners, listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+  } // addListener()
+
+  /**
+   * Stop telling a listener about changes.
+   * @param listener listener to remove
+   */
+  public void removeListener(GameListener listener) {
+    for (int i = 0; i < listeners.length; ++i) {
+      if (listeners[i] == listener) {
+        GameListener[] rest = new GameListener[listeners.length - 1];
+        System.arraycopy(listeners, 0, rest, 0, i);
+        System.arraycopy(listeners, i + 1, rest, i, rest.length - i);
+        listeners = rest;
+        return;
+      }
+    } // for
+  } // removeListener()
+
+  /**
+   * Determine if a letter is a vowel.
+   * @param letter upper case letter
+   * @return whether or not the letter is a vowel
+   */
+  public static boolean isVowel(char letter) {
+    return Letters.contains(Letters.VOWELS, letter);
+  } // isVowel()
+
+  /**
+   * Determine if a letter is a consonant.
+   * @param letter upper case letter
+   * @return whether or not the letter is a consonant
+   */
+  public static boolean isConsonant(char letter) {
+    return Letters.contains(Letters.CONS, letter);
+  } // isConsonant()
+
+  /**
+   * Set the value won for each correct consonant, as landed on the wheel.
+   * @param money potential increase in balance
+   */
+  public void setToAdd(int money) {
+    state.setToAdd(money);
+    for (GameListener listener : listeners) {
+      listener.wheelValueSet(money);
+    } // for
+  } // setToAdd()
+
+  /**
+   * Guess a consonant for the current player. A hit pays out the current
+   * wheel value, a miss passes the turn.
+   * @param cons upper case consonant
+   * @return number of occurrences revealed
+   */
+  public int guessConsonant(char cons) {
+    checkPlaying();
+    if (!isConsonant(cons)) {
+      throw new IllegalArgumentException("Not a consonant: " + cons);
+    }
+    checkNotGuessed(cons);
+    int found = state.reveal(cons);
+    if (found > 0) {
+      state.addToCurrent(state.getToAdd());
+    }
+    state.addGuessed(cons);
+    for (GameListener listener : listeners) {
+      listener.letterGuessed(cons, found);
+    } // for
+    if (found == 0) {
+      advancePlayer();
+    }
+    return found;
+  } // guessConsonant()
+
+  /**
+   * Determine if the current player may buy a vowel.
+   * @return whether or not a vowel can be bought
+   */
+  public boolean canBuyVowel() {
+    return state.currentBalance() >= VOWEL_COST
+        && (state.getGuessed() & Letters.VOWELS) != Letters.VOWELS;
+  } // canBuyVowel()
+
+  /**
+   * Determine if there are consonants left to spin for.
+   * @return whether or not the wheel can be spun
+   */
+  public boolean canSpin() {
+    return (state.getGuessed() & Letters.CONS) != Letters.CONS;
+  } // canSpin()
+
+  /**
+   * Charge the current player for a vowel.
+   */
+  public void buyVowel() {
+    checkPlaying();
+    state.addToCurrent(-VOWEL_COST);
+    for (GameListener listener : listeners) {
+      listener.vowelBought();
+    } // for
+  } // buyVowel()
+
+  /**
+   * Guess a previously bought vowel for the current player. A miss passes
+   * the turn.
+   * @param vowel upper case vowel
+   * @return number of occurrences revealed
+   */
+  public int guessVowel(char vowel) {
+    checkPlaying();
+    if (!isVowel(vowel)) {
+      throw new IllegalArgumentException("Not a vowel: " + vowel);
+    }
+    checkNotGuessed(vowel);
+    int found = state.reveal(vowel);
+    state.addGuessed(vowel);
+    for (GameListener listener : listeners) {
+      listener.letterGuessed(vowel, found);
+    } // for
+    if (found == 0) {
+      advancePlayer();
+    }
+    return found;
+  } // guessVowel()
+
+  /**
+   * Bankrupt the current player.
+   */
+  public void bankrupt() {
+    checkPlaying();
+    state.setBalance(state.getCurrent(), 0);
+    for (GameListener listener : listeners) {
+      listener.playerBankrupt(state.getCurrent());
+    } // for
+    advancePlayer();
+  } // bankrupt()
+
+  /**
+   * Make the current player lose a turn.
+   */
+  public void loseATurn() {
+    checkPlaying();
+    for (GameListener listener : listeners) {
+      listener.turnLost(state.getCurrent());
+    } // for
+    advancePlayer();
+  } // loseATurn()
+
+  /**
+   * Attempt to solve the puzzle for the current player. A wrong answer
+   * loses the turn.
+   * @param guess complete puzzle guess
+   * @return whether or not the guess was correct
+   */
+  public boolean solve(String guess) {
+    checkPlaying();
+    boolean correct = state.getPuzzle().matches(guess);
+    if (correct) {
+      state.setWinner(state.getCurrent());
+    }
+    for (GameListener listener : listeners) {
+      listener.solveAttempted(guess, correct);
+    } // for
+    if (!correct) {
+      advancePlayer();
+    }
+    return correct;
+  } // solve()
+
+  /**
+   * Determine if the puzzle has been solved.
+   * @return whether or not the game is over
+   */
+  public boolean isOver() {
+    return state.getWinner() != GameState.NO_WINNER;
+  } // isOver()
+
+  /* Pass the turn and tell the listeners */
+  private void advancePlayer() {
+    int previous = state.getCurrent();
+    state.advancePlayer();
+    for (GameListener listener : listeners) {
+      listener.turnChanged(previous, state.getCurrent());
+    } // for
+  } // advancePlayer()
+
+  /* Reject letters that have already been guessed */
+  private void checkNotGuessed(char letter) {
+    if (state.isGuessed(letter)) {
+      throw new IllegalArgumentException("Already guessed: " + letter);
+    }
+  } // checkNotGuessed()
+
+  /* Reject moves once the game is over */
+  private void checkPlaying() {
+    if (isOver()) {
+      throw new IllegalStateException("Game is over");
+    }
+  } // checkPlaying()
+
+} // GameEngine
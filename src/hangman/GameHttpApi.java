@@ -0,0 +1,522 @@
+package hangman;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HTTP/JSON interface to the game rules, served by the JDK's HttpServer.
+ *
+ * <pre>
+ *   POST   /games                {"puzzle": text, "players": [names]}
+ *   GET    /games/id             state of the game
+ *   DELETE /games/id             forget the game
+ *   POST   /games/id/spin        {"player": p}
+ *   POST   /games/id/letter      {"player": p, "letter": c}
+ *   POST   /games/id/buy         {"player": p, "letter": vowel}
+ *   POST   /games/id/solve       {"player": p, "guess": text}
+ *   POST   /batch                {"moves": [{"game": id, "action": a, ...}]}
+ * </pre>
+ *
+ * A letter is a consonant guessed after spinning money, or a vowel that
+ * is bought and guessed at once, as the consonant and vowel buttons do;
+ * buy accepts only vowels. A batch applies its moves in order and answers
+ * with the result of each, so a client can submit a whole turn in one
+ * round trip. Every move answers with "ok" and either its outcome or an
+ * "error"; a rejected single move is also answered with status 409.
+ *
+ * Games are ConcurrentGame objects, so requests are handled on a fixed
+ * pool of threads without locking. Replies are built by hand in a
+ * StringBuilder. A game nobody has touched for GAME_EXPIRY_MILLIS is
+ * forgotten, and no more than MAX_GAMES are held at once.
+ **/
+public class GameHttpApi {
+  /** Port the API listens on by default. */
+  public static final int DEFAULT_PORT = 8080;
+
+  /** Largest request body accepted, in bytes. */
+  public static final int MAX_BODY = 1 << 20;
+
+  /** Most moves accepted in one batch. */
+  public static final int MAX_BATCH = 1000;
+
+  /** Most players in one game, at most ConcurrentGame.MAX_PLAYERS. */
+  public static final int MAX_PLAYERS = 16;
+
+  /** Most games held at once. */
+  public static final int MAX_GAMES = 1 << 20;
+
+  /** Time after its last request that a game is forgotten. */
+  public static final long GAME_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+  /* Wheel spun for every game */
+  private static final Wheel WHEEL = new Wheel();
+
+  /* Server accepting requests */
+  private final HttpServer server;
+
+  /* Threads handling requests */
+  private final ExecutorService executor;
+
+  /* Thread forgetting idle games */
+  private final ScheduledExecutorService sweeper;
+
+  /* Games by id */
+  private final ConcurrentHashMap<Integer, ApiGame> games = new ConcurrentHashMap<>();
+
+  /* Id of the next game created */
+  private final AtomicInteger nextId = new AtomicInteger(1);
+
+  // Game together with the names of its players.
+  private static class ApiGame {
+    /* Id of the game */
+    final int id;
+
+    /* Rules and state of the game */
+    final ConcurrentGame game;
+
+    /* Name of each player */
+    final String[] names;
+
+    /* System.nanoTime() of the last request for the game */
+    volatile long lastUsed = System.nanoTime();
+
+    ApiGame(int id, ConcurrentGame game, String[] names) {
+      this.id = id;
+      this.game = game;
+      this.names = names;
+    } // ApiGame()
+
+  } // ApiGame
+
+  // Request that cannot be handled, answered with a status and message.
+  private static class ApiException extends Exception {
+    /* HTTP status of the reply */
+    final int status;
+
+    ApiException(int status, String message) {
+      super(message);
+      this.status = status;
+    } // ApiException()
+
+  } // ApiException
+
+  /**
+   * Create an API bound to an address. It does not answer until started.
+   * @param address address to listen on
+   * @param numThreads number of threads handling requests
+   * @throws IOException if the address cannot be bound
+   */
+  public GameHttpApi(InetSocketAddress address, int numThreads)
+      throws IOException {
+    // Small replies must not wait for delayed acknowledgements
+    if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+      System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+    server = HttpServer.create(address, 1024);
+    executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+      Thread thread = new Thread(runnable, "http-api");
+      thread.setDaemon(true);
+      return thread;
+    });
+    server.setExecutor(executor);
+    server.createContext("/games", this::handleGames);
+    server.createContext("/batch", this::handleBatch);
+    sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "http-api-expiry");
+      thread.setDaemon(true);
+      return thread;
+    });
+  } // GameHttpApi()
+
+  /**
+   * Start answering requests.
+   */
+  public void start() {
+    server.start();
+    long period = GAME_EXPIRY_MILLIS / 4;
+    sweeper.scheduleWithFixedDelay(() -> expire(GAME_EXPIRY_MILLIS), period,
+        period, TimeUnit.MILLISECONDS);
+  } // start()
+
+  /**
+   * Stop answering requests and release the threads.
+   */
+  public void stop() {
+    server.stop(0);
+    executor.shutdown();
+    sweeper.shutdown();
+  } // stop()
+
+  /**
+   * Forget every game that has not been used for a while.
+   * @param idleMillis time since the last request of a game to forget
+   * @return number of games forgotten
+   */
+  public int expire(long idleMillis) {
+    long oldest = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleMillis);
+    int forgotten = 0;
+    for (ApiGame game : games.values()) {
+      if (game.lastUsed - oldest < 0 && games.remove(game.id, game)) {
+        ++forgotten;
+      }
+    } // for
+    return forgotten;
+  } // expire()
+
+  /**
+   * Retrieve the port the API listens on.
+   * @return port number
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  } // getPort()
+
+  /**
+   * Retrieve the number of games held.
+   * @return number of games
+   */
+  public int size() {
+    return games.size();
+  } // size()
+
+  /* Handle a request under /games */
+  private void handleGames(HttpExchange exchange) throws IOException {
+    StringBuilder out = new StringBuilder(256);
+    int status = 200;
+    try {
+      String method = exchange.getRequestMethod();
+      String[] parts = exchange.getRequestURI().getPath().split("/");
+      if (parts.length == 2) {
+        requireMethod(method, "POST");
+        create(Json.parseObject(readBody(exchange)), out);
+      } else if (parts.length == 3) {
+        ApiGame game = game(parts[2]);
+        if (method.equals("DELETE")) {
+          games.remove(game.id);
+          out.append("{\"ok\":true}");
+        } else {
+          requireMethod(method, "GET");
+          state(game, out);
+        }
+      } else if (parts.length == 4) {
+        requireMethod(method, "POST");
+        ApiGame game = game(parts[2]);
+        if (!move(game, parts[3], Json.parseObject(readBody(exchange)), out)) {
+          status = 409;
+        }
+      } else {
+        throw new ApiException(404, "No such resource");
+      }
+    } catch (ApiException apiException) {
+      status = apiException.status;
+      error(out, apiException.getMessage());
+    } catch (IllegalArgumentException | ClassCastException badRequest) {
+      status = 400;
+      error(out, "Bad request: " + badRequest.getMessage());
+    }
+    reply(exchange, status, out);
+  } // handleGames()
+
+  /* Handle a request to /batch */
+  private void handleBatch(HttpExchange exchange) throws IOException {
+    StringBuilder out = new StringBuilder(1024);
+    int status = 200;
+    try {
+      requireMethod(exchange.getRequestMethod(), "POST");
+      Object moves = Json.parseObject(readBody(exchange)).get("moves");
+      if (!(moves instanceof List)) {
+        throw new ApiException(400, "Expected a list of moves");
+      }
+      List<?> list = (List<?>) moves;
+      if (list.size() > MAX_BATCH) {
+        throw new ApiException(413, "More than " + MAX_BATCH + " moves");
+      }
+      out.append("{\"results\":[");
+      for (int i = 0; i < list.size(); ++i) {
+        if (i > 0) {
+          out.append(',');
+        }
+        batchMove(list.get(i), out);
+      } // for
+      out.append("]}");
+    } catch (ApiException apiException) {
+      status = apiException.status;
+      out.setLength(0);
+      error(out, apiException.getMessage());
+    } catch (IllegalArgumentException | ClassCastException badRequest) {
+      status = 400;
+      out.setLength(0);
+      error(out, "Bad request: " + badRequest.getMessage());
+    }
+    reply(exchange, status, out);
+  } // handleBatch()
+
+  /* Apply one move of a batch, describing a bad move as its result */
+  @SuppressWarnings("unchecked")
+  private void batchMove(Object move, StringBuilder out) {
+    int mark = out.length();
+    try {
+      if (!(move instanceof Map)) {
+        throw new ApiException(400, "Expected a move object");
+      }
+      Map<String, Object> fields = (Map<String, Object>) move;
+      ApiGame game = game(String.valueOf(fields.get("game")));
+      move(game, stringField(fields, "action"), fields, out);
+    } catch (ApiException | IllegalArgumentException | ClassCastException bad) {
+      out.setLength(mark);
+      error(out, bad.getMessage());
+    }
+  } // batchMove()
+
+  /* Create a game and describe it */
+  private void create(Map<String, Object> fields, StringBuilder out)
+      throws ApiException {
+    String text = stringField(fields, "puzzle");
+    if (text.isBlank()) {
+      throw new ApiException(400, "Empty puzzle");
+    }
+    String[] names;
+    Object players = fields.get("players");
+    if (players == null) {
+      names = new String[] { "Player 1" };
+    } else if (players instanceof List && !((List<?>) players).isEmpty()
+        && ((List<?>) players).size() <= MAX_PLAYERS) {
+      List<?> list = (List<?>) players;
+      names = new String[list.size()];
+      for (int p = 0; p < names.length; ++p) {
+        names[p] = String.valueOf(list.get(p));
+      } // for
+    } else {
+      throw new ApiException(400, "Expected 1 to " + MAX_PLAYERS + " players");
+    }
+    if (games.size() >= MAX_GAMES) {
+      throw new ApiException(503, "Too many games");
+    }
+    int id = nextId.getAndIncrement();
+    ApiGame game = new ApiGame(id,
+        new ConcurrentGame(new Puzzle(text), names.length), names);
+    games.put(id, game);
+    state(game, out);
+  } // create()
+
+  /* Apply a move to a game and describe its result; return whether accepted */
+  private boolean move(ApiGame apiGame, String action, Map<String, Object> fields,
+      StringBuilder out) throws ApiException {
+    ConcurrentGame game = apiGame.game;
+    int player = intField(fields, "player");
+    if (player < 0 || player >= game.getNumPlayers()) {
+      throw new ApiException(400, "No such player: " + player);
+    }
+    int result;
+    switch (action) {
+      case "spin":
+        int space = WHEEL.space(WHEEL.spin(ThreadLocalRandom.current()));
+        result = game.spin(player, space);
+        if (result >= 0) {
+          out.append("{\"ok\":true,\"space\":").append(space).append('}');
+        }
+        break;
+      case "letter":
+      case "buy":
+        char letter = letterField(fields);
+        if (GameEngine.isVowel(letter)) {
+          result = game.buyVowel(player, letter);
+        } else if (action.equals("buy")) {
+          throw new ApiException(400, "Not a vowel: " + letter);
+        } else {
+          result = game.guessConsonant(player, letter);
+        }
+        if (result >= 0) {
+          out.append("{\"ok\":true,\"found\":").append(result)
+              .append(",\"hidden\":");
+          Json.quote(out, hidden(game));
+          out.append('}');
+        }
+        break;
+      case "solve":
+        result = game.solve(player, stringField(fields, "guess"));
+        if (result >= 0) {
+          out.append("{\"ok\":true,\"solved\":").append(result == 1).append('}');
+        }
+        break;
+      default:
+        throw new ApiException(404, "No such move: " + action);
+    } // switch
+    if (result < 0) {
+      error(out, rejection(result));
+      return false;
+    }
+    return true;
+  } // move()
+
+  /* Describe the state of a game */
+  private static void state(ApiGame apiGame, StringBuilder out) {
+    ConcurrentGame game = apiGame.game;
+    out.append("{\"ok\":true,\"id\":").append(apiGame.id).append(",\"hidden\":");
+    Json.quote(out, hidden(game));
+    out.append(",\"guessed\":\"");
+    int guessed = game.getGuessed();
+    for (char c = 'A'; c <= 'Z'; ++c) {
+      if (Letters.contains(guessed, c)) {
+        out.append(c);
+      }
+    } // for
+    out.append("\",\"current\":").append(game.getCurrent())
+        .append(",\"owesConsonant\":").append(game.owesConsonant())
+        .append(",\"winner\":").append(game.getWinner())
+        .append(",\"players\":[");
+    for (int p = 0; p < game.getNumPlayers(); ++p) {
+      if (p > 0) {
+        out.append(',');
+      }
+      out.append("{\"name\":");
+      Json.quote(out, apiGame.names[p]);
+      out.append(",\"balance\":").append(game.getBalance(p)).append('}');
+    } // for
+    out.append("]}");
+  } // state()
+
+  /* Describe the puzzle of a game as the players see it */
+  private static String hidden(ConcurrentGame game) {
+    int length = game.getPuzzle().length();
+    char[] hidden = new char[length];
+    for (int i = 0; i < length; ++i) {
+      hidden[i] = game.hiddenAt(i);
+    } // for
+    return new String(hidden);
+  } // hidden()
+
+  /* Name a rejection of ConcurrentGame */
+  private static String rejection(int result) {
+    switch (result) {
+      case ConcurrentGame.NOT_YOUR_TURN:
+        return "Not your turn";
+      case ConcurrentGame.ALREADY_GUESSED:
+        return "Already guessed";
+      case ConcurrentGame.GAME_OVER:
+        return "Game over";
+      default:
+        return "Not allowed";
+    } // switch
+  } // rejection()
+
+  /* Describe an error */
+  private static void error(StringBuilder out, String message) {
+    out.append("{\"ok\":false,\"error\":");
+    Json.quote(out, message == null ? "Error" : message);
+    out.append('}');
+  } // error()
+
+  /* Find a game by id */
+  private ApiGame game(String id) throws ApiException {
+    ApiGame game = null;
+    try {
+      game = games.get(Integer.valueOf(id));
+    } catch (NumberFormatException badId) {
+      // Reported below
+    }
+    if (game == null) {
+      throw new ApiException(404, "No such game: " + id);
+    }
+    game.lastUsed = System.nanoTime();
+    return game;
+  } // game()
+
+  /* Check the method of a request */
+  private static void requireMethod(String method, String expected)
+      throws ApiException {
+    if (!method.equals(expected)) {
+      throw new ApiException(405, "Expected " + expected);
+    }
+  } // requireMethod()
+
+  /* Retrieve a string member */
+  private static String stringField(Map<String, Object> fields, String name)
+      throws ApiException {
+    Object value = fields.get(name);
+    if (!(value instanceof String)) {
+      throw new ApiException(400, "Expected a string " + name);
+    }
+    return (String) value;
+  } // stringField()
+
+  /* Retrieve an integer member */
+  private static int intField(Map<String, Object> fields, String name)
+      throws ApiException {
+    Object value = fields.get(name);
+    if (!(value instanceof Long) || (Long) value < Integer.MIN_VALUE
+        || (Long) value > Integer.MAX_VALUE) {
+      throw new ApiException(400, "Expected an integer " + name);
+    }
+    return (int) (long) (Long) value;
+  } // intField()
+
+  /* Retrieve the letter member as an upper case letter */
+  private static char letterField(Map<String, Object> fields)
+      throws ApiException {
+    String letter = stringField(fields, "letter");
+    if (letter.length() != 1 || Puzzle.letterIndex(letter.charAt(0)) < 0) {
+      throw new ApiException(400, "Expected a single letter");
+    }
+    return Character.toUpperCase(letter.charAt(0));
+  } // letterField()
+
+  /* Read a request body */
+  private static String readBody(HttpExchange exchange)
+      throws IOException, ApiException {
+    try (InputStream in = exchange.getRequestBody()) {
+      byte[] body = in.readNBytes(MAX_BODY + 1);
+      if (body.length > MAX_BODY) {
+        throw new ApiException(413, "Request body too large");
+      }
+      return new String(body, StandardCharsets.UTF_8);
+    }
+  } // readBody()
+
+  /* Send a JSON reply */
+  private static void reply(HttpExchange exchange, int status, StringBuilder out)
+      throws IOException {
+    byte[] body = out.toString().getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream stream = exchange.getResponseBody()) {
+      stream.write(body);
+    }
+  } // reply()
+
+  /**
+   * Run the API until killed. Accepts "--port N" and "--threads N", by
+   * default twice the number of cores.
+   * @param args command line options
+   * @throws IOException if the port cannot be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = DEFAULT_PORT;
+    int threads = 2 * Runtime.getRuntime().availableProcessors();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--port")) {
+        port = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--threads")) {
+        threads = Integer.parseInt(args[i + 1]);
+      }
+    } // for
+    GameHttpApi api = new GameHttpApi(new InetSocketAddress(port), threads);
+    api.start();
+    System.out.println("Listening on port " + api.getPort());
+  } // main()
+
+} // GameHttpApi
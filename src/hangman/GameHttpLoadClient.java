@@ -0,0 +1,309 @@
+package hangman;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Load generator for GameHttpApi.
+ *
+ * Each thread plays games alone, one request at a time: it creates a game,
+ * spins, guesses consonants in order of English frequency and solves once
+ * the puzzle is revealed or no consonants are left. With "--batch" a spin
+ * and its consonant are submitted together through the batch endpoint.
+ * Every thread keeps one connection alive and writes its requests by hand,
+ * so the client adds little to the latency it measures. The latency of
+ * each request is recorded and reported as percentiles.
+ **/
+public class GameHttpLoadClient {
+  /* Consonants in order of English frequency */
+  private static final String CONSONANTS = "TNSRHLDCMFPGWYBVKXJQZ";
+
+  /* Puzzles the threads play, in turn */
+  private static final String[] PUZZLES = {
+    "The quick brown fox jumps over the lazy dog",
+    "A penny saved is a penny earned",
+    "Actions speak louder than words",
+    "Better late than never",
+    "Every cloud has a silver lining",
+  };
+
+  /* Width of a latency bucket */
+  private static final long BUCKET_NANOS = 10_000;
+
+  /* Number of latency buckets, up to ten seconds */
+  private static final int NUM_BUCKETS = 1_000_000;
+
+  /* Host of the API */
+  private final String host;
+
+  /* Port of the API */
+  private final int port;
+
+  /* Whether moves are submitted in batches */
+  private final boolean batch;
+
+  /* Number of requests answered per latency bucket */
+  private final int[] latencies = new int[NUM_BUCKETS];
+
+  /* Requests answered */
+  private long numRequests = 0;
+
+  /* Replies that were errors */
+  private long numErrors = 0;
+
+  /* Games solved */
+  private long numGames = 0;
+
+  /* Slowest reply */
+  private long maxNanos = 0;
+
+  /**
+   * Create a load generator.
+   * @param host host of the API
+   * @param port port of the API
+   * @param batch whether a spin and its consonant go in one batch
+   */
+  public GameHttpLoadClient(String host, int port, boolean batch) {
+    this.host = host;
+    this.port = port;
+    this.batch = batch;
+  } // GameHttpLoadClient()
+
+  /**
+   * Play games from a number of threads and wait for them all.
+   * @param numThreads number of concurrent players
+   * @param gamesPerThread games each thread plays
+   * @return report of the run
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public String run(int numThreads, int gamesPerThread)
+      throws InterruptedException {
+    Thread[] threads = new Thread[numThreads];
+    long start = System.nanoTime();
+    for (int t = 0; t < numThreads; ++t) {
+      int index = t;
+      threads[t] = new Thread(() -> play(index, gamesPerThread));
+      threads[t].start();
+    } // for
+    for (Thread thread : threads) {
+      thread.join();
+    } // for
+    return report(System.nanoTime() - start);
+  } // run()
+
+  /* Play games from one thread */
+  private void play(int index, int numGames) {
+    try (Player player = new Player()) {
+      for (int g = 0; g < numGames; ++g) {
+        player.playGame(PUZZLES[(index + g) % PUZZLES.length]);
+      } // for
+      player.merge();
+    } catch (IOException | RuntimeException failure) {
+      synchronized (this) {
+        ++numErrors;
+      }
+    }
+  } // play()
+
+  // One thread playing its own games over one connection.
+  private class Player implements AutoCloseable {
+    /* Connection to the API */
+    private final Socket socket;
+
+    /* Reply bytes from the API */
+    private final InputStream in;
+
+    /* Request bytes to the API */
+    private final OutputStream out;
+
+    /* Number of requests answered per latency bucket */
+    private final int[] buckets = new int[NUM_BUCKETS];
+
+    /* Requests answered */
+    private long requests = 0;
+
+    /* Replies that were errors */
+    private long errors = 0;
+
+    /* Games solved */
+    private long games = 0;
+
+    /* Slowest reply */
+    private long slowest = 0;
+
+    Player() throws IOException {
+      socket = new Socket(host, port);
+      socket.setTcpNoDelay(true);
+      in = new BufferedInputStream(socket.getInputStream());
+      out = new BufferedOutputStream(socket.getOutputStream());
+    } // Player()
+
+    /* Play one game to the end */
+    void playGame(String puzzle) throws IOException {
+      Map<String, Object> game = Json.parseObject(send("POST", "/games",
+          "{\"puzzle\":\"" + puzzle + "\"}"));
+      String path = "/games/" + game.get("id");
+      boolean revealed = false;
+      int nextCons = 0;
+      while (!revealed && nextCons < CONSONANTS.length()) {
+        char cons = CONSONANTS.charAt(nextCons);
+        if (batch) {
+          String reply = send("POST", "/batch", "{\"moves\":["
+              + "{\"game\":" + game.get("id") + ",\"action\":\"spin\",\"player\":0},"
+              + "{\"game\":" + game.get("id") + ",\"action\":\"letter\","
+              + "\"player\":0,\"letter\":\"" + cons + "\"}]}");
+          if (reply.contains("\"found\"")) {
+            ++nextCons;
+            revealed = hiddenRevealed(reply);
+          }
+          continue;
+        }
+        Map<String, Object> spin = Json.parseObject(
+            send("POST", path + "/spin", "{\"player\":0}"));
+        if (((Long) spin.get("space")) > 0) {
+          ++nextCons;
+          revealed = hiddenRevealed(send("POST", path + "/letter",
+              "{\"player\":0,\"letter\":\"" + cons + "\"}"));
+        }
+      } // while
+      if (send("POST", path + "/solve",
+          "{\"player\":0,\"guess\":\"" + puzzle + "\"}").contains("true}")) {
+        ++games;
+      } else {
+        ++errors;
+      }
+      send("DELETE", path, null);
+    } // playGame()
+
+    /* Determine if a reply shows the puzzle with nothing hidden */
+    private boolean hiddenRevealed(String reply) {
+      int start = reply.lastIndexOf("\"hidden\":\"") + 10;
+      int end = reply.indexOf('"', start);
+      return reply.substring(start, end).indexOf(Puzzle.HIDDEN) < 0;
+    } // hiddenRevealed()
+
+    /* Send a request and record its latency */
+    private String send(String method, String path, String body)
+        throws IOException {
+      byte[] content = body == null ? new byte[0]
+          : body.getBytes(StandardCharsets.UTF_8);
+      byte[] head = (method + " " + path + " HTTP/1.1\r\nHost: " + host
+          + "\r\nContent-Type: application/json\r\nContent-Length: "
+          + content.length + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII);
+      long start = System.nanoTime();
+      out.write(head);
+      out.write(content);
+      out.flush();
+
+      String status = readLine();
+      int length = 0;
+      for (String line = readLine(); !line.isEmpty(); line = readLine()) {
+        if (line.regionMatches(true, 0, "Content-Length:", 0, 15)) {
+          length = Integer.parseInt(line.substring(15).trim());
+        }
+      } // for
+      String reply = new String(in.readNBytes(length), StandardCharsets.UTF_8);
+      long nanos = System.nanoTime() - start;
+      ++requests;
+      ++buckets[(int) Math.min(nanos / BUCKET_NANOS, NUM_BUCKETS - 1)];
+      slowest = Math.max(slowest, nanos);
+      if (!status.startsWith("HTTP/1.1 2")) {
+        ++errors;
+      }
+      return reply;
+    } // send()
+
+    /* Read a header line without its line ending */
+    private String readLine() throws IOException {
+      StringBuilder line = new StringBuilder();
+      int c;
+      while ((c = in.read()) != '\n') {
+        if (c < 0) {
+          throw new EOFException("Connection closed");
+        }
+        if (c != '\r') {
+          line.append((char) c);
+        }
+      } // while
+      return line.toString();
+    } // readLine()
+
+    /* Add the counts of this thread to the totals */
+    void merge() {
+      synchronized (GameHttpLoadClient.this) {
+        for (int b = 0; b < NUM_BUCKETS; ++b) {
+          latencies[b] += buckets[b];
+        } // for
+        numRequests += requests;
+        numErrors += errors;
+        numGames += games;
+        maxNanos = Math.max(maxNanos, slowest);
+      }
+    } // merge()
+
+    @Override
+    public void close() throws IOException {
+      socket.close();
+    } // close()
+
+  } // Player
+
+  /* Describe the results of a run */
+  private synchronized String report(long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    return String.format("%d games, %d requests, %d errors in %.2fs%n"
+        + "  %.0f requests/s, latency p50 %s p99 %s p99.9 %s max %.2fms%n",
+        numGames, numRequests, numErrors, seconds, numRequests / seconds,
+        percentile(0.5), percentile(0.99), percentile(0.999), maxNanos / 1e6);
+  } // report()
+
+  /* Describe the latency below which a fraction of requests were answered */
+  private String percentile(double fraction) {
+    long wanted = (long) Math.ceil(fraction * numRequests);
+    long seen = 0;
+    for (int b = 0; b < NUM_BUCKETS; ++b) {
+      seen += latencies[b];
+      if (seen >= wanted && seen > 0) {
+        return String.format("%.2fms", (b + 1) * BUCKET_NANOS / 1e6);
+      }
+    } // for
+    return ">10s";
+  } // percentile()
+
+  /**
+   * Load an API. Accepts "--host NAME", "--port N", "--threads N",
+   * "--games N" games per thread and "--batch true".
+   * @param args command line options
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public static void main(String[] args) throws InterruptedException {
+    String host = "localhost";
+    int port = GameHttpApi.DEFAULT_PORT;
+    int threads = 4;
+    int games = 200;
+    boolean batch = false;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--host")) {
+        host = args[i + 1];
+      } else if (args[i].equals("--port")) {
+        port = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--threads")) {
+        threads = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--games")) {
+        games = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--batch")) {
+        batch = Boolean.parseBoolean(args[i + 1]);
+      }
+    } // for
+    GameHttpLoadClient client = new GameHttpLoadClient(host, port, batch);
+    System.out.print(client.run(threads, games));
+  } // main()
+
+} // GameHttpLoadClient
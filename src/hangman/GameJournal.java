@@ -0,0 +1,292 @@
+package hangman;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only binary log of every change to a game.
+ *
+ * The journal starts with a record of the whole game, followed by one
+ * compact record per GameListener event:
+ *
+ * <pre>
+ *   int   MAGIC, int VERSION
+ *   START      GameSnapshot of the game
+ *   WHEEL      int money
+ *   GUESS      byte letter, int found
+ *   BUY_VOWEL
+ *   BANKRUPT   int player
+ *   LOSE_TURN  int player
+ *   SOLVE      byte correct, int length, UTF-8 guess
+ *   TURN       int current
+ * </pre>
+ *
+ * Records are appended to a buffer and written to the file with group
+ * commit: every commit interval a background thread swaps in an empty
+ * buffer, then writes and forces the full one without holding the lock
+ * the game thread appends under. One force covers every record of the
+ * interval, and a game thread never waits for the disk; the buffer grows
+ * instead if an interval appends more than it holds. If a commit fails,
+ * the journal is marked failed: later records are dropped rather than
+ * buffered, and every further commit() and close() throws the failure, so
+ * whoever closes the journal learns of it. JournalReplayer rebuilds the
+ * game from the file.
+ **/
+public class GameJournal implements GameListener, Closeable {
+  /** Marker at the start of every journal file, "HGJL". */
+  public static final int MAGIC = 0x48474A4C;
+
+  /** Version of the journal format. */
+  public static final int VERSION = 1;
+
+  /** Record of the whole game at the start of the journal. */
+  public static final byte START = 1;
+
+  /** Record of a wheel value. */
+  public static final byte WHEEL = 2;
+
+  /** Record of a guessed letter. */
+  public static final byte GUESS = 3;
+
+  /** Record of a bought vowel. */
+  public static final byte BUY_VOWEL = 4;
+
+  /** Record of a bankrupt player. */
+  public static final byte BANKRUPT = 5;
+
+  /** Record of a lost turn. */
+  public static final byte LOSE_TURN = 6;
+
+  /** Record of a solve attempt. */
+  public static final byte SOLVE = 7;
+
+  /** Record of a turn change. */
+  public static final byte TURN = 8;
+
+  /** Default time between group commits. */
+  public static final long DEFAULT_COMMIT_MILLIS = 10;
+
+  /* Size of the record buffer */
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  /* Open journal file */
+  private final FileChannel channel;
+
+  /* Records appended since the last commit */
+  private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  /* Empty buffer swapped in by the next commit, null during a commit */
+  private ByteBuffer spare = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  /* Held while a commit writes, so commits reach the file in order */
+  private final Object commitLock = new Object();
+
+  /* Thread that commits the buffer */
+  private final Thread committer;
+
+  /* Whether the journal has been closed */
+  private boolean closed = false;
+
+  /* Error of the first failed commit, or null */
+  private IOException failure;
+
+  /**
+   * Create a journal file and record the current state of a game.
+   * @param file journal file, replaced if it exists
+   * @param state state of the game to record
+   * @throws IOException if the file cannot be created
+   */
+  public GameJournal(Path file, GameState state) throws IOException {
+    this(file, state, DEFAULT_COMMIT_MILLIS);
+  } // GameJournal()
+
+  /**
+   * Create a journal file and record the current state of a game.
+   * @param file journal file, replaced if it exists
+   * @param state state of the game to record
+   * @param commitMillis time between group commits
+   * @throws IOException if the file cannot be created
+   * @throws IllegalArgumentException if a name takes over 65535 bytes
+   */
+  public GameJournal(Path file, GameState state, long commitMillis)
+      throws IOException {
+    buffer.putInt(MAGIC).putInt(VERSION);
+    writeStart(state);
+    channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+    committer = new Thread(() -> commitLoop(commitMillis), "journal-commit");
+    committer.setDaemon(true);
+    committer.start();
+  } // GameJournal()
+
+  @Override
+  public void wheelValueSet(int money) {
+    synchronized (this) {
+      reserve(5).put(WHEEL).putInt(money);
+    }
+  } // wheelValueSet()
+
+  @Override
+  public void letterGuessed(char letter, int found) {
+    synchronized (this) {
+      reserve(6).put(GUESS).put((byte) letter).putInt(found);
+    }
+  } // letterGuessed()
+
+  @Override
+  public void vowelBought() {
+    synchronized (this) {
+      reserve(1).put(BUY_VOWEL);
+    }
+  } // vowelBought()
+
+  @Override
+  public void playerBankrupt(int player) {
+    synchronized (this) {
+      reserve(5).put(BANKRUPT).putInt(player);
+    }
+  } // playerBankrupt()
+
+  @Override
+  public void turnLost(int player) {
+    synchronized (this) {
+      reserve(5).put(LOSE_TURN).putInt(player);
+    }
+  } // turnLost()
+
+  @Override
+  public void solveAttempted(String guess, boolean correct) {
+    byte[] bytes = guess.getBytes(StandardCharsets.UTF_8);
+    synchronized (this) {
+      reserve(6 + bytes.length).put(SOLVE).put((byte) (correct ? 1 : 0))
+          .putInt(bytes.length).put(bytes);
+    }
+  } // solveAttempted()
+
+  @Override
+  public void turnChanged(int previous, int current) {
+    synchronized (this) {
+      reserve(5).put(TURN).putInt(current);
+    }
+  } // turnChanged()
+
+  /**
+   * Write and force every record appended so far.
+   * @throws IOException if the records cannot be written
+   */
+  public void commit() throws IOException {
+    synchronized (commitLock) {
+      ByteBuffer full;
+      synchronized (this) {
+        if (failure != null) {
+          throw new IOException("Journal failed earlier: "
+              + failure.getMessage(), failure);
+        }
+        if (buffer.position() == 0) {
+          return;
+        }
+        full = buffer;
+        buffer = spare;
+        spare = null;
+      }
+      try {
+        full.flip();
+        while (full.hasRemaining()) {
+          channel.write(full);
+        } // while
+        channel.force(false);
+      } catch (IOException ioException) {
+        synchronized (this) {
+          failure = ioException;
+        }
+        throw ioException;
+      } finally {
+        full.clear();
+        synchronized (this) {
+          spare = full;
+        }
+      }
+    }
+  } // commit()
+
+  /**
+   * Commit every record and close the file.
+   * @throws IOException if the records cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      notifyAll();
+    }
+    try {
+      committer.join();
+    } catch (InterruptedException interrupted) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      commit();
+    } finally {
+      channel.close();
+    }
+  } // close()
+
+  /* Record the whole state of the game */
+  private synchronized void writeStart(GameState state) {
+    byte[] snapshot = GameSnapshot.toBytes(state);
+    reserve(1 + snapshot.length).put(START).put(snapshot);
+  } // writeStart()
+
+  /* Make room for a record, growing the buffer if needed */
+  private ByteBuffer reserve(int size) {
+    if (closed) {
+      throw new IllegalStateException("Journal is closed");
+    }
+    if (failure != null) {
+      // Nothing will be written again, so keep the buffer from growing
+      buffer.clear();
+    }
+    if (buffer.remaining() < size) {
+      int capacity = Math.max(buffer.capacity() * 2, buffer.position() + size);
+      ByteBuffer larger = ByteBuffer.allocateDirect(capacity);
+      buffer.flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+    return buffer;
+  } // reserve()
+
+  /* Commit every interval until closed */
+  private void commitLoop(long commitMillis) {
+    while (true) {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        try {
+          wait(commitMillis);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+      }
+      try {
+        commit();
+      } catch (IOException ioException) {
+        // Marked failed by commit(), which close() reports
+        System.out.println("ERROR: Could not commit journal, no longer "
+            + "recording: " + ioException.getMessage());
+        return;
+      }
+    } // while
+  } // commitLoop()
+
+} // GameJournal
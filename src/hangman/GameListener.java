@@ -0,0 +1,63 @@
+package hangman;
+
+/**
+ * Receives every change GameEngine makes to a game.
+ *
+ * Events are delivered on the thread that called the engine, right after
+ * the state has changed, and in the order they happened. A rule that
+ * passes the turn reports its own event first and then turnChanged().
+ * Every method does nothing by default.
+ **/
+public interface GameListener {
+  /**
+   * The value of the next correct consonant was set.
+   * @param money value from the wheel
+   */
+  default void wheelValueSet(int money) {
+  } // wheelValueSet()
+
+  /**
+   * A letter was guessed and revealed.
+   * @param letter upper case letter guessed
+   * @param found number of occurrences revealed
+   */
+  default void letterGuessed(char letter, int found) {
+  } // letterGuessed()
+
+  /**
+   * The current player paid for a vowel.
+   */
+  default void vowelBought() {
+  } // vowelBought()
+
+  /**
+   * The current player went bankrupt.
+   * @param player index of the bankrupt player
+   */
+  default void playerBankrupt(int player) {
+  } // playerBankrupt()
+
+  /**
+   * The current player lost a turn.
+   * @param player index of the player who lost the turn
+   */
+  default void turnLost(int player) {
+  } // turnLost()
+
+  /**
+   * The current player tried to solve the puzzle.
+   * @param guess complete puzzle guess
+   * @param correct whether or not the guess was correct
+   */
+  default void solveAttempted(String guess, boolean correct) {
+  } // solveAttempted()
+
+  /**
+   * The turn passed to another player.
+   * @param previous index of the previous player
+   * @param current index of the new current player
+   */
+  default void turnChanged(int previous, int current) {
+  } // turnChanged()
+
+} // GameListener
@@ -0,0 +1,370 @@
+package hangman;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * Load generator for GameServer.
+ *
+ * Opens many sessions at once from one Selector thread. Each session
+ * creates a game, joins it and plays it alone to the end: it spins, guesses
+ * consonants in order of English frequency and solves once the puzzle is
+ * revealed or no consonants are left. A session that finishes its games
+ * before every session has connected waits to quit, so the server holds
+ * every session at once.
+ * The latency of each request is recorded and reported as percentiles.
+ **/
+public class GameLoadClient {
+  /* Consonants in order of English frequency */
+  private static final String CONSONANTS = "TNSRHLDCMFPGWYBVKXJQZ";
+
+  /* Puzzles the sessions play, in turn */
+  private static final String[] PUZZLES = {
+    "The quick brown fox jumps over the lazy dog",
+    "A penny saved is a penny earned",
+    "Actions speak louder than words",
+    "Better late than never",
+    "Every cloud has a silver lining",
+  };
+
+  /* Width of a latency bucket */
+  private static final long BUCKET_NANOS = 10_000;
+
+  /* Number of latency buckets, up to ten seconds */
+  private static final int NUM_BUCKETS = 1_000_000;
+
+  /* Selector multiplexing every session */
+  private final Selector selector;
+
+  /* Address of the server */
+  private final InetSocketAddress address;
+
+  /* Games each session plays */
+  private final int gamesPerSession;
+
+  /* Number of requests answered per latency bucket */
+  private final int[] latencies = new int[NUM_BUCKETS];
+
+  /* Requests answered */
+  private long numRequests = 0;
+
+  /* Replies that were errors */
+  private long numErrors = 0;
+
+  /* Games solved */
+  private long numGames = 0;
+
+  /* Sessions still open */
+  private int numOpen = 0;
+
+  /* Sessions connected and still open */
+  private int numConnected = 0;
+
+  /* Most sessions connected at once */
+  private int maxConnected = 0;
+
+  /* Sessions that have connected so far */
+  private int numStarted = 0;
+
+  /* Sessions to open */
+  private int numSessions;
+
+  /* Finished sessions waiting for the rest to connect */
+  private final ArrayList<Session> waiting = new ArrayList<>();
+
+  /* Slowest reply */
+  private long maxNanos = 0;
+
+  /**
+   * Create a load generator.
+   * @param address address of the server
+   * @param gamesPerSession games each session plays
+   * @throws IOException if the selector cannot be opened
+   */
+  public GameLoadClient(InetSocketAddress address, int gamesPerSession)
+      throws IOException {
+    this.selector = Selector.open();
+    this.address = address;
+    this.gamesPerSession = gamesPerSession;
+  } // GameLoadClient()
+
+  /**
+   * Open a number of sessions and play until they are all done.
+   * @param numSessions number of concurrent sessions
+   * @return report of the run
+   * @throws IOException if the selector fails
+   */
+  public String run(int numSessions) throws IOException {
+    this.numSessions = numSessions;
+    long start = System.nanoTime();
+    for (int s = 0; s < numSessions; ++s) {
+      SocketChannel channel = SocketChannel.open();
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      channel.connect(address);
+      SelectionKey key = channel.register(selector, SelectionKey.OP_CONNECT);
+      key.attach(new Session(s, channel, key));
+      ++numOpen;
+    } // for
+
+    while (numOpen > 0) {
+      selector.select();
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        Session session = (Session) key.attachment();
+        try {
+          if (key.isValid() && key.isConnectable()) {
+            session.connected();
+          }
+          if (key.isValid() && key.isWritable()) {
+            session.flush();
+          }
+          if (key.isValid() && key.isReadable()) {
+            session.read();
+          }
+        } catch (IOException ioException) {
+          ++numErrors;
+          session.close();
+        }
+      } // while
+    } // while
+    selector.close();
+    return report(System.nanoTime() - start);
+  } // run()
+
+  /* Describe the results of a run */
+  private String report(long elapsedNanos) {
+    double seconds = elapsedNanos / 1e9;
+    return String.format("%d sessions (%d at once), %d games, %d requests,"
+        + " %d errors in %.2fs%n  %.0f requests/s, latency p50 %s p99 %s"
+        + " p99.9 %s max %.2fms%n", numSessions, maxConnected, numGames,
+        numRequests, numErrors, seconds, numRequests / seconds,
+        percentile(0.5), percentile(0.99), percentile(0.999), maxNanos / 1e6);
+  } // report()
+
+  /* Describe the latency below which a fraction of requests were answered */
+  private String percentile(double fraction) {
+    long wanted = (long) Math.ceil(fraction * numRequests);
+    long seen = 0;
+    for (int b = 0; b < NUM_BUCKETS; ++b) {
+      seen += latencies[b];
+      if (seen >= wanted && seen > 0) {
+        return String.format("%.2fms", (b + 1) * BUCKET_NANOS / 1e6);
+      }
+    } // for
+    return ">10s";
+  } // percentile()
+
+  // Connection playing its own games.
+  private class Session {
+    /* Index of the session */
+    private final int index;
+
+    /* Socket to the server */
+    private final SocketChannel channel;
+
+    /* Registration with the selector */
+    private final SelectionKey key;
+
+    /* Reply bytes not yet handled */
+    private final ByteBuffer in = ByteBuffer.allocate(2 * GameServer.MAX_LINE);
+
+    /* Request bytes not yet written */
+    private final ByteBuffer out = ByteBuffer.allocate(GameServer.MAX_LINE);
+
+    /* Puzzle of the current game */
+    private String puzzle;
+
+    /* Next consonant to guess */
+    private int nextCons;
+
+    /* Whether the last reply showed the puzzle revealed */
+    private boolean revealed;
+
+    /* Games still to play */
+    private int gamesLeft = gamesPerSession;
+
+    /* Time the last request was sent */
+    private long sentNanos;
+
+    /* Whether the session is connected */
+    private boolean connected = false;
+
+    Session(int index, SocketChannel channel, SelectionKey key) {
+      this.index = index;
+      this.channel = channel;
+      this.key = key;
+    } // Session()
+
+    /* Finish connecting and start the first game */
+    void connected() throws IOException {
+      channel.finishConnect();
+      key.interestOps(SelectionKey.OP_READ);
+      connected = true;
+      maxConnected = Math.max(maxConnected, ++numConnected);
+      newGame();
+      if (++numStarted == numSessions) {
+        for (Session session : waiting) {
+          session.send("QUIT");
+        } // for
+        waiting.clear();
+      }
+    } // connected()
+
+    /* Handle every complete reply line */
+    void read() throws IOException {
+      if (channel.read(in) < 0) {
+        close();
+        return;
+      }
+      in.flip();
+      int start = in.position();
+      for (int i = start; i < in.limit() && key.isValid(); ++i) {
+        if (in.get(i) == '\n') {
+          reply(new String(in.array(), start, i - start, StandardCharsets.UTF_8));
+          start = i + 1;
+        }
+      } // for
+      in.position(start);
+      in.compact();
+    } // read()
+
+    /* Record the latency of a reply and send the next request */
+    private void reply(String line) throws IOException {
+      long nanos = System.nanoTime() - sentNanos;
+      ++numRequests;
+      ++latencies[(int) Math.min(nanos / BUCKET_NANOS, NUM_BUCKETS - 1)];
+      maxNanos = Math.max(maxNanos, nanos);
+
+      int space = line.indexOf(' ');
+      String kind = space < 0 ? line : line.substring(0, space);
+      String rest = space < 0 ? "" : line.substring(space + 1);
+      switch (kind) {
+        case "GAME":
+          send("JOIN " + rest + " player" + index);
+          break;
+        case "WHEEL":
+          if (Integer.parseInt(rest) > 0) {
+            send("GUESS " + CONSONANTS.charAt(nextCons++));
+          } else {
+            nextMove();
+          }
+          break;
+        case "FOUND":
+          revealed = rest.indexOf(Puzzle.HIDDEN) < 0;
+          nextMove();
+          break;
+        case "JOINED":
+        case "WRONG":
+          nextMove();
+          break;
+        case "SOLVED":
+          ++numGames;
+          if (--gamesLeft > 0) {
+            newGame();
+          } else if (numStarted < numSessions) {
+            waiting.add(this);
+          } else {
+            send("QUIT");
+          }
+          break;
+        case "BYE":
+          close();
+          break;
+        default:
+          ++numErrors;
+          close();
+          break;
+      } // switch
+    } // reply()
+
+    /* Create a new game */
+    private void newGame() throws IOException {
+      puzzle = PUZZLES[(index + gamesLeft) % PUZZLES.length];
+      nextCons = 0;
+      revealed = false;
+      send("CREATE " + puzzle);
+    } // newGame()
+
+    /* Spin, or solve once nothing is left to guess */
+    private void nextMove() throws IOException {
+      if (revealed || nextCons == CONSONANTS.length()) {
+        send("SOLVE " + puzzle);
+      } else {
+        send("SPIN");
+      }
+    } // nextMove()
+
+    /* Send a request line */
+    private void send(String line) throws IOException {
+      out.put(line.getBytes(StandardCharsets.UTF_8)).put((byte) '\n');
+      sentNanos = System.nanoTime();
+      flush();
+    } // send()
+
+    /* Write the pending request */
+    void flush() throws IOException {
+      out.flip();
+      channel.write(out);
+      out.compact();
+      key.interestOps(out.position() > 0
+          ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    } // flush()
+
+    /* End the session */
+    void close() {
+      if (!key.isValid()) {
+        return;
+      }
+      key.cancel();
+      try {
+        channel.close();
+      } catch (IOException ioException) {
+        // Already gone
+      }
+      --numOpen;
+      if (connected) {
+        --numConnected;
+      }
+    } // close()
+
+  } // Session
+
+  /**
+   * Load a server. Accepts "--host NAME", "--port N", "--sessions N" and
+   * "--games N" games per session.
+   * @param args command line options
+   * @throws IOException if the server cannot be reached
+   */
+  public static void main(String[] args) throws IOException {
+    String host = "localhost";
+    int port = GameServer.DEFAULT_PORT;
+    int numSessions = 10_000;
+    int games = 1;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--host")) {
+        host = args[i + 1];
+      } else if (args[i].equals("--port")) {
+        port = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--sessions")) {
+        numSessions = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--games")) {
+        games = Integer.parseInt(args[i + 1]);
+      }
+    } // for
+    GameLoadClient client = new GameLoadClient(new InetSocketAddress(host, port),
+        games);
+    System.out.print(client.run(numSessions));
+  } // main()
+
+} // GameLoadClient
@@ -0,0 +1,246 @@
+package hangman;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latency and throughput of the actions a player takes in the window.
+ *
+ * Every action handler brackets its work with start() and end(). The time
+ * in between goes into a LatencyHistogram per kind of action and, while a
+ * Flight Recorder recording is running, into an ActionEvent. Guesses,
+ * hits, turns and solve attempts are counted from the engine's events.
+ * The numbers are available through the GameMetricsMXBean and, if asked
+ * for, printed on standard output at a fixed period.
+ *
+ * Enabled, an action costs two nanoTime() calls and a few atomic
+ * increments, far below the time Swing spends on the action itself.
+ * Disabled metrics are the shared DISABLED instance, whose start() and
+ * end() return at once.
+ **/
+public class GameMetrics implements GameListener, GameMetricsMXBean {
+  /** Name the metrics are registered under. */
+  public static final String OBJECT_NAME = "hangman:type=GameMetrics";
+
+  /** A vowel was picked. */
+  public static final int VOWEL = 0;
+
+  /** A consonant was picked. */
+  public static final int CONSONANT = 1;
+
+  /** A vowel was bought. */
+  public static final int BUY = 2;
+
+  /** A solve attempt was checked. */
+  public static final int SOLVE = 3;
+
+  /** The wheel stopped and its space was applied. */
+  public static final int WHEEL = 4;
+
+  /** The views were refreshed after an action. */
+  public static final int REFRESH = 5;
+
+  /** The scoreboard was refreshed, as part of REFRESH. */
+  public static final int SCOREBOARD = 6;
+
+  /* Name of each kind of action */
+  private static final String[] ACTION_NAMES =
+    { "vowel", "consonant", "buy", "solve", "wheel", "refresh", "scoreboard" };
+
+  /** Metrics that record nothing. */
+  public static final GameMetrics DISABLED = new GameMetrics(false, null);
+
+  /* Whether anything is recorded */
+  private final boolean enabled;
+
+  /* State of the game measured, for the current player */
+  private final GameState state;
+
+  /* Latency of each kind of action */
+  private final LatencyHistogram[] latencies =
+      new LatencyHistogram[ACTION_NAMES.length];
+
+  /* Letters guessed */
+  private final AtomicLong guesses = new AtomicLong();
+
+  /* Guesses that revealed a letter */
+  private final AtomicLong hits = new AtomicLong();
+
+  /* Times the turn passed */
+  private final AtomicLong turns = new AtomicLong();
+
+  /* Solve attempts */
+  private final AtomicLong solveAttempts = new AtomicLong();
+
+  /* Prints the periodic dump, null if none */
+  private ScheduledExecutorService dumper;
+
+  /* Create metrics */
+  private GameMetrics(boolean enabled, GameState state) {
+    this.enabled = enabled;
+    this.state = state;
+    for (int a = 0; a < latencies.length; ++a) {
+      latencies[a] = new LatencyHistogram();
+    } // for
+  } // GameMetrics()
+
+  /**
+   * Start measuring a game: listen to its engine, register with the
+   * platform MBean server and print a dump at a fixed period.
+   * @param engine engine of the game
+   * @param periodSeconds seconds between dumps, 0 for no dumps
+   * @return metrics of the game
+   */
+  public static GameMetrics start(GameEngine engine, int periodSeconds) {
+    GameMetrics metrics = new GameMetrics(true, engine.getState());
+    engine.addListener(metrics);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(metrics, name);
+    } catch (JMException jmException) {
+      System.out.println("ERROR: Could not register metrics: "
+          + jmException.getMessage());
+    }
+    if (periodSeconds > 0) {
+      metrics.dumper = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "metrics-dump");
+        thread.setDaemon(true);
+        return thread;
+      });
+      metrics.dumper.scheduleAtFixedRate(() -> System.out.print(metrics.dump()),
+          periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+    return metrics;
+  } // start()
+
+  /**
+   * Stop the periodic dump and print a last one, if dumps were asked for.
+   */
+  public void close() {
+    if (dumper != null) {
+      dumper.shutdownNow();
+      System.out.print(dump());
+    }
+  } // close()
+
+  /**
+   * Note the start of an action.
+   * @return time to pass to end()
+   */
+  public long start() {
+    return enabled ? System.nanoTime() : 0;
+  } // start()
+
+  /**
+   * Record an action that started at a given time.
+   * @param action kind of action, such as VOWEL
+   * @param start time returned by start()
+   */
+  public void end(int action, long start) {
+    if (!enabled) {
+      return;
+    }
+    long nanos = System.nanoTime() - start;
+    latencies[action].record(nanos);
+    ActionEvent event = new ActionEvent();
+    if (event.shouldCommit()) {
+      event.action = ACTION_NAMES[action];
+      event.player = state.getCurrent();
+      event.latency = nanos;
+      event.commit();
+    }
+  } // end()
+
+  @Override
+  public long getGuesses() {
+    return guesses.get();
+  } // getGuesses()
+
+  @Override
+  public long getHits() {
+    return hits.get();
+  } // getHits()
+
+  @Override
+  public long getTurns() {
+    return turns.get();
+  } // getTurns()
+
+  @Override
+  public long getSolveAttempts() {
+    return solveAttempts.get();
+  } // getSolveAttempts()
+
+  @Override
+  public long getActions() {
+    long actions = 0;
+    for (int a = 0; a < REFRESH; ++a) {
+      actions += latencies[a].getCount();
+    } // for
+    return actions;
+  } // getActions()
+
+  @Override
+  public double getEdtMillis() {
+    long nanos = 0;
+    for (int a = 0; a < latencies.length; ++a) {
+      // Scoreboard time is already part of the refresh time
+      if (a != SCOREBOARD) {
+        nanos += latencies[a].getTotal();
+      }
+    } // for
+    return nanos / 1e6;
+  } // getEdtMillis()
+
+  @Override
+  public String[] getActionLatencies() {
+    String[] lines = new String[ACTION_NAMES.length];
+    for (int a = 0; a < lines.length; ++a) {
+      lines[a] = String.format("%-10s %s, edt %.1fms", ACTION_NAMES[a],
+          latencies[a], latencies[a].getTotal() / 1e6);
+    } // for
+    return lines;
+  } // getActionLatencies()
+
+  @Override
+  public String dump() {
+    StringBuilder text = new StringBuilder();
+    text.append(String.format("metrics: %d guesses (%d hits), %d turns, "
+        + "%d solve attempts, %d actions, edt %.1fms%n", getGuesses(),
+        getHits(), getTurns(), getSolveAttempts(), getActions(),
+        getEdtMillis()));
+    for (String line : getActionLatencies()) {
+      text.append("  ").append(line).append(System.lineSeparator());
+    } // for
+    return text.toString();
+  } // dump()
+
+  @Override
+  public void letterGuessed(char letter, int found) {
+    guesses.incrementAndGet();
+    if (found > 0) {
+      hits.incrementAndGet();
+    }
+  } // letterGuessed()
+
+  @Override
+  public void solveAttempted(String guess, boolean correct) {
+    solveAttempts.incrementAndGet();
+  } // solveAttempted()
+
+  @Override
+  public void turnChanged(int previous, int current) {
+    turns.incrementAndGet();
+  } // turnChanged()
+
+} // GameMetrics
@@ -0,0 +1,56 @@
+package hangman;
+
+/**
+ * Management interface of GameMetrics, registered with the platform
+ * MBean server as {@value GameMetrics#OBJECT_NAME}.
+ **/
+public interface GameMetricsMXBean {
+  /**
+   * Retrieve the number of letters guessed.
+   * @return number of guesses
+   */
+  long getGuesses();
+
+  /**
+   * Retrieve the number of guesses that revealed a letter.
+   * @return number of correct guesses
+   */
+  long getHits();
+
+  /**
+   * Retrieve the number of times the turn passed.
+   * @return number of turns
+   */
+  long getTurns();
+
+  /**
+   * Retrieve the number of attempts to solve the puzzle.
+   * @return number of solve attempts
+   */
+  long getSolveAttempts();
+
+  /**
+   * Retrieve the number of actions handled.
+   * @return number of actions
+   */
+  long getActions();
+
+  /**
+   * Retrieve the time the event dispatch thread spent handling actions.
+   * @return time in milliseconds
+   */
+  double getEdtMillis();
+
+  /**
+   * Describe the latency of every kind of action.
+   * @return one line per kind of action
+   */
+  String[] getActionLatencies();
+
+  /**
+   * Describe every counter and latency.
+   * @return text dump, as printed periodically
+   */
+  String dump();
+
+} // GameMetricsMXBean
@@ -0,0 +1,598 @@
+package hangman;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Server hosting any number of games for remote players.
+ *
+ * Players talk to the server with a line-based text protocol over TCP.
+ * Every request is one line and gets exactly one reply line:
+ *
+ * <pre>
+ *   CREATE puzzle        GAME id
+ *   JOIN id name         JOINED player      (once the last game is over)
+ *   SPIN                 WHEEL space        (a positive space allows GUESS)
+ *   GUESS consonant      FOUND count hidden
+ *   BUY vowel            FOUND count hidden
+ *   SOLVE guess          SOLVED | WRONG
+ *   STATE                STATE current balance hidden
+ *   QUIT                 BYE
+ *   (any error)          ERROR message
+ * </pre>
+ *
+ * One thread multiplexes every session with a Selector and applies moves
+ * through GameEngine, so the games need no locking and a session costs
+ * only its two buffers. Replies are queued per session; a session whose
+ * replies are not being read stops being read until they drain. A session
+ * that fails is closed without disturbing the others, and the turn skips
+ * the seats of players who have disconnected.
+ *
+ * Games are only inflated into GameState objects while a request is being
+ * handled; after every round of the selector the games that were touched
+ * are packed back into a ParkedGameStore outside the heap. An idle game
+ * then costs a 64-byte record plus what stays on the heap: its Table,
+ * wheel generator, map entry and Puzzle, about half a kilobyte for a
+ * short puzzle.
+ **/
+public class GameServer {
+  /** Port the server listens on by default. */
+  public static final int DEFAULT_PORT = 7777;
+
+  /** Longest request line accepted, in bytes. */
+  public static final int MAX_LINE = 1024;
+
+  /* Room kept in a reply buffer before another request is handled */
+  private static final int MAX_REPLY = MAX_LINE + 64;
+
+  /* Size of a session's reply buffer */
+  private static final int REPLY_BUFFER_SIZE = 4 * MAX_REPLY;
+
+  /* Selector multiplexing every session */
+  private final Selector selector;
+
+  /* Socket accepting new sessions */
+  private final ServerSocketChannel server;
+
+  /* Games by id */
+  private final HashMap<Integer, Table> tables = new HashMap<>();
+
+  /* Idle games, packed outside the heap */
+  private final ParkedGameStore store = new ParkedGameStore();
+
+  /* Games inflated during this round of the selector */
+  private final ArrayList<Table> active = new ArrayList<>();
+
+  /* Wheel spun in every game */
+  private final Wheel wheel = new Wheel();
+
+  /* Seeds the random number generator of each game */
+  private final SplittableRandom seeds;
+
+  /* Id of the next game */
+  private int nextId = 1;
+
+  /**
+   * Open a server on a given address.
+   * @param address address to listen on
+   * @param seed seed of the wheel spins
+   * @throws IOException if the address cannot be bound
+   */
+  public GameServer(InetSocketAddress address, long seed) throws IOException {
+    selector = Selector.open();
+    server = ServerSocketChannel.open();
+    server.bind(address, 4096);
+    server.configureBlocking(false);
+    server.register(selector, SelectionKey.OP_ACCEPT);
+    seeds = new SplittableRandom(seed);
+  } // GameServer()
+
+  /**
+   * Retrieve the port the server listens on.
+   * @return local port
+   * @throws IOException if the socket has been closed
+   */
+  public int getPort() throws IOException {
+    return ((InetSocketAddress) server.getLocalAddress()).getPort();
+  } // getPort()
+
+  /**
+   * Serve sessions until the thread is interrupted.
+   * @throws IOException if the selector fails
+   */
+  public void serve() throws IOException {
+    while (!Thread.currentThread().isInterrupted()) {
+      selector.select();
+      Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+      while (keys.hasNext()) {
+        SelectionKey key = keys.next();
+        keys.remove();
+        if (!key.isValid()) {
+          continue;
+        }
+        if (key.isAcceptable()) {
+          accept();
+          continue;
+        }
+        Session session = (Session) key.attachment();
+        try {
+          if (key.isWritable()) {
+            session.write();
+          }
+          if (key.isValid() && key.isReadable()) {
+            session.read();
+          }
+        } catch (IOException ioException) {
+          session.close();
+        } catch (RuntimeException failure) {
+          System.out.println("ERROR: Session failed: " + failure);
+          session.close();
+        }
+      } // while
+      parkActive();
+    } // while
+    selector.close();
+    server.close();
+  } // serve()
+
+  /* Park every game inflated during this round */
+  private void parkActive() {
+    for (Table table : active) {
+      if (!table.removed) {
+        table.park();
+      }
+    } // for
+    active.clear();
+  } // parkActive()
+
+  /* Accept every pending connection */
+  private void accept() throws IOException {
+    SocketChannel channel;
+    while ((channel = server.accept()) != null) {
+      channel.configureBlocking(false);
+      channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+      SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+      key.attach(new Session(channel, key));
+    } // while
+  } // accept()
+
+  // Game shared by the sessions that joined it.
+  private class Table {
+    /* Id of the game */
+    private final int id;
+
+    /* Rules of the game while inflated, null while parked */
+    private GameEngine engine;
+
+    /* Record of the game in the store, -1 if it has none */
+    private int handle = -1;
+
+    /* Random number generator of the wheel */
+    private final SplittableRandom generator;
+
+    /* Whether the current player spun money and must guess a consonant */
+    private boolean spun = false;
+
+    /* Sessions that joined or created the game and are still open */
+    private int numHolders = 0;
+
+    /* Whether the game has been removed from the server */
+    private boolean removed = false;
+
+    /* Seats of players who have disconnected, null until one does */
+    private BitSet vacant;
+
+    Table(int id, String puzzle) {
+      this.id = id;
+      GameState state = new GameState();
+      state.setPuzzle(puzzle);
+      engine = new GameEngine(state);
+      active.add(this);
+      generator = seeds.split();
+    } // Table()
+
+    /* Retrieve the rules of the game, inflating it if parked */
+    GameEngine engine() {
+      if (engine == null) {
+        engine = new GameEngine(store.inflate(handle));
+        active.add(this);
+      }
+      return engine;
+    } // engine()
+
+    /* Pack the game into the store, unless it has too many players */
+    void park() {
+      GameState state = engine.getState();
+      if (!ParkedGameStore.fits(state)) {
+        discard();
+        return;
+      }
+      if (handle < 0) {
+        handle = store.park(state);
+      } else {
+        store.park(handle, state);
+      }
+      engine = null;
+    } // park()
+
+    /* Give up the seat of a disconnected player */
+    void vacate(int seat) {
+      if (vacant == null) {
+        vacant = new BitSet();
+      }
+      vacant.set(seat);
+      skipVacant();
+    } // vacate()
+
+    /* Pass the turn over seats nobody is playing, unless all are empty */
+    void skipVacant() {
+      if (vacant == null) {
+        return;
+      }
+      GameEngine rules = engine();
+      GameState state = rules.getState();
+      if (rules.isOver() || vacant.cardinality() >= state.getNumPlayers()) {
+        return;
+      }
+      while (vacant.get(state.getCurrent())) {
+        spun = false;
+        rules.loseATurn();
+      } // while
+    } // skipVacant()
+
+    /* Drop the record of the game from the store */
+    void discard() {
+      if (handle >= 0) {
+        store.release(handle);
+        handle = -1;
+      }
+    } // discard()
+
+  } // Table
+
+  // Connection of one player.
+  private class Session {
+    /* Socket of the player */
+    private final SocketChannel channel;
+
+    /* Registration with the selector */
+    private final SelectionKey key;
+
+    /* Request bytes not yet handled */
+    private final ByteBuffer in = ByteBuffer.allocate(MAX_LINE);
+
+    /* Reply bytes not yet written */
+    private final ByteBuffer out = ByteBuffer.allocate(REPLY_BUFFER_SIZE);
+
+    /* Builds each reply */
+    private final StringBuilder reply = new StringBuilder();
+
+    /* Game joined, null before JOIN */
+    private Table table;
+
+    /* Games created by this session, null if none */
+    private ArrayList<Table> created;
+
+    /* Index of this player in the game */
+    private int player;
+
+    /* Whether the session ends once its replies are written */
+    private boolean closing = false;
+
+    Session(SocketChannel channel, SelectionKey key) {
+      this.channel = channel;
+      this.key = key;
+    } // Session()
+
+    /* Read requests and handle every complete line */
+    void read() throws IOException {
+      if (channel.read(in) < 0) {
+        close();
+        return;
+      }
+      handleLines();
+    } // read()
+
+    /* Write queued replies, then handle lines held back while they waited */
+    void write() throws IOException {
+      flush();
+      if (key.isValid() && out.position() == 0 && in.position() > 0) {
+        handleLines();
+      }
+    } // write()
+
+    /* Handle complete lines while there is room for the replies */
+    private void handleLines() throws IOException {
+      boolean more = true;
+      while (more) {
+        in.flip();
+        int start = in.position();
+        boolean full = false;
+        for (int i = start; i < in.limit() && !closing && !full; ++i) {
+          if (in.get(i) != '\n') {
+            continue;
+          }
+          full = out.remaining() < MAX_REPLY;
+          if (!full) {
+            int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+            handle(new String(in.array(), start, end - start,
+                StandardCharsets.UTF_8));
+            start = i + 1;
+          }
+        } // for
+        in.position(start);
+        in.compact();
+        if (!full && !in.hasRemaining()) {
+          reply.setLength(0);
+          reply.append("ERROR Line too long");
+          send();
+          closing = true;
+        }
+        flush();
+        // Carry on if the replies drained at once
+        more = full && key.isValid() && out.position() == 0;
+      } // while
+    } // handleLines()
+
+    /* Write queued replies, waiting for the socket when it is full */
+    private void flush() throws IOException {
+      out.flip();
+      channel.write(out);
+      out.compact();
+      if (out.position() > 0) {
+        // Stop reading until the player reads the replies
+        key.interestOps(SelectionKey.OP_WRITE);
+      } else if (closing) {
+        close();
+      } else {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+    } // flush()
+
+    /* Handle one request line */
+    private void handle(String line) {
+      int space = line.indexOf(' ');
+      String command = space < 0 ? line : line.substring(0, space);
+      String argument = space < 0 ? "" : line.substring(space + 1);
+      reply.setLength(0);
+      try {
+        switch (command) {
+          case "CREATE":
+            create(argument);
+            break;
+          case "JOIN":
+            join(argument);
+            break;
+          case "SPIN":
+            spin();
+            break;
+          case "GUESS":
+            guess(argument);
+            break;
+          case "BUY":
+            buy(argument);
+            break;
+          case "SOLVE":
+            checkTurn(false);
+            reply.append(table.engine().solve(argument) ? "SOLVED" : "WRONG");
+            break;
+          case "STATE":
+            checkSeated();
+            GameState state = table.engine().getState();
+            reply.append("STATE ").append(state.getCurrent()).append(' ')
+                .append(state.getBalance(player)).append(' ');
+            appendHidden(state);
+            break;
+          case "QUIT":
+            reply.append("BYE");
+            closing = true;
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown command " + command);
+        } // switch
+      } catch (IllegalArgumentException | IllegalStateException rejected) {
+        reply.setLength(0);
+        reply.append("ERROR ").append(rejected.getMessage());
+      }
+      if (table != null) {
+        table.skipVacant();
+      }
+      send();
+    } // handle()
+
+    /* Start a new game */
+    private void create(String puzzle) {
+      if (puzzle.isBlank()) {
+        throw new IllegalArgumentException("Empty puzzle");
+      }
+      // Upper casing can lengthen a puzzle, and every reply must fit
+      if (new Puzzle(puzzle).getText().getBytes(StandardCharsets.UTF_8).length
+          > MAX_LINE) {
+        throw new IllegalArgumentException("Puzzle too long");
+      }
+      Table game = new Table(nextId++, puzzle);
+      tables.put(game.id, game);
+      // The creator holds the game open until it closes, so it can be joined
+      if (created == null) {
+        created = new ArrayList<>();
+      }
+      created.add(game);
+      ++game.numHolders;
+      reply.append("GAME ").append(game.id);
+    } // create()
+
+    /* Join a game as a new player */
+    private void join(String argument) {
+      if (table != null && !table.engine().isOver()) {
+        throw new IllegalStateException("Already in game " + table.id);
+      }
+      int space = argument.indexOf(' ');
+      if (space < 0) {
+        throw new IllegalArgumentException("Expected JOIN id name");
+      }
+      Table joined = tables.get(Integer.parseInt(argument.substring(0, space)));
+      if (joined == null) {
+        throw new IllegalArgumentException("No such game");
+      }
+      GameState state = joined.engine().getState();
+      state.addPlayer(argument.substring(space + 1));
+      if (table != null) {
+        leave(table);
+      }
+      table = joined;
+      player = state.getNumPlayers() - 1;
+      ++table.numHolders;
+      reply.append("JOINED ").append(player);
+    } // join()
+
+    /* Spin the wheel for the current player */
+    private void spin() {
+      checkTurn(false);
+      if (!table.engine().canSpin()) {
+        throw new IllegalStateException("No consonants left");
+      }
+      int index = wheel.spin(table.generator);
+      table.spun = wheel.apply(table.engine(), index);
+      reply.append("WHEEL ").append(wheel.space(index));
+    } // spin()
+
+    /* Guess a consonant after spinning money */
+    private void guess(String argument) {
+      checkTurn(true);
+      char letter = letter(argument);
+      int found = table.engine().guessConsonant(letter);
+      table.spun = false;
+      found(found);
+    } // guess()
+
+    /* Buy and guess a vowel */
+    private void buy(String argument) {
+      checkTurn(false);
+      char letter = letter(argument);
+      if (!GameEngine.isVowel(letter)) {
+        throw new IllegalArgumentException("Not a vowel: " + letter);
+      }
+      if (!table.engine().canBuyVowel()) {
+        throw new IllegalStateException("Cannot buy a vowel");
+      }
+      table.engine().buyVowel();
+      found(table.engine().guessVowel(letter));
+    } // buy()
+
+    /* Reply with the result of a guess */
+    private void found(int count) {
+      reply.append("FOUND ").append(count).append(' ');
+      appendHidden(table.engine().getState());
+    } // found()
+
+    /* Check that this player may make a move */
+    private void checkTurn(boolean afterSpin) {
+      checkSeated();
+      if (table.engine().getState().getCurrent() != player) {
+        throw new IllegalStateException("Not your turn");
+      }
+      if (table.spun != afterSpin) {
+        throw new IllegalStateException(afterSpin ? "Spin first"
+            : "Guess a consonant first");
+      }
+    } // checkTurn()
+
+    /* Check that this session joined a game */
+    private void checkSeated() {
+      if (table == null) {
+        throw new IllegalStateException("Join a game first");
+      }
+    } // checkSeated()
+
+    /* Parse a single letter argument */
+    private char letter(String argument) {
+      if (argument.length() != 1) {
+        throw new IllegalArgumentException("Expected one letter");
+      }
+      return Character.toUpperCase(argument.charAt(0));
+    } // letter()
+
+    /* Append the hidden puzzle to the reply */
+    private void appendHidden(GameState state) {
+      int length = state.getPuzzle().length();
+      for (int i = 0; i < length; ++i) {
+        reply.append(state.hiddenAt(i));
+      } // for
+    } // appendHidden()
+
+    /* Release a hold on a game, removing it once nobody holds it */
+    private void leave(Table held) {
+      if (--held.numHolders == 0) {
+        tables.remove(held.id);
+        held.removed = true;
+        held.discard();
+      }
+    } // leave()
+
+    /* Queue the reply, or end the session if there is no room for it */
+    private void send() {
+      reply.append('\n');
+      byte[] bytes = reply.toString().getBytes(StandardCharsets.UTF_8);
+      if (bytes.length > out.remaining()) {
+        closing = true;
+        return;
+      }
+      out.put(bytes);
+    } // send()
+
+    /* End the session, and its game once every player has left */
+    void close() {
+      key.cancel();
+      try {
+        channel.close();
+      } catch (IOException ioException) {
+        // Already gone
+      }
+      if (table != null) {
+        table.vacate(player);
+        leave(table);
+        table = null;
+      }
+      if (created != null) {
+        for (Table owned : created) {
+          leave(owned);
+        } // for
+        created = null;
+      }
+    } // close()
+
+  } // Session
+
+  /**
+   * Run a server. Accepts "--port N" and "--seed N".
+   * @param args command line options
+   * @throws IOException if the port cannot be bound
+   */
+  public static void main(String[] args) throws IOException {
+    int port = DEFAULT_PORT;
+    long seed = System.nanoTime();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--port")) {
+        port = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--seed")) {
+        seed = Long.parseLong(args[i + 1]);
+      }
+    } // for
+    GameServer gameServer = new GameServer(new InetSocketAddress(port), seed);
+    System.out.println("Serving games on port " + gameServer.getPort());
+    gameServer.serve();
+  } // main()
+
+} // GameServer
@@ -0,0 +1,214 @@
+package hangman;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary snapshot of a game in progress.
+ *
+ * <pre>
+ *   int   MAGIC, int VERSION
+ *   int   numPlayers, current, toAdd, guessed, winner
+ *   per player: long balance, short length, UTF-8 name
+ *   int   length, UTF-8 puzzle
+ * </pre>
+ *
+ * The hidden puzzle is not stored; it is revealed again from the guessed
+ * letters. Snapshots are read straight from a ByteBuffer, usually a mapped
+ * file, without copying them first.
+ **/
+public final class GameSnapshot {
+  /** Marker at the start of every snapshot, "HGSS". */
+  public static final int MAGIC = 0x48475353;
+
+  /** Version of the snapshot format. */
+  public static final int VERSION = 1;
+
+  /* Size of the fixed part of a snapshot */
+  private static final int HEADER_SIZE = 7 * Integer.BYTES;
+
+  /* Static utility class */
+  private GameSnapshot() {
+  } // GameSnapshot()
+
+  /**
+   * Compute the size of the snapshot of a game.
+   * @param state state of the game
+   * @return size in bytes
+   */
+  public static int size(GameState state) {
+    int size = HEADER_SIZE + Integer.BYTES
+        + utf8Length(state.getPuzzle().getText());
+    for (int p = 0; p < state.getNumPlayers(); ++p) {
+      size += Long.BYTES + Short.BYTES + utf8Length(state.getName(p));
+    } // for
+    return size;
+  } // size()
+
+  /**
+   * Write the snapshot of a game at the position of a buffer.
+   * @param state state of the game
+   * @param out buffer with at least size(state) bytes remaining
+   * @throws IllegalArgumentException if a name takes over 65535 bytes
+   */
+  public static void write(GameState state, ByteBuffer out) {
+    int numPlayers = state.getNumPlayers();
+    out.putInt(MAGIC).putInt(VERSION).putInt(numPlayers)
+        .putInt(state.getCurrent()).putInt(state.getToAdd())
+        .putInt(state.getGuessed()).putInt(state.getWinner());
+    for (int p = 0; p < numPlayers; ++p) {
+      byte[] name = state.getName(p).getBytes(StandardCharsets.UTF_8);
+      if (name.length > 0xFFFF) {
+        throw new IllegalArgumentException("Player name too long");
+      }
+      out.putLong(state.getBalance(p)).putShort((short) name.length).put(name);
+    } // for
+    byte[] puzzle = state.getPuzzle().getText().getBytes(StandardCharsets.UTF_8);
+    out.putInt(puzzle.length).put(puzzle);
+  } // write()
+
+  /**
+   * Create the snapshot of a game.
+   * @param state state of the game
+   * @return snapshot bytes
+   * @throws IllegalArgumentException if a name takes over 65535 bytes
+   */
+  public static byte[] toBytes(GameState state) {
+    ByteBuffer out = ByteBuffer.allocate(size(state));
+    write(state, out);
+    return out.array();
+  } // toBytes()
+
+  /**
+   * Read a snapshot from the position of a buffer, leaving the position
+   * after it.
+   * @param in buffer holding a snapshot
+   * @return rebuilt state of the game
+   * @throws IOException if the buffer does not hold a valid snapshot
+   * @throws BufferUnderflowException if the snapshot is cut short
+   */
+  public static GameState read(ByteBuffer in) throws IOException {
+    try {
+      if (in.getInt() != MAGIC) {
+        throw new IOException("Not a game snapshot");
+      }
+      int version = in.getInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported snapshot version " + version);
+      }
+      int numPlayers = in.getInt();
+      int current = in.getInt();
+      int toAdd = in.getInt();
+      int guessed = in.getInt();
+      int winner = in.getInt();
+      if (numPlayers < 0
+          || numPlayers > in.remaining() / (Long.BYTES + Short.BYTES)) {
+        throw new IOException("Corrupt game snapshot: " + numPlayers
+            + " players");
+      }
+
+      GameState state = new GameState();
+      long[] balances = new long[numPlayers];
+      for (int p = 0; p < numPlayers; ++p) {
+        balances[p] = in.getLong();
+        state.addPlayer(readString(in, in.getShort() & 0xFFFF));
+      } // for
+      state.setPuzzle(readString(in, in.getInt()));
+
+      for (int p = 0; p < numPlayers; ++p) {
+        state.setBalance(p, balances[p]);
+      } // for
+      state.setGuessed(guessed);
+      if (numPlayers > 0) {
+        state.setCurrent(current);
+      }
+      state.setToAdd(toAdd);
+      if (winner != GameState.NO_WINNER) {
+        state.setWinner(winner);
+      }
+      return state;
+    } catch (IndexOutOfBoundsException | IllegalArgumentException corrupt) {
+      throw new IOException("Corrupt game snapshot: " + corrupt.getMessage());
+    }
+  } // read()
+
+  /**
+   * Save the snapshot of a game to a file.
+   * @param state state of the game
+   * @param file snapshot file, replaced if it exists
+   * @throws IOException if the file cannot be written
+   * @throws IllegalArgumentException if a name takes over 65535 bytes
+   */
+  public static void save(GameState state, Path file) throws IOException {
+    ByteBuffer out = ByteBuffer.wrap(toBytes(state));
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (out.hasRemaining()) {
+        channel.write(out);
+      } // while
+    }
+  } // save()
+
+  /**
+   * Load the snapshot of a game from a file.
+   * @param file snapshot file
+   * @return rebuilt state of the game
+   * @throws IOException if the file cannot be read or is not a snapshot
+   */
+  public static GameState load(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } catch (BufferUnderflowException partial) {
+      throw new IOException("Game snapshot is cut short");
+    }
+  } // load()
+
+  /* Count the UTF-8 bytes of a string */
+  private static int utf8Length(String text) {
+    int length = 0;
+    for (int i = 0; i < text.length(); ++i) {
+      char c = text.charAt(i);
+      if (c < 0x80) {
+        ++length;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isSurrogate(c)) {
+        // A valid pair takes four bytes, a lone surrogate becomes '?'
+        if (i + 1 < text.length()
+            && Character.isSurrogatePair(c, text.charAt(i + 1))) {
+          length += 4;
+          ++i;
+        } else {
+          ++length;
+        }
+      } else {
+        length += 3;
+      }
+    } // for
+    return length;
+  } // utf8Length()
+
+  /* Decode a UTF-8 string of a given length */
+  static String readString(ByteBuffer in, int length) {
+    if (length > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    String text;
+    if (in.hasArray()) {
+      text = new String(in.array(), in.arrayOffset() + in.position(), length,
+          StandardCharsets.UTF_8);
+    } else {
+      byte[] bytes = new byte[length];
+      in.get(in.position(), bytes);
+      text = new String(bytes, StandardCharsets.UTF_8);
+    }
+    in.position(in.position() + length);
+    return text;
+  } // readString()
+
+} // GameSnapshot
@@ -0,0 +1,324 @@
+package hangman;
+
+/**
+ * Headless state of a single game of Hangman.
+ *
+ * Holds the players, their balances, the guessed letters and the puzzle
+ * without any Swing types. A GameState is not thread-safe; each game is
+ * expected to be confined to the thread that plays it.
+ **/
+public class GameState {
+  /** Index used when no player has won yet. */
+  public static final int NO_WINNER = -1;
+
+  /* Player names and balances */
+  private final PlayerRoster roster = new PlayerRoster();
+
+  /* Set of guessed letters, see Letters */
+  private int guessed = 0;
+
+  /* Potential balance increase */
+  private int toAdd = 0;
+
+  /* Index of the player who solved the puzzle */
+  private int winner = NO_WINNER;
+
+  /* Indexed puzzle */
+  private Puzzle puzzle = new Puzzle("");
+
+  /* Obfuscated puzzle representation */
+  private char[] hidden = new char[0];
+
+  /* Number of letters revealed so far */
+  private int numRevealed = 0;
+
+  /**
+   * Create a new player with a given name.
+   * @param name name of new player
+   */
+  public void addPlayer(String name) {
+    roster.add(name);
+  } // addPlayer()
+
+  /**
+   * Retrieve the number of players in the game.
+   * @return number of players in the game
+   */
+  public int getNumPlayers() {
+    return roster.size();
+  } // getNumPlayers()
+
+  /**
+   * Retrieve the name of a given player.
+   * @param pos position of given player
+   * @return name of given player
+   */
+  public String getName(int pos) {
+    return roster.getName(pos);
+  } // getName()
+
+  /**
+   * Retrieve the balance of a given player.
+   * @param pos position of given player
+   * @return balance of given player
+   */
+  public long getBalance(int pos) {
+    return roster.getBalance(pos);
+  } // getBalance()
+
+  /**
+   * Set the balance of a given player.
+   * @param pos position of given player
+   * @param balance new balance of given player
+   */
+  public void setBalance(int pos, long balance) {
+    roster.setBalance(pos, balance);
+  } // setBalance()
+
+  /**
+   * Add money to the balance of the current player.
+   * @param money amount to add, negative to charge
+   */
+  public void addToCurrent(long money) {
+    roster.addBalance(roster.getCurrent(), money);
+  } // addToCurrent()
+
+  /**
+   * Retrieve the index of the current player.
+   * @return index of the current player
+   */
+  public int getCurrent() {
+    return roster.getCurrent();
+  } // getCurrent()
+
+  /**
+   * Set the index of the current player.
+   * @param pos position of the new current player
+   */
+  public void setCurrent(int pos) {
+    roster.setCurrent(pos);
+  } // setCurrent()
+
+  /**
+   * Retrieve the name of the current player.
+   * @return name of the current player
+   */
+  public String currentName() {
+    return getName(roster.getCurrent());
+  } // currentName()
+
+  /**
+   * Retrieve the balance of the current player.
+   * @return balance of the current player
+   */
+  public long currentBalance() {
+    return getBalance(roster.getCurrent());
+  } // currentBalance()
+
+  /**
+   * Move current player to the next player.
+   */
+  public void advancePlayer() {
+    roster.advance();
+  } // advancePlayer()
+
+  /**
+   * Retrieve the players of the game.
+   * @return player roster
+   */
+  public PlayerRoster getRoster() {
+    return roster;
+  } // getRoster()
+
+  /**
+   * Set potential winnings for when a guess is correct.
+   * @param money potential increase in balance
+   */
+  public void setToAdd(int money) {
+    toAdd = money;
+  } // setToAdd()
+
+  /**
+   * Retrieve potential winnings for when a guess is correct.
+   * @return potential increase in balance
+   */
+  public int getToAdd() {
+    return toAdd;
+  } // getToAdd()
+
+  /**
+   * Determine if a letter has been guessed already.
+   * @param letter letter that needs to be checked
+   * @return whether or not a letter has been guessed
+   */
+  public boolean isGuessed(char letter) {
+    return Letters.contains(guessed, letter);
+  } // isGuessed()
+
+  /**
+   * Add a letter to the set of guessed letters.
+   * @param letter letter that has been guessed
+   */
+  public void addGuessed(char letter) {
+    guessed |= Letters.bit(letter);
+  } // addGuessed()
+
+  /**
+   * Retrieve the set of guessed letters.
+   * @return guessed letters, see Letters
+   */
+  public int getGuessed() {
+    return guessed;
+  } // getGuessed()
+
+  /**
+   * Replace the guessed letters and reveal exactly those letters, as when
+   * restoring a stored game.
+   * @param letters set of guessed letters, see Letters
+   */
+  public void setGuessed(int letters) {
+    guessed = letters & Letters.ALL;
+    puzzle.hide(hidden);
+    numRevealed = 0;
+    for (int rest = guessed; rest != 0; rest &= rest - 1) {
+      char letter = (char) ('A' + Integer.numberOfTrailingZeros(rest));
+      numRevealed += puzzle.reveal(letter, hidden);
+    } // for
+  } // setGuessed()
+
+  /**
+   * Determine how many vowels have been guessed.
+   * @return how many vowels have been guessed
+   */
+  public int vowelsGuessed() {
+    return Letters.vowels(guessed);
+  } // vowelsGuessed()
+
+  /**
+   * Determine how many consonants have been guessed.
+   * @return how many consonants have been guessed
+   */
+  public int consGuessed() {
+    return Letters.cons(guessed);
+  } // consGuessed()
+
+  /**
+   * Set the puzzle to be solved and hide all of its letters.
+   * @param entry clear-text puzzle
+   */
+  public void setPuzzle(String entry) {
+    setPuzzle(new Puzzle(entry));
+  } // setPuzzle()
+
+  /**
+   * Set an indexed puzzle to be solved and hide all of its letters.
+   * @param puzzle puzzle to be solved
+   */
+  public void setPuzzle(Puzzle puzzle) {
+    this.puzzle = puzzle;
+    hidden = puzzle.newHidden();
+    numRevealed = 0;
+  } // setPuzzle()
+
+  /**
+   * Start a new game with the same players: balances, guesses, turn and
+   * winner are cleared, and the hidden puzzle is reused when it fits.
+   * @param puzzle puzzle to be solved
+   */
+  public void restart(Puzzle puzzle) {
+    for (int p = 0; p < roster.size(); ++p) {
+      roster.setBalance(p, 0);
+    } // for
+    if (roster.size() > 0) {
+      roster.setCurrent(0);
+    }
+    guessed = 0;
+    toAdd = 0;
+    winner = NO_WINNER;
+    if (hidden.length == puzzle.length()) {
+      this.puzzle = puzzle;
+      puzzle.hide(hidden);
+      numRevealed = 0;
+    } else {
+      setPuzzle(puzzle);
+    }
+  } // restart()
+
+  /**
+   * Retrieve the puzzle being solved.
+   * @return indexed puzzle
+   */
+  public Puzzle getPuzzle() {
+    return puzzle;
+  } // getPuzzle()
+
+  /**
+   * Retrieve a copy of the obfuscated puzzle.
+   * @return obfuscated puzzle
+   */
+  public char[] getHidden() {
+    return hidden.clone();
+  } // getHidden()
+
+  /**
+   * Retrieve a character of the obfuscated puzzle.
+   * @param pos position in the puzzle
+   * @return revealed letter, hidden marker or punctuation
+   */
+  public char hiddenAt(int pos) {
+    return hidden[pos];
+  } // hiddenAt()
+
+  /**
+   * Reveal every occurrence of a letter in the puzzle.
+   * @param letter upper case letter to reveal
+   * @return number of occurrences revealed
+   */
+  public int reveal(char letter) {
+    int found = puzzle.reveal(letter, hidden);
+    numRevealed += found;
+    return found;
+  } // reveal()
+
+  /**
+   * Determine if a letter appears in the puzzle.
+   * @param letter upper case letter to check
+   * @return whether or not the letter appears in the puzzle
+   */
+  public boolean inPuzzle(char letter) {
+    return puzzle.contains(letter);
+  } // inPuzzle()
+
+  /**
+   * Retrieve the number of letters revealed so far.
+   * @return number of revealed letters
+   */
+  public int getNumRevealed() {
+    return numRevealed;
+  } // getNumRevealed()
+
+  /**
+   * Determine if every letter of the puzzle has been revealed.
+   * @return whether or not the puzzle is fully revealed
+   */
+  public boolean isRevealed() {
+    return numRevealed == puzzle.numHidden();
+  } // isRevealed()
+
+  /**
+   * Record the index of the player who solved the puzzle.
+   * @param pos position of the winning player
+   */
+  public void setWinner(int pos) {
+    winner = pos;
+  } // setWinner()
+
+  /**
+   * Retrieve the index of the player who solved the puzzle.
+   * @return position of the winning player, or NO_WINNER
+   */
+  public int getWinner() {
+    return winner;
+  } // getWinner()
+
+} // GameState
@@ -1,14 +1,37 @@
 package hangman;
 
+import java.io.IOException;
 import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
 
 public class Hangman {
-  public static void main(String[] args) {
+  /**
+   * Start a game. See LaunchOptions for the accepted options.
+   * @param args command line options
+   * @throws IOException if the puzzle pack or word list cannot be read
+   * @throws InterruptedException if interrupted while running a tournament
+   */
+  public static void main(String[] args)
+      throws IOException, InterruptedException {
+    long launched = System.nanoTime();
+    if (LaunchOptions.isTournament(args)) {
+      Tournament.main(args);
+      return;
+    }
+    LaunchOptions options = LaunchOptions.parse(args);
+    if (options.isFastStart()) {
+      SwingUtilities.invokeLater(() -> HangmanFrame.fastStart(options, launched));
+      return;
+    }
+
     HangmanFrame gameFrame;
-    gameFrame = new HangmanFrame();
+    // Decode images while the setup dialogs are open
+    BodyPartLoader.load();
+    gameFrame = new HangmanFrame(options);
     gameFrame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
     gameFrame.pack();
     gameFrame.setVisible(true);
+    gameFrame.reportStartup(launched);
   } // main
 
 } // Hangman
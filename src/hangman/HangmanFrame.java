@@ -4,19 +4,23 @@ import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.FlowLayout;
 import java.awt.GridLayout;
-import java.io.File;
-import java.io.FileFilter;
-import java.net.URISyntaxException;
-import java.util.Objects;
+import java.io.IOException;
 import java.util.Random;
 import javax.swing.BorderFactory;
 import javax.swing.ButtonGroup;
 import javax.swing.JButton;
+import javax.swing.JComponent;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
-import javax.swing.ImageIcon;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.ScrollPaneConstants;
+import javax.swing.SwingUtilities;
 import javax.swing.border.TitledBorder;
 
 
@@ -28,20 +32,41 @@ public class HangmanFrame extends JFrame {
   /** Path to images folder. */
   public static final String IMAGES_PATH = "hangman/images";
 
-  /** File extension for images. */
-  public static final String IMAGE_EXTENSION = "jpg";
-
   /* Seeded random number generator */
   private Random generator;
 
-  /* Clear-text puzzle representation */
-  private String puzzle;
+  /* Game state */
+  private GameState state;
+
+  /* Game rules */
+  private GameEngine engine;
+
+  /* Player display */
+  private GameData data;
+
+  /* Changes to show once the current action is done */
+  private ModelEventBus bus;
+
+  /* Store of lifetime player statistics, null if not kept */
+  private PlayerStatsStore statsStore;
+
+  /* Adds the game to the lifetime statistics, null if not kept */
+  private PlayerStatsRecorder statsRecorder;
+
+  /* Latency and throughput of the player's actions */
+  private GameMetrics metrics = GameMetrics.DISABLED;
+
+  /* Moves offered to the current player, see CHOOSE_MOVE */
+  private int phase = WAITING;
+
+  /* Journal of every move, null if not recorded */
+  private GameJournal journal;
 
-  /* Obfuscated puzzle representation */
-  private char[] hidden;
+  /* Computer player for each player, null for humans */
+  private ComputerPlayer[] computers = new ComputerPlayer[0];
 
-  /* Game logic */
-  private GameData data = new GameData();
+  /* Menu item to save the game */
+  private JMenuItem saveItem;
 
   /* Button to buy vowels */
   private JButton buyButton;
@@ -52,6 +77,12 @@ public class HangmanFrame extends JFrame {
   /* Button to solve puzzle */
   private JButton solveButton;
 
+  /* Wheel spun for consonants */
+  private Wheel wheel = new Wheel();
+
+  /* Animated view of the wheel */
+  private WheelComponent wheelView;
+
   /* Panel that holds all buttons */
   private JPanel buttonPanel;
 
@@ -64,11 +95,38 @@ public class HangmanFrame extends JFrame {
   /* Panel that holds all consonants */
   private JPanel consPanel;
 
-  /* Panel that holds hidden puzzle */
-  private JPanel puzzlePanel;
+  /* Board showing the hidden puzzle */
+  private PuzzleBoard puzzleBoard;
+
+  /* Decoded body parts, null until loading finishes */
+  private BodyPart[] images;
+
+  /* Label showing the current body part */
+  private JLabel wheelLabel;
+
+  /* Section with the buttons and the wheel, null until built */
+  private JPanel centerSection;
+
+  /* Panel with the letter buttons, null until built */
+  private JPanel letterPanel;
+
+  /* System.nanoTime() when the game was set up */
+  private long setupDone;
+
+  /* Phase in which the player chooses to buy, spin or solve */
+  private static final int CHOOSE_MOVE = 0;
 
-  /* All possible wheel spaces */
-  private static final BodyPart[] IMAGES = loadImages();
+  /* Phase in which the player picks a vowel that was bought */
+  private static final int PICK_VOWEL = 1;
+
+  /* Phase in which the player picks a consonant after a spin */
+  private static final int PICK_CONS = 2;
+
+  /* Phase in which no move is offered */
+  private static final int WAITING = 3;
+
+  /* Rounds of computer turns that reveal nothing before the game is given up */
+  private static final int MAX_STALLED_ROUNDS = 20;
 
   /* All possible vowels */
   private static final String[] VOWELS = { "A", "E", "I", "O", "U" };
@@ -79,113 +137,195 @@ public class HangmanFrame extends JFrame {
 
 
   /**
-   * Loads images from the images/ directory.
-   *
-   * Assumes that there are exactly NUM_WHEEL_SPACES images
-   * numbered from 1 to NUM_WHEEL_SPACES.
-   *
-   * @return  array of BodyPart objects representing the images
+   * Create and start a game of Hangman.
    */
-  private static BodyPart[] loadImages() {
-    File[] fileList;
-    File myDir = null;
-
-    // Allocate array for number of spaces, which is set to a constant
-    BodyPart[] bodyParts = new BodyPart[NUM_PARTS];
+  public HangmanFrame() {
+    this(new LaunchOptions());
+  } // HangmanFrame()
 
-    // Get a File object for the directory containing the images
-    try {
-      myDir = new File(Objects.requireNonNull(HangmanFrame.class
-              .getClassLoader().getResource(IMAGES_PATH)).toURI());
-    } catch (URISyntaxException uriException) {
-      System.out.println("Caught a URI syntax exception");
-      System.exit(4); // Exit for simplicity
-    }
+  /**
+   * Create and start a game of Hangman with a puzzle drawn from a pack,
+   * computer players guessing from a dictionary and a journal of every
+   * move, as given on the command line. A game resumed from a snapshot
+   * skips the creation prompts.
+   * @param options command line options
+   */
+  public HangmanFrame(LaunchOptions options) {
+    this(options, newOrResumed(options));
+    setVisible(true);
 
-    for (int i = 0; i < NUM_PARTS; i++) {
-      fileList = myDir.listFiles(new BodyPartImageFilter(i));
-      assert fileList != null;
-      if (fileList.length == 1) {
-        bodyParts[i] = new BodyPart(new ImageIcon(fileList[0].toString()));
-      } else {
-        System.out.println("ERROR: Invalid number of images for space: " + i);
-        System.out.println("       Expected 1, but found " + fileList.length);
+    // Creation prompts
+    if (options.getResumed() == null) {
+      namePlayerPrompt(numPlayerPrompt());
+      if (options.getDictionary() != null) {
+        addComputers(computerPrompt(), options.getDictionary());
       }
-    } // for
-
-    return bodyParts;
-  } // loadImages()
-
-  // Helper nested class to filter images used for body parts.
-  // Based on specifically expected filename format.
-  private static class BodyPartImageFilter implements FileFilter {
-    /** Prefix of the requested filename. */
-    private String prefix;  // The prefix of the filename
-
-    /**
-     * Constructs a filter with the given prefix.
-     *
-     * @param prefixIn  integer corresponding to the prefix
-     */
-    BodyPartImageFilter(int prefixIn) {
-      // Sets the prefix member to string version of space number
-      prefix = Integer.toString(prefixIn);
-    } // BodyPartImageFilter()
-
-    /**
-     * Tests whether the file provided should be accepted by our file
-     * filter. In the FileFilter interface.
-     */
-    @Override
-    public boolean accept(File imageFile) {
-      boolean isAccepted = false;
-
-      // Accepted if matched "<...>.jpg" where
-      // IMAGE_EXTENSION is assumed to be "jpg" for this example
-      if (imageFile.getName().startsWith(prefix + "_") &&
-          imageFile.getName().endsWith("." + IMAGE_EXTENSION)) {
-        isAccepted = true;
+      if (options.getPack() == null) {
+        puzzlePrompt();
+      } else {
+        drawPuzzle(options.getPack());
       }
+    }
+    setupDone = System.nanoTime();
+    makeControls();
+    startGame(options);
+  } // WheelOfFortuneFrame()
 
-      return isAccepted;
-    } // accept()
-
-  } // BodyPartImageFilter
-
-  /**
-   * Create and start a game of Hangman.
-   */
-  public HangmanFrame() {
+  /* Create a frame with its game and menu but no panels */
+  private HangmanFrame(LaunchOptions options, GameState state) {
     super("Hangman");
+    generator = options.getGenerator();
+    this.state = state;
+    engine = new GameEngine(state);
+    data = new GameData(state);
+    bus = new ModelEventBus(engine);
+    bus.addListener(this::modelChanged);
+    if (options.isUiStats()) {
+      bus.reportPasses(PaintPassCounter.install());
+    }
+    if (options.getMetricsPeriod() >= 0) {
+      metrics = GameMetrics.start(engine, options.getMetricsPeriod());
+    }
+    if (options.getStats() != null) {
+      statsStore = options.getStats();
+      statsRecorder = new PlayerStatsRecorder(statsStore, engine);
+    }
     setLayout(new BorderLayout());
     setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-    setVisible(true);
+    setJMenuBar(makeMenuBar());
+  } // HangmanFrame()
 
-    // Creation prompts
-    numPlayerPrompt();
-    namePlayerPrompt();
-    puzzlePrompt();
+  /**
+   * Start a game with a single setup form instead of one prompt per
+   * question. The form is not modal: while it is filled in, the event
+   * dispatch thread builds every panel that does not depend on the
+   * answers and the body part images are decoded on other threads, so
+   * submitting the form only adds the scoreboard and the puzzle before
+   * the window is shown. Time to interactive is printed on standard
+   * output. Call on the event dispatch thread.
+   * @param options command line options
+   * @param launched System.nanoTime() when the program started
+   */
+  public static void fastStart(LaunchOptions options, long launched) {
+    HangmanFrame frame = new HangmanFrame(options, newOrResumed(options));
+    BodyPartLoader.load();
+    if (options.getResumed() != null) {
+      frame.setupDone = System.nanoTime();
+      frame.makeControls();
+      frame.showGame(options, launched);
+      return;
+    }
+
+    SetupForm form = new SetupForm(frame, options.getDictionary() != null,
+        options.getPack() == null);
+    form.setOnStart(() -> frame.setupSubmitted(form, options, launched));
+    form.setOnCancel(frame::dispose);
+
+    // Queued before the form is shown, so ahead of any input to it
+    SwingUtilities.invokeLater(frame::makeControls);
+    form.setVisible(true);
+  } // fastStart()
 
-    // Panels
+  /* Set the game up from a submitted form and show it */
+  private void setupSubmitted(SetupForm form, LaunchOptions options, long launched) {
+    for (String name : form.getNames()) {
+      state.addPlayer(name);
+    } // for
+    if (options.getDictionary() != null) {
+      addComputers(form.getNumComputers(), options.getDictionary());
+    }
+    if (options.getPack() == null) {
+      state.setPuzzle(form.getPuzzle());
+    } else {
+      drawPuzzle(options.getPack());
+    }
+    setupDone = System.nanoTime();
+    form.dispose();
+    makeControls();
+    showGame(options, launched);
+  } // setupSubmitted()
+
+  /* Finish, show and time a frame started through fastStart() */
+  private void showGame(LaunchOptions options, long launched) {
+    startGame(options);
+    pack();
+    setLocationRelativeTo(null);
+    setVisible(true);
+    reportStartup(launched);
+  } // showGame()
+
+  /**
+   * Print on standard output how long the game took to become interactive,
+   * once the events queued by showing the window have been handled.
+   * @param launched System.nanoTime() when the program started
+   */
+  public void reportStartup(long launched) {
+    SwingUtilities.invokeLater(() -> {
+      long now = System.nanoTime();
+      System.out.printf("startup: interactive %.1f ms after setup, %.1f ms after launch%n",
+          (now - setupDone) / 1e6, (now - launched) / 1e6);
+    });
+  } // reportStartup()
+
+  /* Retrieve the resumed game, or a new one */
+  private static GameState newOrResumed(LaunchOptions options) {
+    return options.getResumed() == null ? new GameState() : options.getResumed();
+  } // newOrResumed()
+
+  /* Draw a random puzzle from a pack */
+  private void drawPuzzle(PuzzlePack pack) {
+    int index = pack.randomIndex(generator);
+    state.setPuzzle(pack.puzzle(index));
+    setTitle("Hangman - " + pack.category(index));
+  } // drawPuzzle()
+
+  /* Build the panels that do not depend on the players or the puzzle,
+     unless they are built already */
+  private void makeControls() {
+    if (centerSection != null) {
+      return;
+    }
+    centerSection = makeCenterSection();
+    letterPanel = makeLetterPanel();
+  } // makeControls()
+
+  /* Add the panels that show the game and offer the first move */
+  private void startGame(LaunchOptions options) {
+    if (options.getJournal() != null) {
+      openJournal(options);
+    }
     add(makeTopSection(), BorderLayout.NORTH);
-    add(makeCenterSection(), BorderLayout.CENTER);
+    add(centerSection, BorderLayout.CENTER);
     add(makeBottomSection(), BorderLayout.SOUTH);
-  } // WheelOfFortuneFrame()
+    playComputerTurns();
+    setPhase(CHOOSE_MOVE);
+  } // startGame()
+
+  /* Record every move of the game from here on */
+  private void openJournal(LaunchOptions options) {
+    try {
+      journal = new GameJournal(options.getJournal(), state);
+      engine.addListener(journal);
+    } catch (IOException | IllegalArgumentException failure) {
+      System.out.println("ERROR: Could not open journal: "
+          + failure.getMessage());
+    }
+  } // openJournal()
 
   /* Ask for the number of players in the game */
-  private void numPlayerPrompt() {
+  private int numPlayerPrompt() {
     String title = "Number of Players Input";
     String message = "Enter number of players (must be at least 1)";
     boolean validEntry = false;
+    int num = 0;
 
     while (!validEntry) {
       HangmanDialog numPlayersDialog = new HangmanDialog(this, title, message);
       try {
-        int num = Integer.parseInt(numPlayersDialog.getEntryText());
+        num = Integer.parseInt(numPlayersDialog.getEntryText());
         if (num < 1) {
           throw new Exception();
         }
-        data.setNumPlayers(num);
         validEntry = true;
 
       } catch (Exception e) {
@@ -194,19 +334,151 @@ public class HangmanFrame extends JFrame {
             JOptionPane.ERROR_MESSAGE);
       } // try catch
     } // while
+    return num;
   } // numPlayerPrompt()
 
+  /* Ask for the number of computer players in the game */
+  private int computerPrompt() {
+    String title = "Number of Computer Players Input";
+    String message = "Enter number of computer players (0 for none)";
+    boolean validEntry = false;
+    int num = 0;
+
+    while (!validEntry) {
+      HangmanDialog numComputersDialog = new HangmanDialog(this, title, message);
+      try {
+        num = Integer.parseInt(numComputersDialog.getEntryText());
+        if (num < 0) {
+          throw new Exception();
+        }
+        validEntry = true;
+
+      } catch (Exception e) {
+        JOptionPane.showMessageDialog(this,
+            "Input must be a non-negative integer", "Input Error",
+            JOptionPane.ERROR_MESSAGE);
+      } // try catch
+    } // while
+    return num;
+  } // computerPrompt()
+
+  /* Add computer players after the human players */
+  private void addComputers(int numComputers, WordIndex dictionary) {
+    int numHumans = state.getNumPlayers();
+    computers = new ComputerPlayer[numHumans + numComputers];
+    for (int c = 0; c < numComputers; ++c) {
+      state.addPlayer("Computer #" + c);
+      computers[numHumans + c] = new ComputerPlayer(dictionary);
+    } // for
+  } // addComputers()
+
+  /* Determine if the current player is a computer */
+  private boolean isComputerTurn() {
+    int current = state.getCurrent();
+    return current < computers.length && computers[current] != null;
+  } // isComputerTurn()
+
+  /* Let computer players act until a human has the turn */
+  private void playComputerTurns() {
+    int stalled = 0;
+    while (!engine.isOver() && isComputerTurn()) {
+      String name = state.currentName();
+      int guessed = state.getGuessed();
+      computers[state.getCurrent()].takeTurn(engine, wheel, generator);
+      if (engine.isOver()) {
+        // Announced once the action that led here has been handled
+        SwingUtilities.invokeLater(() -> gameOver(name));
+        return;
+      }
+      stalled = state.getGuessed() == guessed ? stalled + 1 : 0;
+      if (stalled >= MAX_STALLED_ROUNDS * state.getNumPlayers()) {
+        // Only computers are left and none of them can finish the puzzle
+        SwingUtilities.invokeLater(this::noWinner);
+        return;
+      }
+    } // while
+  } // playComputerTurns()
+
+  /* Announce the winner and close the game */
+  private void gameOver(String name) {
+    endGame(name + " wins $" + state.currentBalance());
+  } // gameOver()
+
+  /* Reveal the puzzle nobody could solve and close the game */
+  private void noWinner() {
+    puzzleBoard.showAll();
+    endGame("Nobody solved " + state.getPuzzle().getText());
+  } // noWinner()
+
+  /* Show how the game ended with the lifetime statistics, and close it */
+  private void endGame(String info) {
+    if (statsRecorder != null) {
+      try {
+        StringBuilder lifetime = new StringBuilder(info).append("\n");
+        for (PlayerStats stats : statsRecorder.recordGame().values()) {
+          lifetime.append("\n").append(stats);
+        } // for
+        info = lifetime.toString();
+      } catch (IOException ioException) {
+        System.out.println("ERROR: Could not record player statistics: "
+            + ioException.getMessage());
+      }
+    }
+    JOptionPane.showMessageDialog(this, info,
+        "Game Over", JOptionPane.INFORMATION_MESSAGE);
+    closeGame();
+  } // endGame()
+
+  /* Ask for a file, save the game to it and close the game */
+  private void saveGame() {
+    JFileChooser chooser = new JFileChooser();
+    chooser.setDialogTitle("Save Game");
+    if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+    try {
+      GameSnapshot.save(state, chooser.getSelectedFile().toPath());
+      closeGame();
+    } catch (IOException | IllegalArgumentException failure) {
+      JOptionPane.showMessageDialog(this,
+          "Could not save game: " + failure.getMessage(), "Save Error",
+          JOptionPane.ERROR_MESSAGE);
+    }
+  } // saveGame()
+
+  /* Close the journal and the window */
+  private void closeGame() {
+    if (journal != null) {
+      try {
+        journal.close();
+      } catch (IOException ioException) {
+        System.out.println("ERROR: Could not close journal: "
+            + ioException.getMessage());
+      }
+    }
+    if (statsStore != null) {
+      try {
+        statsStore.close();
+      } catch (IOException ioException) {
+        System.out.println("ERROR: Could not close player statistics: "
+            + ioException.getMessage());
+      }
+    }
+    metrics.close();
+    dispose();
+  } // closeGame()
+
   /* Ask for the name of the players in the game */
-  private void namePlayerPrompt() {
+  private void namePlayerPrompt(int numPlayers) {
     String title = "Player Name Input";
     String message = "Enter name of player #";
 
-    for (int p = 0; p < data.getNumPlayers(); ++p) {
+    for (int p = 0; p < numPlayers; ++p) {
       HangmanDialog namePlayersDialog = new HangmanDialog(this, title, message + p);
 
       String name = namePlayersDialog.getEntryText();
       if (!name.isEmpty()) {
-        data.addNewPlayer(name);
+        state.addPlayer(name);
       }
     } // for
   } // namePlayerPrompt()
@@ -219,8 +491,7 @@ public class HangmanFrame extends JFrame {
 
     String entry = puzzleDialog.getEntryText();
     if (!entry.isEmpty()) {
-      puzzle = entry.toUpperCase();
-      hidden = puzzle.replaceAll("[a-zA-Z]", "-").toCharArray();
+      state.setPuzzle(entry);
     }
   } // puzzlePrompt()
 
@@ -233,30 +504,35 @@ public class HangmanFrame extends JFrame {
         new HangmanDialog(this, title, message);
 
     String guess = solveDialog.getEntryText();
-    String info;
-    if (guess.toUpperCase().equals(puzzle)) {
-      info = data.currentName() + " wins $" + data.currentBalance();
-
-      JOptionPane.showMessageDialog(this, info,
-          "Game Over", JOptionPane.INFORMATION_MESSAGE);
-      dispose();
+    String name = state.currentName();
+    long start = metrics.start();
+    boolean correct = engine.solve(guess);
+    metrics.end(GameMetrics.SOLVE, start);
+    if (correct) {
+      gameOver(name);
     } else {
-      info = "Guess by " + data.currentName() + " was incorrect!";
+      String info = "Guess by " + name + " was incorrect!";
       JOptionPane.showMessageDialog(this, info,
           "Wrong Answer", JOptionPane.ERROR_MESSAGE);
-      data.loseATurn();
-      enableButtons();
+      playComputerTurns();
+      setPhase(CHOOSE_MOVE);
     }
   } // solvePrompt()
 
-  /* Create top section that contains all player panels */
-  private JPanel makeTopSection() {
-    JPanel topSection = new JPanel(new GridLayout(1, data.getNumPlayers()));
-    data.makeNamePanels();
-    for (int p = 0; p < data.getNumPlayers(); ++p) {
-      topSection.add(data.getNamePanel(p));
-    }
-    return topSection;
+  /* Create menu bar with the game menu */
+  private JMenuBar makeMenuBar() {
+    saveItem = new JMenuItem("Save and Quit...");
+    saveItem.addActionListener(actionEvent -> saveGame());
+    JMenu gameMenu = new JMenu("Game");
+    gameMenu.add(saveItem);
+    JMenuBar menuBar = new JMenuBar();
+    menuBar.add(gameMenu);
+    return menuBar;
+  } // makeMenuBar()
+
+  /* Create top section that contains the scoreboard */
+  private JComponent makeTopSection() {
+    return data.makeScoreboard();
   } // makeTopSection()
 
   /* Create center section that contains buttons and wheel panel */
@@ -264,7 +540,9 @@ public class HangmanFrame extends JFrame {
     JPanel centerSection = new JPanel(new FlowLayout());
     makeButtonsPanel();
     makeWheelPanel();
+    wheelView = new WheelComponent(wheel);
     centerSection.add(buttonPanel);
+    centerSection.add(wheelView);
     centerSection.add(wheelPanel);
     return centerSection;
   } // makeCenterSection()
@@ -279,7 +557,7 @@ public class HangmanFrame extends JFrame {
     buttonPanel.add(buyButton);
 
     spinButton = new JButton("Spin the Wheel");
-    //buyButton.addActionListener(actionEvent -> );
+    spinButton.addActionListener(actionEvent -> spinWheel());
     buttonPanel.add(spinButton);
 
     solveButton = new JButton("Solve the Puzzle");
@@ -296,15 +574,25 @@ public class HangmanFrame extends JFrame {
   /* Create panel with wheel */
   private void makeWheelPanel() {
     wheelPanel = new JPanel(new FlowLayout());
-    wheelPanel.add(new JLabel(IMAGES[0].getImageIcon()));
+    wheelLabel = new JLabel(BodyPartLoader.placeholder().getImageIcon());
+    wheelPanel.add(wheelLabel);
+
+    // Swap in the real images once they have been decoded
+    BodyPartLoader.load().thenAccept(parts -> SwingUtilities.invokeLater(() -> {
+      images = parts;
+      wheelLabel.setIcon(images[0].getImageIcon());
+    }));
   } // makeWheelPanel()
 
   /* Create bottom section that contains puzzle panel */
   private JPanel makeBottomSection() {
     JPanel bottomSection = new JPanel(new BorderLayout());
-    makePuzzlePanel();
-    bottomSection.add(makeLetterPanel(), BorderLayout.NORTH);
-    bottomSection.add(puzzlePanel, BorderLayout.SOUTH);
+    puzzleBoard = new PuzzleBoard(state.getPuzzle(), state.getGuessed());
+    bottomSection.add(letterPanel, BorderLayout.NORTH);
+    JScrollPane boardPane = new JScrollPane(puzzleBoard,
+        ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+        ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+    bottomSection.add(boardPane, BorderLayout.SOUTH);
     return bottomSection;
   } // makeBottomSection()
 
@@ -329,9 +617,9 @@ public class HangmanFrame extends JFrame {
     for (String v : VOWELS) {
       JButton vowel = new JButton(v);
       vowel.addActionListener(actionEvent -> vowelPressed(v));
+      vowel.setEnabled(false);
       vowelPanel.add(vowel);
     } // for
-    disableVowels();
   } // makeVowelPanel()
 
   /* Create panel with consonant selection */
@@ -345,145 +633,134 @@ public class HangmanFrame extends JFrame {
     for (String c : CONS) {
       JButton cons = new JButton(c);
       cons.addActionListener(actionEvent -> consPressed(c));
+      cons.setEnabled(false);
       consPanel.add(cons);
     } // for
-    disableCons();
   } // makeVowelPanel()
 
-  /* Create panel with puzzle to be solved */
-  private void makePuzzlePanel() {
-    puzzlePanel = new JPanel(new FlowLayout());
-    String label = createHiddenPuzzle();
-    puzzlePanel.add(new JLabel(label));
-  } // makePuzzlePanel()
-
   /* Functionality for buy button */
   private void buyVowel() {
-    enableVowels();
-    data.buyVowel();
+    if (phase != CHOOSE_MOVE || !engine.canBuyVowel()) {
+      return;
+    }
+    long start = metrics.start();
+    engine.buyVowel();
+    setPhase(PICK_VOWEL);
+    metrics.end(GameMetrics.BUY, start);
   } // buyVowel()
 
 
+  /* Functionality for spin button */
+  private void spinWheel() {
+    if (phase != CHOOSE_MOVE || !engine.canSpin()) {
+      return;
+    }
+    setPhase(WAITING);
+    wheelView.spin(generator, this::spinLanded);
+  } // spinWheel()
+
+  /* Apply the space the wheel landed on */
+  private void spinLanded(int index) {
+    long start = metrics.start();
+    if (wheel.apply(engine, index)) {
+      setPhase(PICK_CONS);
+    } else {
+      playComputerTurns();
+      setPhase(CHOOSE_MOVE);
+    }
+    metrics.end(GameMetrics.WHEEL, start);
+  } // spinLanded()
+
   /* Functionality for solve button */
   private void solvePuzzle() {
-    disableButtons();
+    if (phase != CHOOSE_MOVE) {
+      return;
+    }
+    setPhase(WAITING);
     solvePrompt();
   } // solvePuzzle()
 
   /* Simulate spinning of wheel and display next icon */
   private void updateWheel(int index) {
-    wheelPanel.removeAll();
-    wheelPanel.add(new JLabel(IMAGES[index].getImageIcon()));
-    wheelPanel.revalidate();
+    if (images != null) {
+      wheelLabel.setIcon(images[index].getImageIcon());
+    }
   } // updateWheel();
 
-  /*  */
-  private void enableVowels() {
-    disableButtons();
-
-    for (Component component : vowelPanel.getComponents()) {
-      JButton label = (JButton) component;
-      if (!data.isGuessedVowel(label.getText())) {
-        component.setEnabled(true);
-      }
-    } // for
-  } // enableVowels()
-
-  /*  */
-  private void enableCons() {
-    disableButtons();
-
-    for (Component component : consPanel.getComponents()) {
+  /* Offer the current player a new set of moves, enabling them at once */
+  private void setPhase(int phase) {
+    this.phase = phase;
+    updateControls();
+  } // setPhase()
+
+  /* Refresh whatever changed during the last action, all at once */
+  private void modelChanged(int changes) {
+    long start = metrics.start();
+    if ((changes & ModelEventBus.PUZZLE) != 0) {
+      updatePuzzle();
+    }
+    if ((changes & ModelEventBus.PLAYERS) != 0) {
+      long scoreboardStart = metrics.start();
+      data.updatePlayers();
+      metrics.end(GameMetrics.SCOREBOARD, scoreboardStart);
+    }
+    metrics.end(GameMetrics.REFRESH, start);
+  } // modelChanged()
+
+  /* Enable exactly the buttons of the moves offered */
+  private void updateControls() {
+    boolean choosing = phase == CHOOSE_MOVE && !engine.isOver();
+    buyButton.setEnabled(choosing && engine.canBuyVowel());
+    spinButton.setEnabled(choosing && engine.canSpin());
+    solveButton.setEnabled(choosing);
+    // A game is only saved between moves
+    saveItem.setEnabled(choosing);
+    enableLetters(vowelPanel, phase == PICK_VOWEL);
+    enableLetters(consPanel, phase == PICK_CONS);
+  } // updateControls()
+
+  /* Enable the letter buttons in a panel that may be picked */
+  private void enableLetters(JPanel panel, boolean picking) {
+    int guessed = state.getGuessed();
+    for (Component component : panel.getComponents()) {
       JButton label = (JButton) component;
-      if (!data.isGuessedCons(label.getText())) {
-        component.setEnabled(true);
-      }
-    } // for
-  } // enableCons()
-
-  /*  */
-  private void disableVowels() {
-    for (Component component : vowelPanel.getComponents()) {
-      component.setEnabled(false);
-    } // for
-  } // disableVowels()
-
-  /*  */
-  private void disableCons() {
-    for (Component component : consPanel.getComponents()) {
-      component.setEnabled(false);
+      component.setEnabled(picking
+          && !Letters.contains(guessed, label.getText().charAt(0)));
     } // for
-  } // disableCons()
+  } // enableLetters()
 
   /*  */
   private void vowelPressed(String v) {
-    if (puzzle.contains(v)) {
-      updatePuzzle(v);
-    } else {
-      disableVowels();
-      data.invalidGuess();
+    if (phase != PICK_VOWEL || state.isGuessed(v.charAt(0))) {
+      return;
     }
-
-    data.addGuessedVowel(v);
-    enableButtons();
-    disableVowels();
+    long start = metrics.start();
+    engine.guessVowel(v.charAt(0));
+    playComputerTurns();
+    setPhase(CHOOSE_MOVE);
+    metrics.end(GameMetrics.VOWEL, start);
   } // vowelPressed()
 
   /*  */
   private void consPressed(String c) {
-    if (puzzle.contains(c)) {
-      updatePuzzle(c);
-      data.validGuess();
-    } else {
-      data.invalidGuess();
+    if (phase != PICK_CONS || state.isGuessed(c.charAt(0))) {
+      return;
     }
-
-    data.addGuessedCons(c);
-    enableButtons();
-    disableCons();
+    long start = metrics.start();
+    engine.guessConsonant(c.charAt(0));
+    playComputerTurns();
+    setPhase(CHOOSE_MOVE);
+    metrics.end(GameMetrics.CONSONANT, start);
   } // consPressed()
 
-  private void updatePuzzle(String letter) {
-    if (puzzle.contains(letter)) {
-      for (int i = 0; i < puzzle.length(); ++i) {
-        if (puzzle.charAt(i) == letter.charAt(0)) {
-          hidden[i] = letter.charAt(0);
-        }
-      }
-    }
-    puzzlePanel.removeAll();
-    String label = createHiddenPuzzle();
-    puzzlePanel.add(new JLabel(label));
-    puzzlePanel.revalidate();
-  } // updatePuzzle
-
-  private String createHiddenPuzzle() {
-    StringBuilder temp = new StringBuilder();
-    for (char c : hidden) {
-      temp.append(c);
-      temp.append(" ");
-    }
-    return temp.toString();
-  } // createHiddenPuzzle()
-
-  /* Enable buttons if needed conditions are met */
-  private void enableButtons() {
-    if (data.currentBalance() >= 250
-        && data.vowelsGuessed() != VOWELS.length) {
-      buyButton.setEnabled(true);
-    }
-    if (data.consGuessed() != CONS.length) {
-      spinButton.setEnabled(true);
+  /* Show the puzzle as revealed so far */
+  private void updatePuzzle() {
+    if (engine.isOver()) {
+      puzzleBoard.showAll();
+    } else {
+      puzzleBoard.showGuessed(state.getGuessed());
     }
-    solveButton.setEnabled(true);
-  } // enableButtons()
-
-  /* Disable buttons until choice has been made */
-  private void disableButtons() {
-    buyButton.setEnabled(false);
-    spinButton.setEnabled(false);
-    solveButton.setEnabled(false);
-  } // disableButtons()
+  } // updatePuzzle()
 
 } // HangmanFrame
 
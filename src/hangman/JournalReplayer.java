@@ -0,0 +1,177 @@
+package hangman;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Rebuilds a game from a GameJournal.
+ *
+ * The file is mapped and decoded in place, and every record is applied
+ * through GameEngine so the rules are checked again: a guess must reveal
+ * as many letters as were recorded, a solve must give the same result and
+ * every turn change must land on the recorded player. A record cut short
+ * by a crash ends the replay at the last complete record.
+ **/
+public class JournalReplayer {
+  /* Records applied by the last replay */
+  private long numRecords;
+
+  /* Whether the last replay ended in a partial record */
+  private boolean truncated;
+
+  /**
+   * Replay a journal file.
+   * @param file journal file
+   * @return engine of the rebuilt game
+   * @throws IOException if the file cannot be read or does not match the
+   *   rules
+   */
+  public GameEngine replay(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      return replay(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  } // replay()
+
+  /**
+   * Replay a journal held in a buffer, from its position to its limit.
+   * @param in journal contents
+   * @return engine of the rebuilt game
+   * @throws IOException if the journal does not match the rules
+   */
+  public GameEngine replay(ByteBuffer in) throws IOException {
+    numRecords = 0;
+    truncated = false;
+    if (in.remaining() < 8 || in.getInt() != GameJournal.MAGIC) {
+      throw new IOException("Not a game journal");
+    }
+    int version = in.getInt();
+    if (version != GameJournal.VERSION) {
+      throw new IOException("Unsupported journal version " + version);
+    }
+
+    GameEngine engine = null;
+    int mark = in.position();
+    try {
+      if (in.get() != GameJournal.START) {
+        throw new IOException("Journal does not start with the game");
+      }
+      engine = new GameEngine(GameSnapshot.read(in));
+      ++numRecords;
+      while (in.hasRemaining()) {
+        mark = in.position();
+        apply(engine, in);
+        ++numRecords;
+      } // while
+    } catch (BufferUnderflowException partial) {
+      // The last record was only partly written
+      if (engine == null) {
+        throw new IOException("Journal ends inside the game record");
+      }
+      in.position(mark);
+      truncated = true;
+    } catch (IllegalArgumentException | IllegalStateException rejected) {
+      throw new IOException("Record " + numRecords + " breaks the rules: "
+          + rejected.getMessage());
+    }
+    return engine;
+  } // replay()
+
+  /**
+   * Retrieve the number of records applied by the last replay.
+   * @return number of records
+   */
+  public long getNumRecords() {
+    return numRecords;
+  } // getNumRecords()
+
+  /**
+   * Determine if the last replay stopped at a partly written record.
+   * @return whether or not the journal was cut short
+   */
+  public boolean isTruncated() {
+    return truncated;
+  } // isTruncated()
+
+  /* Apply one event record to the game */
+  private static void apply(GameEngine engine, ByteBuffer in)
+      throws IOException {
+    GameState state = engine.getState();
+    byte type = in.get();
+    switch (type) {
+      case GameJournal.WHEEL:
+        engine.setToAdd(in.getInt());
+        break;
+      case GameJournal.GUESS:
+        char letter = (char) in.get();
+        int found = in.getInt();
+        int revealed = GameEngine.isVowel(letter)
+            ? engine.guessVowel(letter) : engine.guessConsonant(letter);
+        if (revealed != found) {
+          throw new IOException("Guess of " + letter + " revealed " + revealed
+              + ", journal says " + found);
+        }
+        break;
+      case GameJournal.BUY_VOWEL:
+        engine.buyVowel();
+        break;
+      case GameJournal.BANKRUPT:
+        checkCurrent(state, in.getInt());
+        engine.bankrupt();
+        break;
+      case GameJournal.LOSE_TURN:
+        checkCurrent(state, in.getInt());
+        engine.loseATurn();
+        break;
+      case GameJournal.SOLVE:
+        boolean correct = in.get() != 0;
+        String guess = GameSnapshot.readString(in, in.getInt());
+        if (engine.solve(guess) != correct) {
+          throw new IOException("Solve of \"" + guess + "\" does not match");
+        }
+        break;
+      case GameJournal.TURN:
+        // The engine already passed the turn; only check where it went
+        checkCurrent(state, in.getInt());
+        break;
+      default:
+        throw new IOException("Unknown record type " + type);
+    } // switch
+  } // apply()
+
+  /* Check that the recorded player has the turn */
+  private static void checkCurrent(GameState state, int player)
+      throws IOException {
+    if (state.getCurrent() != player) {
+      throw new IOException("Journal gives the turn to player " + player
+          + ", game gives it to " + state.getCurrent());
+    }
+  } // checkCurrent()
+
+  /**
+   * Replay journal files and print the rebuilt games.
+   * @param args journal files
+   * @throws IOException if a journal cannot be read
+   */
+  public static void main(String[] args) throws IOException {
+    JournalReplayer replayer = new JournalReplayer();
+    for (String arg : args) {
+      long start = System.nanoTime();
+      GameState state = replayer.replay(Paths.get(arg)).getState();
+      double seconds = (System.nanoTime() - start) / 1e9;
+      System.out.printf("%s: %d records in %.3fs (%.0f records/s)%s%n", arg,
+          replayer.getNumRecords(), seconds, replayer.getNumRecords() / seconds,
+          replayer.isTruncated() ? ", last record cut short" : "");
+      System.out.println("  " + new String(state.getHidden()));
+      for (int p = 0; p < state.getNumPlayers(); ++p) {
+        System.out.printf("  %s%s $%d%n", state.getName(p),
+            p == state.getWinner() ? " (winner)" : "", state.getBalance(p));
+      } // for
+    } // for
+  } // main()
+
+} // JournalReplayer
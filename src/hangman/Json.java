@@ -0,0 +1,310 @@
+package hangman;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader and writer for the game APIs.
+ *
+ * Parsing produces plain Maps, Lists, Strings, Longs, Doubles, Booleans
+ * and nulls in a single pass over the text; writing appends straight to a
+ * StringBuilder. Nothing is reflected on, so encoding a reply costs about
+ * as much as building the string. Documents nested deeper than MAX_DEPTH
+ * are rejected rather than parsed, so a hostile body cannot overflow the
+ * stack.
+ **/
+public final class Json {
+  /** Deepest nesting of objects and arrays accepted. */
+  public static final int MAX_DEPTH = 64;
+
+  /* Text being parsed */
+  private final String text;
+
+  /* Position of the next character */
+  private int pos = 0;
+
+  /* Objects and arrays open at the current position */
+  private int depth = 0;
+
+  /* Create a parser over a text */
+  private Json(String text) {
+    this.text = text;
+  } // Json()
+
+  /**
+   * Parse a JSON document.
+   * @param text JSON text
+   * @return Map, List, String, Long, Double, Boolean or null
+   * @throws IllegalArgumentException if the text is not valid JSON
+   */
+  public static Object parse(String text) {
+    Json parser = new Json(text);
+    Object value = parser.value();
+    parser.skipSpace();
+    if (parser.pos != text.length()) {
+      throw parser.error("Trailing characters");
+    }
+    return value;
+  } // parse()
+
+  /**
+   * Parse a JSON object.
+   * @param text JSON text
+   * @return members of the object
+   * @throws IllegalArgumentException if the text is not a JSON object
+   */
+  @SuppressWarnings("unchecked")
+  public static Map<String, Object> parseObject(String text) {
+    Object value = parse(text);
+    if (!(value instanceof Map)) {
+      throw new IllegalArgumentException("Expected a JSON object");
+    }
+    return (Map<String, Object>) value;
+  } // parseObject()
+
+  /**
+   * Append a string as a quoted JSON string.
+   * @param out builder to append to
+   * @param value string to quote
+   * @return the builder
+   */
+  public static StringBuilder quote(StringBuilder out, String value) {
+    out.append('"');
+    for (int i = 0; i < value.length(); ++i) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          out.append("\\\"");
+          break;
+        case '\\':
+          out.append("\\\\");
+          break;
+        case '\n':
+          out.append("\\n");
+          break;
+        case '\r':
+          out.append("\\r");
+          break;
+        case '\t':
+          out.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+          break;
+      } // switch
+    } // for
+    return out.append('"');
+  } // quote()
+
+  /* Parse any value */
+  private Object value() {
+    skipSpace();
+    if (pos == text.length()) {
+      throw error("Unexpected end");
+    }
+    char c = text.charAt(pos);
+    switch (c) {
+      case '{':
+        return object();
+      case '[':
+        return array();
+      case '"':
+        return string();
+      case 't':
+        return literal("true", Boolean.TRUE);
+      case 'f':
+        return literal("false", Boolean.FALSE);
+      case 'n':
+        return literal("null", null);
+      default:
+        return number();
+    } // switch
+  } // value()
+
+  /* Parse an object */
+  private Map<String, Object> object() {
+    HashMap<String, Object> members = new HashMap<>();
+    enter();
+    skipSpace();
+    if (peek() == '}') {
+      ++pos;
+      --depth;
+      return members;
+    }
+    while (true) {
+      skipSpace();
+      if (peek() != '"') {
+        throw error("Expected a member name");
+      }
+      String name = string();
+      skipSpace();
+      expect(':');
+      members.put(name, value());
+      skipSpace();
+      if (peek() == ',') {
+        ++pos;
+      } else {
+        expect('}');
+        --depth;
+        return members;
+      }
+    } // while
+  } // object()
+
+  /* Parse an array */
+  private List<Object> array() {
+    ArrayList<Object> elements = new ArrayList<>();
+    enter();
+    skipSpace();
+    if (peek() == ']') {
+      ++pos;
+      --depth;
+      return elements;
+    }
+    while (true) {
+      elements.add(value());
+      skipSpace();
+      if (peek() == ',') {
+        ++pos;
+      } else {
+        expect(']');
+        --depth;
+        return elements;
+      }
+    } // while
+  } // array()
+
+  /* Open an object or array, unless it nests too deep */
+  private void enter() {
+    if (++depth > MAX_DEPTH) {
+      throw error("Nested deeper than " + MAX_DEPTH);
+    }
+    ++pos;
+  } // enter()
+
+  /* Parse a string */
+  private String string() {
+    ++pos;
+    StringBuilder out = null;
+    int start = pos;
+    while (true) {
+      if (pos >= text.length()) {
+        throw error("Unterminated string");
+      }
+      char c = text.charAt(pos);
+      if (c == '"') {
+        String tail = text.substring(start, pos++);
+        return out == null ? tail : out.append(tail).toString();
+      }
+      if (c != '\\') {
+        ++pos;
+        continue;
+      }
+
+      // Flush the plain run and decode the escape
+      if (out == null) {
+        out = new StringBuilder();
+      }
+      out.append(text, start, pos);
+      if (pos + 1 >= text.length()) {
+        throw error("Unterminated string");
+      }
+      char escaped = text.charAt(pos + 1);
+      pos += 2;
+      switch (escaped) {
+        case 'n':
+          out.append('\n');
+          break;
+        case 'r':
+          out.append('\r');
+          break;
+        case 't':
+          out.append('\t');
+          break;
+        case 'b':
+          out.append('\b');
+          break;
+        case 'f':
+          out.append('\f');
+          break;
+        case 'u':
+          if (pos + 4 > text.length()) {
+            throw error("Bad unicode escape");
+          }
+          out.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+          pos += 4;
+          break;
+        default:
+          out.append(escaped);
+          break;
+      } // switch
+      start = pos;
+    } // while
+  } // string()
+
+  /* Parse a number */
+  private Object number() {
+    int start = pos;
+    boolean fraction = false;
+    while (pos < text.length()) {
+      char c = text.charAt(pos);
+      if (c == '.' || c == 'e' || c == 'E') {
+        fraction = true;
+      } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+        break;
+      }
+      ++pos;
+    } // while
+    if (start == pos) {
+      throw error("Unexpected character");
+    }
+    String number = text.substring(start, pos);
+    try {
+      return fraction ? (Object) Double.parseDouble(number)
+          : (Object) Long.parseLong(number);
+    } catch (NumberFormatException badNumber) {
+      throw error("Bad number " + number);
+    }
+  } // number()
+
+  /* Parse a keyword */
+  private Object literal(String word, Object value) {
+    if (!text.startsWith(word, pos)) {
+      throw error("Unexpected character");
+    }
+    pos += word.length();
+    return value;
+  } // literal()
+
+  /* Retrieve the next character, or 0 at the end */
+  private char peek() {
+    return pos < text.length() ? text.charAt(pos) : 0;
+  } // peek()
+
+  /* Consume an expected character */
+  private void expect(char c) {
+    if (peek() != c) {
+      throw error("Expected '" + c + "'");
+    }
+    ++pos;
+  } // expect()
+
+  /* Skip white space */
+  private void skipSpace() {
+    while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+      ++pos;
+    } // while
+  } // skipSpace()
+
+  /* Describe a syntax error at the current position */
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at " + pos);
+  } // error()
+
+} // Json
@@ -0,0 +1,138 @@
+package hangman;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies with log-linear buckets, in the style of
+ * HdrHistogram.
+ *
+ * Values below 32ns get a bucket each; above that every power of two is
+ * split into 16 buckets, so a bucket is never more than about 6% wider
+ * than the values it holds, from nanoseconds up to minutes, in under 600
+ * counters. Recording is a few shifts and one atomic increment, with no
+ * allocation. Any thread may record and read; a reader sees each count
+ * as it was at some point during the read.
+ **/
+public class LatencyHistogram {
+  /* Buckets of each power of two, as a shift */
+  private static final int SUB_BITS = 4;
+
+  /* Buckets of each power of two */
+  private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+  /* Largest value recorded exactly, about 18 minutes */
+  private static final long MAX_VALUE = (1L << 40) - 1;
+
+  /* Number of buckets */
+  private static final int NUM_BUCKETS = index(MAX_VALUE) + 1;
+
+  /* Number of values per bucket */
+  private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+  /* Index 0 is the number of values, 1 their sum and 2 the largest */
+  private final AtomicLongArray totals = new AtomicLongArray(3);
+
+  /**
+   * Record a value.
+   * @param nanos latency in nanoseconds, clamped to 0 and about 18 minutes
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, Math.min(nanos, MAX_VALUE));
+    counts.incrementAndGet(index(value));
+    totals.incrementAndGet(0);
+    totals.addAndGet(1, value);
+    long max = totals.get(2);
+    while (value > max && !totals.compareAndSet(2, max, value)) {
+      max = totals.get(2);
+    } // while
+  } // record()
+
+  /**
+   * Retrieve the number of values recorded.
+   * @return number of values
+   */
+  public long getCount() {
+    return totals.get(0);
+  } // getCount()
+
+  /**
+   * Retrieve the sum of the values recorded.
+   * @return sum in nanoseconds
+   */
+  public long getTotal() {
+    return totals.get(1);
+  } // getTotal()
+
+  /**
+   * Retrieve the largest value recorded.
+   * @return largest value in nanoseconds, 0 if none
+   */
+  public long getMax() {
+    return totals.get(2);
+  } // getMax()
+
+  /**
+   * Retrieve the value below which a fraction of the values fall.
+   * @param fraction fraction of the values, from 0 to 1
+   * @return upper edge of the bucket holding the value, in nanoseconds,
+   *   0 if none were recorded
+   */
+  public long percentile(double fraction) {
+    long total = 0;
+    for (int b = 0; b < NUM_BUCKETS; ++b) {
+      total += counts.get(b);
+    } // for
+    long target = (long) Math.ceil(fraction * total);
+    long seen = 0;
+    for (int b = 0; b < NUM_BUCKETS; ++b) {
+      seen += counts.get(b);
+      if (seen >= Math.max(target, 1)) {
+        return Math.min(lowest(b + 1) - 1, getMax());
+      }
+    } // for
+    return 0;
+  } // percentile()
+
+  /**
+   * Describe the count, median, tail and maximum of the values.
+   * @return one line summary
+   */
+  @Override
+  public String toString() {
+    return String.format("%d, p50 %s p99 %s p99.9 %s max %s", getCount(),
+        format(percentile(0.5)), format(percentile(0.99)),
+        format(percentile(0.999)), format(getMax()));
+  } // toString()
+
+  /**
+   * Format a latency for people.
+   * @param nanos latency in nanoseconds
+   * @return latency in the largest unit that keeps it above 1
+   */
+  public static String format(long nanos) {
+    if (nanos < 1_000) {
+      return nanos + "ns";
+    } else if (nanos < 1_000_000) {
+      return String.format("%.1fus", nanos / 1e3);
+    } else if (nanos < 1_000_000_000) {
+      return String.format("%.2fms", nanos / 1e6);
+    }
+    return String.format("%.2fs", nanos / 1e9);
+  } // format()
+
+  /* Find the bucket of a value */
+  private static int index(long value) {
+    int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(value) - (SUB_BITS + 1));
+    return (shift << SUB_BITS) + (int) (value >>> shift);
+  } // index()
+
+  /* Find the lowest value of a bucket */
+  private static long lowest(int index) {
+    if (index < 2 * SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index >>> SUB_BITS) - 1;
+    return (long) (index - (shift << SUB_BITS)) << shift;
+  } // lowest()
+
+} // LatencyHistogram
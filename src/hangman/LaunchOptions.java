@@ -0,0 +1,170 @@
+package hangman;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Command line options of a game of Hangman.
+ **/
+public class LaunchOptions {
+  /* Puzzles to draw from, null to ask for a puzzle */
+  private PuzzlePack pack;
+
+  /* Words for computer players, null for none */
+  private WordIndex dictionary;
+
+  /* Random number generator of the game */
+  private Random generator = new Random();
+
+  /* File to journal the game to, null for none */
+  private Path journal;
+
+  /* Game resumed from a snapshot, null for a new game */
+  private GameState resumed;
+
+  /* Whether to print the layout and repaint passes of every action */
+  private boolean uiStats = false;
+
+  /* Whether to start through a single setup form, see HangmanFrame.fastStart */
+  private boolean fastStart = false;
+
+  /* Seconds between metrics dumps, 0 for none, -1 if metrics are off */
+  private int metricsPeriod = -1;
+
+  /* Store of lifetime player statistics, null if not kept */
+  private PlayerStatsStore stats;
+
+  /**
+   * Parse command line options. Accepts "--pack FILE" to draw the puzzle
+   * from a puzzle pack, "--dict FILE" to offer computer players guessing
+   * from a word list, "--seed N" to make the game repeatable,
+   * "--journal FILE" to record every move, "--resume FILE" to continue
+   * a game saved as a GameSnapshot, "--ui-stats true" to print the
+   * layout and repaint passes of every action, "--fast-start true" to
+   * ask every setup question in one form while the window is built,
+   * "--metrics N" to measure every action, printing the measurements
+   * every N seconds, or never if N is 0, "--stats FILE" to keep
+   * lifetime player statistics in a PlayerStatsStore. Check
+   * isTournament first, since a Tournament takes options of its own.
+   * @param args command line options
+   * @return parsed options
+   * @throws IOException if the puzzle pack, word list, snapshot or
+   *   player statistics cannot be read
+   */
+  public static LaunchOptions parse(String[] args) throws IOException {
+    LaunchOptions options = new LaunchOptions();
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--pack")) {
+        options.pack = new PuzzlePack(Paths.get(args[i + 1]));
+      } else if (args[i].equals("--dict")) {
+        options.dictionary = WordIndex.load(Paths.get(args[i + 1]));
+      } else if (args[i].equals("--seed")) {
+        options.generator = new Random(Long.parseLong(args[i + 1]));
+      } else if (args[i].equals("--journal")) {
+        options.journal = Paths.get(args[i + 1]);
+      } else if (args[i].equals("--resume")) {
+        options.resumed = GameSnapshot.load(Paths.get(args[i + 1]));
+      } else if (args[i].equals("--ui-stats")) {
+        options.uiStats = Boolean.parseBoolean(args[i + 1]);
+      } else if (args[i].equals("--fast-start")) {
+        options.fastStart = Boolean.parseBoolean(args[i + 1]);
+      } else if (args[i].equals("--metrics")) {
+        options.metricsPeriod = Math.max(0, Integer.parseInt(args[i + 1]));
+      } else if (args[i].equals("--stats")) {
+        options.stats = PlayerStatsStore.open(Paths.get(args[i + 1]));
+      }
+    } // for
+    return options;
+  } // parse()
+
+  /**
+   * Retrieve the puzzles to draw from.
+   * @return puzzle pack, or null to ask for a puzzle
+   */
+  public PuzzlePack getPack() {
+    return pack;
+  } // getPack()
+
+  /**
+   * Retrieve the words for computer players.
+   * @return dictionary, or null for no computer players
+   */
+  public WordIndex getDictionary() {
+    return dictionary;
+  } // getDictionary()
+
+  /**
+   * Retrieve the random number generator of the game.
+   * @return random number generator
+   */
+  public Random getGenerator() {
+    return generator;
+  } // getGenerator()
+
+  /**
+   * Retrieve the file to journal the game to.
+   * @return journal file, or null for none
+   */
+  public Path getJournal() {
+    return journal;
+  } // getJournal()
+
+  /**
+   * Retrieve the game resumed from a snapshot.
+   * @return state of the saved game, or null for a new game
+   */
+  public GameState getResumed() {
+    return resumed;
+  } // getResumed()
+
+  /**
+   * Determine if the layout and repaint passes of every action are printed.
+   * @return whether or not to print the passes
+   */
+  public boolean isUiStats() {
+    return uiStats;
+  } // isUiStats()
+
+  /**
+   * Determine if the game starts through a single setup form.
+   * @return whether or not to use the fast start
+   */
+  public boolean isFastStart() {
+    return fastStart;
+  } // isFastStart()
+
+  /**
+   * Retrieve the period of the metrics dump, see GameMetrics.
+   * @return seconds between dumps, 0 for none, or -1 if metrics are off
+   */
+  public int getMetricsPeriod() {
+    return metricsPeriod;
+  } // getMetricsPeriod()
+
+  /**
+   * Retrieve the store of lifetime player statistics.
+   * @return open store, or null if statistics are not kept
+   */
+  public PlayerStatsStore getStats() {
+    return stats;
+  } // getStats()
+
+  /**
+   * Determine if "--tournament true" asks for a headless Tournament
+   * instead of a game. Nothing is opened, so check this before parse.
+   * @param args command line options
+   * @return whether or not to run a tournament
+   */
+  public static boolean isTournament(String[] args) {
+    boolean tournament = false;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--tournament")) {
+        tournament = Boolean.parseBoolean(args[i + 1]);
+      }
+    } // for
+    return tournament;
+  } // isTournament()
+
+} // LaunchOptions
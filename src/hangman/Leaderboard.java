@@ -0,0 +1,161 @@
+package hangman;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Live ranking of players by cumulative balance.
+ *
+ * Standings are immutable and kept in a ConcurrentSkipListSet ordered by
+ * total, highest first. Adding money replaces a player's standing: the new
+ * one is inserted before the old one is removed, so a reader walking the
+ * set never misses a player and at worst meets one twice, which top()
+ * skips. Writers of the same player are serialized by a per-player lock,
+ * which is uncontended when each player plays one game at a time; readers
+ * never lock and never wait for writers.
+ **/
+public class Leaderboard {
+  /* Highest total first, then lowest player index */
+  private static final Comparator<Standing> ORDER =
+      Comparator.comparingLong((Standing s) -> -s.total)
+          .thenComparingInt(s -> s.player);
+
+  /* Names of the players */
+  private final String[] names;
+
+  /* Current standing of each player */
+  private final AtomicReferenceArray<Standing> current;
+
+  /* Lock of each player's standing, held by writers only */
+  private final Object[] locks;
+
+  /* Every current standing, ranked */
+  private final ConcurrentSkipListSet<Standing> ranking =
+      new ConcurrentSkipListSet<>(ORDER);
+
+  // Total of one player at some point in time.
+  public static final class Standing {
+    /* Index of the player */
+    private final int player;
+
+    /* Name of the player */
+    private final String name;
+
+    /* Cumulative balance */
+    private final long total;
+
+    /* Create a standing */
+    private Standing(int player, String name, long total) {
+      this.player = player;
+      this.name = name;
+      this.total = total;
+    } // Standing()
+
+    /**
+     * Retrieve the index of the player.
+     * @return player index
+     */
+    public int getPlayer() {
+      return player;
+    } // getPlayer()
+
+    /**
+     * Retrieve the name of the player.
+     * @return player name
+     */
+    public String getName() {
+      return name;
+    } // getName()
+
+    /**
+     * Retrieve the cumulative balance of the player.
+     * @return total money
+     */
+    public long getTotal() {
+      return total;
+    } // getTotal()
+
+    @Override
+    public String toString() {
+      return name + " $" + total;
+    } // toString()
+
+  } // Standing
+
+  /**
+   * Create a leaderboard with every player at 0.
+   * @param names names of the players, by index
+   */
+  public Leaderboard(String[] names) {
+    this.names = names.clone();
+    current = new AtomicReferenceArray<>(names.length);
+    locks = new Object[names.length];
+    for (int p = 0; p < names.length; ++p) {
+      Standing standing = new Standing(p, names[p], 0);
+      current.set(p, standing);
+      ranking.add(standing);
+      locks[p] = new Object();
+    } // for
+  } // Leaderboard()
+
+  /**
+   * Retrieve the number of players.
+   * @return number of players
+   */
+  public int size() {
+    return names.length;
+  } // size()
+
+  /**
+   * Add money to a player's total.
+   * @param player index of the player
+   * @param money money to add
+   */
+  public void add(int player, long money) {
+    if (money == 0) {
+      return;
+    }
+    synchronized (locks[player]) {
+      Standing old = current.get(player);
+      Standing next = new Standing(player, names[player], old.total + money);
+      ranking.add(next);
+      current.set(player, next);
+      ranking.remove(old);
+    }
+  } // add()
+
+  /**
+   * Retrieve the current total of a player.
+   * @param player index of the player
+   * @return cumulative balance
+   */
+  public long total(int player) {
+    return current.get(player).total;
+  } // total()
+
+  /**
+   * Retrieve the highest standings without waiting for writers. Each
+   * standing was current at some point during the call.
+   * @param n number of standings wanted
+   * @return up to n standings, highest first
+   */
+  public List<Standing> top(int n) {
+    List<Standing> top = new ArrayList<>(n);
+    HashSet<Integer> seen = new HashSet<>();
+    for (Standing standing : ranking) {
+      if (top.size() == n) {
+        break;
+      }
+      // A player being updated may appear twice; keep the first
+      if (seen.add(standing.player)) {
+        top.add(standing);
+      }
+    } // for
+    return top;
+  } // top()
+
+} // Leaderboard
@@ -0,0 +1,63 @@
+package hangman;
+
+/**
+ * Sets of letters packed into the low 26 bits of an int.
+ *
+ * Bit n stands for letter 'A' + n, so membership, counting and
+ * "every consonant guessed" checks are single operations that allocate
+ * nothing.
+ **/
+public final class Letters {
+  /** Set of every letter. */
+  public static final int ALL = (1 << Puzzle.NUM_LETTERS) - 1;
+
+  /** Set of every vowel. */
+  public static final int VOWELS = bit('A') | bit('E') | bit('I')
+      | bit('O') | bit('U');
+
+  /** Set of every consonant. */
+  public static final int CONS = ALL & ~VOWELS;
+
+  /* Utility class */
+  private Letters() {
+  } // Letters()
+
+  /**
+   * Retrieve the set containing only a given letter.
+   * @param letter letter in either case
+   * @return single-letter set, or 0 if not a letter
+   */
+  public static int bit(char letter) {
+    int l = Puzzle.letterIndex(letter);
+    return l < 0 ? 0 : 1 << l;
+  } // bit()
+
+  /**
+   * Determine if a set contains a letter.
+   * @param set set of letters
+   * @param letter letter in either case
+   * @return whether or not the letter is in the set
+   */
+  public static boolean contains(int set, char letter) {
+    return (set & bit(letter)) != 0;
+  } // contains()
+
+  /**
+   * Count the vowels in a set.
+   * @param set set of letters
+   * @return number of vowels
+   */
+  public static int vowels(int set) {
+    return Integer.bitCount(set & VOWELS);
+  } // vowels()
+
+  /**
+   * Count the consonants in a set.
+   * @param set set of letters
+   * @return number of consonants
+   */
+  public static int cons(int set) {
+    return Integer.bitCount(set & CONS);
+  } // cons()
+
+} // Letters
@@ -0,0 +1,168 @@
+package hangman;
+
+import java.util.Arrays;
+import javax.swing.SwingUtilities;
+
+/**
+ * Collects model changes and delivers them to the views in one batch.
+ *
+ * The bus listens to the engine and turns its events into change flags.
+ * The first change of an action schedules a flush on the event dispatch
+ * thread, and every later change of the same action only adds its flag,
+ * so the views are told once per action what changed and refresh each
+ * component at most once. The resulting layout and repaint then also
+ * happen once. Which buttons are enabled is not coalesced: the frame sets
+ * them as soon as an action ends, so no stale button can be pressed.
+ *
+ * With a PaintPassCounter attached, the bus prints after every action how
+ * many changes were coalesced and how many layout and repaint passes the
+ * action cost.
+ **/
+public class ModelEventBus implements GameListener {
+  /** The revealed puzzle changed. */
+  public static final int PUZZLE = 1;
+
+  /** A balance or the current player changed. */
+  public static final int PLAYERS = 2;
+
+  /**
+   * View refreshed from the model once per batch of changes.
+   **/
+  public interface Listener {
+    /**
+     * The model changed.
+     * @param changes flags of everything that changed since the last batch
+     */
+    void modelChanged(int changes);
+
+  } // Listener
+
+  /* Views told of changes */
+  private Listener[] listeners = new Listener[0];
+
+  /* Flags posted since the last flush */
+  private int pending = 0;
+
+  /* Whether a flush is scheduled */
+  private boolean scheduled = false;
+
+  /* Changes posted since the last report */
+  private int numPosted = 0;
+
+  /* Counter of layout and repaint passes, null if not reporting */
+  private PaintPassCounter counter;
+
+  /* Actions reported so far */
+  private long numActions = 0;
+
+  /* Layout passes as of the last report */
+  private long reportedLayouts = 0;
+
+  /* Repaint passes as of the last report */
+  private long reportedRepaints = 0;
+
+  /**
+   * Create a bus fed by the events of an engine.
+   * @param engine engine of the game
+   */
+  public ModelEventBus(GameEngine engine) {
+    engine.addListener(this);
+  } // ModelEventBus()
+
+  /**
+   * Add a view to tell of changes.
+   * @param listener view to add
+   */
+  public void addListener(Listener listener) {
+    listeners = Arrays.copyOf(listeners, listeners.length + 1);
+    listeners[listeners.length - 1] = listener;
+  } // addListener()
+
+  /**
+   * Report the passes of every action on standard output.
+   * @param counter counter installed as the RepaintManager
+   */
+  public void reportPasses(PaintPassCounter counter) {
+    this.counter = counter;
+    reportedLayouts = counter.getLayouts();
+    reportedRepaints = counter.getRepaints();
+  } // reportPasses()
+
+  /**
+   * Post changes to be delivered with the rest of the current action.
+   * @param changes change flags
+   */
+  public synchronized void post(int changes) {
+    pending |= changes;
+    ++numPosted;
+    if (!scheduled) {
+      scheduled = true;
+      SwingUtilities.invokeLater(this::flush);
+    }
+  } // post()
+
+  /**
+   * Deliver the changes posted so far, if any. Call on the event dispatch
+   * thread.
+   */
+  public void flush() {
+    int changes;
+    synchronized (this) {
+      changes = pending;
+      pending = 0;
+      scheduled = false;
+    }
+    if (changes == 0) {
+      return;
+    }
+    for (Listener listener : listeners) {
+      listener.modelChanged(changes);
+    } // for
+    if (counter != null) {
+      // Queued behind the layout and repaint this batch caused
+      SwingUtilities.invokeLater(this::report);
+    }
+  } // flush()
+
+  /* Print the passes since the last report */
+  private void report() {
+    long layouts = counter.getLayouts();
+    long repaints = counter.getRepaints();
+    int posted;
+    synchronized (this) {
+      posted = numPosted;
+      numPosted = 0;
+    }
+    System.out.println("ui: action " + ++numActions + ": " + posted
+        + " changes in 1 batch, " + (layouts - reportedLayouts)
+        + " layout passes, " + (repaints - reportedRepaints) + " repaint passes");
+    reportedLayouts = layouts;
+    reportedRepaints = repaints;
+  } // report()
+
+  @Override
+  public void letterGuessed(char letter, int found) {
+    post(found > 0 ? PUZZLE | PLAYERS : PLAYERS);
+  } // letterGuessed()
+
+  @Override
+  public void vowelBought() {
+    post(PLAYERS);
+  } // vowelBought()
+
+  @Override
+  public void playerBankrupt(int player) {
+    post(PLAYERS);
+  } // playerBankrupt()
+
+  @Override
+  public void solveAttempted(String guess, boolean correct) {
+    post(correct ? PUZZLE | PLAYERS : PLAYERS);
+  } // solveAttempted()
+
+  @Override
+  public void turnChanged(int previous, int current) {
+    post(PLAYERS);
+  } // turnChanged()
+
+} // ModelEventBus
@@ -0,0 +1,113 @@
+package hangman;
+
+import java.awt.Window;
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+
+/**
+ * RepaintManager that counts the layout and repaint passes Swing runs.
+ *
+ * Swing collects invalidated and dirty components and then, in one
+ * processing step on the event dispatch thread, lays out every invalid
+ * component and paints every dirty region. A step with something to lay
+ * out counts as one layout pass and a step with something to paint as one
+ * repaint pass, however many components took part.
+ **/
+public class PaintPassCounter extends RepaintManager {
+  /* Whether a component was invalidated since the last layout pass */
+  private boolean invalid = false;
+
+  /* Whether a region was dirtied since the last repaint pass */
+  private boolean dirty = false;
+
+  /* Components invalidated */
+  private long numInvalidated = 0;
+
+  /* Layout passes run */
+  private long numLayouts = 0;
+
+  /* Repaint passes run */
+  private long numRepaints = 0;
+
+  /**
+   * Install a counter as the RepaintManager of the event dispatch thread.
+   * @return counter installed
+   */
+  public static PaintPassCounter install() {
+    PaintPassCounter counter = new PaintPassCounter();
+    RepaintManager.setCurrentManager(counter);
+    return counter;
+  } // install()
+
+  /**
+   * Retrieve the number of components invalidated.
+   * @return number of invalidations
+   */
+  public synchronized long getInvalidated() {
+    return numInvalidated;
+  } // getInvalidated()
+
+  /**
+   * Retrieve the number of layout passes run.
+   * @return number of layout passes
+   */
+  public synchronized long getLayouts() {
+    return numLayouts;
+  } // getLayouts()
+
+  /**
+   * Retrieve the number of repaint passes run.
+   * @return number of repaint passes
+   */
+  public synchronized long getRepaints() {
+    return numRepaints;
+  } // getRepaints()
+
+  @Override
+  public void addInvalidComponent(JComponent invalidComponent) {
+    synchronized (this) {
+      invalid = true;
+      ++numInvalidated;
+    }
+    super.addInvalidComponent(invalidComponent);
+  } // addInvalidComponent()
+
+  @Override
+  public void validateInvalidComponents() {
+    synchronized (this) {
+      if (invalid) {
+        invalid = false;
+        ++numLayouts;
+      }
+    }
+    super.validateInvalidComponents();
+  } // validateInvalidComponents()
+
+  @Override
+  public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+    synchronized (this) {
+      dirty = true;
+    }
+    super.addDirtyRegion(c, x, y, w, h);
+  } // addDirtyRegion()
+
+  @Override
+  public void addDirtyRegion(Window window, int x, int y, int w, int h) {
+    synchronized (this) {
+      dirty = true;
+    }
+    super.addDirtyRegion(window, x, y, w, h);
+  } // addDirtyRegion()
+
+  @Override
+  public void paintDirtyRegions() {
+    synchronized (this) {
+      if (dirty) {
+        dirty = false;
+        ++numRepaints;
+      }
+    }
+    super.paintDirtyRegions();
+  } // paintDirtyRegions()
+
+} // PaintPassCounter
@@ -0,0 +1,300 @@
+package hangman;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Off-heap store of idle games packed into fixed-size records.
+ *
+ * Each parked game takes one 64-byte record in a direct buffer:
+ *
+ * <pre>
+ *    0  int    puzzle id
+ *    4  int    guessed letters, see Letters
+ *    8  int    wheel value
+ *   12  short  current player, or winner once solved
+ *   14  byte   number of players
+ *   15  byte   flags
+ *   16  MAX_PLAYERS x (int name id, long balance)
+ * </pre>
+ *
+ * Puzzles and player names are stored once in shared tables and referred
+ * to by id; each leaves its table when no parked game refers to it.
+ * The revealed letters are not stored: they are the guessed letters that
+ * appear in the puzzle. Records live in segments allocated
+ * as the store grows, so half a million parked games cost about 32 MB
+ * outside the heap and no objects inside it beyond the shared tables.
+ * Games are inflated into a GameState only while they are being played.
+ *
+ * A ParkedGameStore is not thread-safe.
+ **/
+public class ParkedGameStore {
+  /** Most players a parked game can have. */
+  public static final int MAX_PLAYERS = 4;
+
+  /** Size of a parked game record, in bytes. */
+  public static final int RECORD_SIZE = 16 + MAX_PLAYERS * 12;
+
+  /* Records in a segment */
+  private static final int SEGMENT_RECORDS = 1 << 16;
+
+  /* Flag of a record holding a game */
+  private static final byte IN_USE = 1;
+
+  /* Flag of a record holding a solved game */
+  private static final byte SOLVED = 2;
+
+  /* Segments of records */
+  private final ArrayList<ByteBuffer> segments = new ArrayList<>();
+
+  /* Puzzles, shared by identity */
+  private final SharedTable<Puzzle> puzzles =
+      new SharedTable<>(new IdentityHashMap<>());
+
+  /* Player names, shared by value */
+  private final SharedTable<String> names = new SharedTable<>(new HashMap<>());
+
+  /* Name ids of the game being parked */
+  private final int[] nameIds = new int[MAX_PLAYERS];
+
+  /* Handles of released records, used before new ones */
+  private int[] free = new int[16];
+
+  /* Number of released records */
+  private int numFree = 0;
+
+  /* Number of records ever handed out */
+  private int numRecords = 0;
+
+  // Values referred to by id from the records, with a count of the
+  // references to each so that unused values can be forgotten.
+  private static class SharedTable<T> {
+    /* Values by id, null for free ids */
+    private final ArrayList<T> values = new ArrayList<>();
+
+    /* Ids of the values */
+    private final Map<T, Integer> ids;
+
+    /* Number of references to each id */
+    private int[] refs = new int[16];
+
+    /* Ids no longer in use */
+    private int[] freeIds = new int[16];
+
+    /* Number of ids no longer in use */
+    private int numFreeIds = 0;
+
+    SharedTable(Map<T, Integer> ids) {
+      this.ids = ids;
+    } // SharedTable()
+
+    /* Retrieve the value of an id */
+    T get(int id) {
+      return values.get(id);
+    } // get()
+
+    /* Retrieve the number of values held */
+    int size() {
+      return ids.size();
+    } // size()
+
+    /* Retrieve the id of a value and count a reference to it */
+    int acquire(T value) {
+      Integer id = ids.get(value);
+      if (id == null) {
+        if (numFreeIds > 0) {
+          id = freeIds[--numFreeIds];
+          values.set(id, value);
+        } else {
+          id = values.size();
+          values.add(value);
+          if (id == refs.length) {
+            refs = Arrays.copyOf(refs, id * 2);
+          }
+        }
+        ids.put(value, id);
+      }
+      ++refs[id];
+      return id;
+    } // acquire()
+
+    /* Drop a reference to an id, forgetting its value after the last one */
+    void release(int id) {
+      if (--refs[id] == 0) {
+        ids.remove(values.get(id));
+        values.set(id, null);
+        if (numFreeIds == freeIds.length) {
+          freeIds = Arrays.copyOf(freeIds, numFreeIds * 2);
+        }
+        freeIds[numFreeIds++] = id;
+      }
+    } // release()
+
+  } // SharedTable
+
+  /**
+   * Retrieve the number of games parked.
+   * @return number of games
+   */
+  public int size() {
+    return numRecords - numFree;
+  } // size()
+
+  /**
+   * Retrieve the number of distinct player names held.
+   * @return number of names
+   */
+  public int numNames() {
+    return names.size();
+  } // numNames()
+
+  /**
+   * Retrieve the bytes held outside the heap.
+   * @return off-heap bytes
+   */
+  public long offHeapBytes() {
+    return (long) segments.size() * SEGMENT_RECORDS * RECORD_SIZE;
+  } // offHeapBytes()
+
+  /**
+   * Determine if a game can be parked.
+   * @param state state of the game
+   * @return whether or not the game fits in a record
+   */
+  public static boolean fits(GameState state) {
+    return state.getNumPlayers() <= MAX_PLAYERS;
+  } // fits()
+
+  /**
+   * Park a game in a new record.
+   * @param state state of the game, which may be dropped afterwards
+   * @return handle of the record
+   */
+  public int park(GameState state) {
+    int handle;
+    if (numFree > 0) {
+      handle = free[--numFree];
+    } else {
+      handle = numRecords++;
+      if (handle / SEGMENT_RECORDS == segments.size()) {
+        segments.add(ByteBuffer.allocateDirect(SEGMENT_RECORDS * RECORD_SIZE));
+      }
+    }
+    park(handle, state);
+    return handle;
+  } // park()
+
+  /**
+   * Park a game in an existing record, replacing what it held.
+   * @param handle handle of the record
+   * @param state state of the game, which may be dropped afterwards
+   */
+  public void park(int handle, GameState state) {
+    int numPlayers = state.getNumPlayers();
+    if (numPlayers > MAX_PLAYERS) {
+      throw new IllegalArgumentException("Too many players to park: " + numPlayers);
+    }
+    ByteBuffer segment = segment(handle);
+    int offset = offset(handle);
+    boolean solved = state.getWinner() != GameState.NO_WINNER;
+
+    // Take the new references before dropping the old ones they may share
+    int puzzleId = puzzles.acquire(state.getPuzzle());
+    for (int p = 0; p < numPlayers; ++p) {
+      nameIds[p] = names.acquire(state.getName(p));
+    } // for
+    if ((segment.get(offset + 15) & IN_USE) != 0) {
+      releaseRecord(segment, offset);
+    }
+
+    segment.putInt(offset, puzzleId);
+    segment.putInt(offset + 4, state.getGuessed());
+    segment.putInt(offset + 8, state.getToAdd());
+    segment.putShort(offset + 12,
+        (short) (solved ? state.getWinner() : state.getCurrent()));
+    segment.put(offset + 14, (byte) numPlayers);
+    segment.put(offset + 15, (byte) (IN_USE | (solved ? SOLVED : 0)));
+    for (int p = 0; p < numPlayers; ++p) {
+      int player = offset + 16 + p * 12;
+      segment.putInt(player, nameIds[p]);
+      segment.putLong(player + 4, state.getBalance(p));
+    } // for
+  } // park()
+
+  /**
+   * Inflate a parked game into a new GameState. The record stays parked.
+   * @param handle handle of the record
+   * @return state of the game
+   */
+  public GameState inflate(int handle) {
+    ByteBuffer segment = segment(handle);
+    int offset = offset(handle);
+    byte flags = segment.get(offset + 15);
+    if ((flags & IN_USE) == 0) {
+      throw new IllegalArgumentException("No game parked at " + handle);
+    }
+    GameState state = new GameState();
+    int numPlayers = segment.get(offset + 14);
+    for (int p = 0; p < numPlayers; ++p) {
+      int player = offset + 16 + p * 12;
+      state.addPlayer(names.get(segment.getInt(player)));
+      state.setBalance(p, segment.getLong(player + 4));
+    } // for
+    state.setPuzzle(puzzles.get(segment.getInt(offset)));
+    state.setGuessed(segment.getInt(offset + 4));
+    state.setToAdd(segment.getInt(offset + 8));
+    int current = segment.getShort(offset + 12) & 0xFFFF;
+    if (numPlayers > 0) {
+      state.setCurrent(current);
+    }
+    if ((flags & SOLVED) != 0) {
+      state.setWinner(current);
+    }
+    return state;
+  } // inflate()
+
+  /**
+   * Release a record so it can hold another game.
+   * @param handle handle of the record
+   */
+  public void release(int handle) {
+    ByteBuffer segment = segment(handle);
+    int offset = offset(handle);
+    if ((segment.get(offset + 15) & IN_USE) == 0) {
+      throw new IllegalArgumentException("No game parked at " + handle);
+    }
+    releaseRecord(segment, offset);
+    segment.put(offset + 15, (byte) 0);
+    if (numFree == free.length) {
+      free = Arrays.copyOf(free, numFree * 2);
+    }
+    free[numFree++] = handle;
+  } // release()
+
+  /* Retrieve the segment holding a record */
+  private ByteBuffer segment(int handle) {
+    if (handle < 0 || handle >= numRecords) {
+      throw new IndexOutOfBoundsException("Bad handle " + handle);
+    }
+    return segments.get(handle / SEGMENT_RECORDS);
+  } // segment()
+
+  /* Retrieve the offset of a record in its segment */
+  private static int offset(int handle) {
+    return (handle % SEGMENT_RECORDS) * RECORD_SIZE;
+  } // offset()
+
+  /* Drop the references a record holds to a puzzle and names */
+  private void releaseRecord(ByteBuffer segment, int offset) {
+    puzzles.release(segment.getInt(offset));
+    int numPlayers = segment.get(offset + 14);
+    for (int p = 0; p < numPlayers; ++p) {
+      names.release(segment.getInt(offset + 16 + p * 12));
+    } // for
+  } // releaseRecord()
+
+} // ParkedGameStore
@@ -0,0 +1,125 @@
+package hangman;
+
+import java.util.Arrays;
+
+/**
+ * Players of a game stored in primitive, index-aligned arrays.
+ *
+ * Balances are kept in a long[] so that money changes never box, and the
+ * turn pointer advances without a division. Arrays grow by doubling when
+ * players are added, so only setup allocates; a roster of 100k+ players
+ * costs a few bytes per player beyond the names themselves.
+ **/
+public class PlayerRoster {
+  /* Initial capacity of the roster */
+  private static final int INITIAL_CAPACITY = 4;
+
+  /* Interned player names */
+  private String[] names = new String[INITIAL_CAPACITY];
+
+  /* Player balances */
+  private long[] balances = new long[INITIAL_CAPACITY];
+
+  /* Number of players in the roster */
+  private int size = 0;
+
+  /* Index of the current player */
+  private int current = 0;
+
+  /**
+   * Create a new player with a given name and no money.
+   * @param name name of new player
+   * @return position of new player
+   */
+  public int add(String name) {
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size * 2);
+      balances = Arrays.copyOf(balances, size * 2);
+    }
+    names[size] = name.intern();
+    balances[size] = 0;
+    return size++;
+  } // add()
+
+  /**
+   * Retrieve the number of players in the roster.
+   * @return number of players
+   */
+  public int size() {
+    return size;
+  } // size()
+
+  /**
+   * Retrieve the name of a given player.
+   * @param pos position of given player
+   * @return name of given player
+   */
+  public String getName(int pos) {
+    checkIndex(pos);
+    return names[pos];
+  } // getName()
+
+  /**
+   * Retrieve the balance of a given player.
+   * @param pos position of given player
+   * @return balance of given player
+   */
+  public long getBalance(int pos) {
+    checkIndex(pos);
+    return balances[pos];
+  } // getBalance()
+
+  /**
+   * Set the balance of a given player.
+   * @param pos position of given player
+   * @param balance new balance of given player
+   */
+  public void setBalance(int pos, long balance) {
+    checkIndex(pos);
+    balances[pos] = balance;
+  } // setBalance()
+
+  /**
+   * Add money to the balance of a given player.
+   * @param pos position of given player
+   * @param money amount to add, negative to charge
+   */
+  public void addBalance(int pos, long money) {
+    checkIndex(pos);
+    balances[pos] += money;
+  } // addBalance()
+
+  /**
+   * Retrieve the index of the current player.
+   * @return index of the current player
+   */
+  public int getCurrent() {
+    return current;
+  } // getCurrent()
+
+  /**
+   * Set the index of the current player.
+   * @param pos position of the new current player
+   */
+  public void setCurrent(int pos) {
+    checkIndex(pos);
+    current = pos;
+  } // setCurrent()
+
+  /**
+   * Move current player to the next player.
+   */
+  public void advance() {
+    if (++current == size) {
+      current = 0;
+    }
+  } // advance()
+
+  /* Reject positions outside of the roster */
+  private void checkIndex(int pos) {
+    if (pos < 0 || pos >= size) {
+      throw new IndexOutOfBoundsException("No player at " + pos);
+    }
+  } // checkIndex()
+
+} // PlayerRoster
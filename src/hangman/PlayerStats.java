@@ -0,0 +1,136 @@
+package hangman;
+
+/**
+ * Lifetime statistics of one player, as kept by PlayerStatsStore.
+ *
+ * Instances are immutable; adding a game's results makes a new one.
+ **/
+public final class PlayerStats {
+  /* Name of the player */
+  private final String name;
+
+  /* Games finished */
+  private final long games;
+
+  /* Games won */
+  private final long wins;
+
+  /* Money kept from games won */
+  private final long winnings;
+
+  /* Letters guessed */
+  private final long guesses;
+
+  /* Guesses that revealed a letter */
+  private final long hits;
+
+  /**
+   * Create statistics of a player.
+   * @param name name of the player
+   * @param games games finished
+   * @param wins games won
+   * @param winnings money kept from games won
+   * @param guesses letters guessed
+   * @param hits guesses that revealed a letter
+   */
+  public PlayerStats(String name, long games, long wins, long winnings,
+      long guesses, long hits) {
+    this.name = name;
+    this.games = games;
+    this.wins = wins;
+    this.winnings = winnings;
+    this.guesses = guesses;
+    this.hits = hits;
+  } // PlayerStats()
+
+  /**
+   * Create statistics of a player who has not finished a game.
+   * @param name name of the player
+   * @return empty statistics
+   */
+  public static PlayerStats none(String name) {
+    return new PlayerStats(name, 0, 0, 0, 0, 0);
+  } // none()
+
+  /**
+   * Add the results of games.
+   * @param moreGames games finished
+   * @param moreWins games won
+   * @param moreWinnings money kept from games won
+   * @param moreGuesses letters guessed
+   * @param moreHits guesses that revealed a letter
+   * @return statistics including the games
+   */
+  public PlayerStats plus(long moreGames, long moreWins, long moreWinnings,
+      long moreGuesses, long moreHits) {
+    return new PlayerStats(name, games + moreGames, wins + moreWins,
+        winnings + moreWinnings, guesses + moreGuesses, hits + moreHits);
+  } // plus()
+
+  /**
+   * Retrieve the name of the player.
+   * @return player name
+   */
+  public String getName() {
+    return name;
+  } // getName()
+
+  /**
+   * Retrieve the number of games finished.
+   * @return games finished
+   */
+  public long getGames() {
+    return games;
+  } // getGames()
+
+  /**
+   * Retrieve the number of games won.
+   * @return games won
+   */
+  public long getWins() {
+    return wins;
+  } // getWins()
+
+  /**
+   * Retrieve the money kept from games won.
+   * @return lifetime winnings
+   */
+  public long getWinnings() {
+    return winnings;
+  } // getWinnings()
+
+  /**
+   * Retrieve the number of letters guessed.
+   * @return letters guessed
+   */
+  public long getGuesses() {
+    return guesses;
+  } // getGuesses()
+
+  /**
+   * Retrieve the number of guesses that revealed a letter.
+   * @return correct guesses
+   */
+  public long getHits() {
+    return hits;
+  } // getHits()
+
+  /**
+   * Compute the fraction of guesses that revealed a letter.
+   * @return guess accuracy from 0 to 1, 0 if nothing was guessed
+   */
+  public double getAccuracy() {
+    return guesses == 0 ? 0 : (double) hits / guesses;
+  } // getAccuracy()
+
+  /**
+   * Describe the statistics for people.
+   * @return one line summary
+   */
+  @Override
+  public String toString() {
+    return String.format("%s: %d games, %d wins, $%d won, %.0f%% of guesses correct",
+        name, games, wins, winnings, 100 * getAccuracy());
+  } // toString()
+
+} // PlayerStats
@@ -0,0 +1,78 @@
+package hangman;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts each player's guesses during a game and adds the game to their
+ * lifetime statistics in a PlayerStatsStore when it ends.
+ *
+ * Nothing is written while the game is played; the whole game is one
+ * batch of updates, one record per player.
+ **/
+public class PlayerStatsRecorder implements GameListener {
+  /* Store of lifetime statistics */
+  private final PlayerStatsStore store;
+
+  /* State of the game being recorded */
+  private final GameState state;
+
+  /* Letters guessed by each player */
+  private long[] guesses = new long[0];
+
+  /* Guesses by each player that revealed a letter */
+  private long[] hits = new long[0];
+
+  /**
+   * Record a game played through an engine.
+   * @param store store of lifetime statistics
+   * @param engine engine of the game
+   */
+  public PlayerStatsRecorder(PlayerStatsStore store, GameEngine engine) {
+    this.store = store;
+    this.state = engine.getState();
+    engine.addListener(this);
+  } // PlayerStatsRecorder()
+
+  @Override
+  public void letterGuessed(char letter, int found) {
+    int player = state.getCurrent();
+    if (player >= guesses.length) {
+      int numPlayers = Math.max(player + 1, state.getNumPlayers());
+      guesses = Arrays.copyOf(guesses, numPlayers);
+      hits = Arrays.copyOf(hits, numPlayers);
+    }
+    ++guesses[player];
+    if (found > 0) {
+      ++hits[player];
+    }
+  } // letterGuessed()
+
+  /**
+   * Add the finished game to every player's statistics. The winner keeps
+   * their balance as winnings.
+   * @return updated statistics of every player, in turn order
+   * @throws IOException if the store cannot be read or written
+   */
+  public Map<String, PlayerStats> recordGame() throws IOException {
+    // Players sharing a name share their statistics
+    Map<String, PlayerStats> batch = new LinkedHashMap<>();
+    int winner = state.getWinner();
+    for (int p = 0; p < state.getNumPlayers(); ++p) {
+      String name = state.getName(p);
+      PlayerStats stats = batch.get(name);
+      if (stats == null) {
+        stats = store.getOrNone(name);
+      }
+      boolean won = p == winner;
+      batch.put(name, stats.plus(1, won ? 1 : 0,
+          won ? state.getBalance(p) : 0,
+          p < guesses.length ? guesses[p] : 0, p < hits.length ? hits[p] : 0));
+    } // for
+    store.putAll(batch.values());
+    return batch;
+  } // recordGame()
+
+} // PlayerStatsRecorder
@@ -0,0 +1,552 @@
+package hangman;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Embedded store of lifetime player statistics: an append-only data file
+ * and a memory-mapped hash index over it.
+ *
+ * The data file holds one record per update, never overwritten:
+ *
+ * <pre>
+ *   int    MAGIC, int VERSION
+ *   per update:
+ *     int    record size in bytes
+ *     long   games, wins, winnings, guesses, hits
+ *     short  length, UTF-8 name
+ * </pre>
+ *
+ * The index file is an open-addressing table of 64-bit name hashes and
+ * the offset of each player's latest record:
+ *
+ * <pre>
+ *   int    MAGIC, int VERSION
+ *   int    capacity, a power of two
+ *   int    number of players
+ *   long   length of the data file covered by the index
+ *   long   unused
+ *   capacity x (long name hash, 0 if free; long record offset)
+ * </pre>
+ *
+ * Opening maps the index and reads only its header, so a store of
+ * millions of players opens in milliseconds; the OS pages the index in
+ * as it is probed. Looking a player up probes the index, usually one
+ * slot, and reads one record. Updates are committed in batches: the
+ * records are appended and forced first, then the index is updated and
+ * forced, so a crash between the two leaves records the index does not
+ * cover yet, which the next open indexes again.
+ *
+ * A PlayerStatsStore is not thread-safe.
+ **/
+public class PlayerStatsStore implements Closeable {
+  /** Marker at the start of every data file, "HGPD". */
+  public static final int DATA_MAGIC = 0x48475044;
+
+  /** Marker at the start of every index file, "HGPI". */
+  public static final int INDEX_MAGIC = 0x48475049;
+
+  /** Version of both file formats. */
+  public static final int VERSION = 1;
+
+  /** Largest number of index slots, a 1GB index. */
+  public static final int MAX_CAPACITY = 1 << 26;
+
+  /* Size of the data file header */
+  private static final int DATA_HEADER_SIZE = 2 * Integer.BYTES;
+
+  /* Size of the index file header */
+  private static final int INDEX_HEADER_SIZE = 32;
+
+  /* Size of an index slot */
+  private static final int SLOT_SIZE = 2 * Long.BYTES;
+
+  /* Size of a record without its name */
+  private static final int RECORD_HEADER_SIZE =
+      Integer.BYTES + 5 * Long.BYTES + Short.BYTES;
+
+  /* Bytes read at once when looking a record up, enough for most names */
+  private static final int READ_AHEAD = 128;
+
+  /* Slots in a new index */
+  private static final int INITIAL_CAPACITY = 1024;
+
+  /* Position of the capacity in the index header */
+  private static final int CAPACITY_POS = 8;
+
+  /* Position of the number of players in the index header */
+  private static final int SIZE_POS = 12;
+
+  /* Position of the covered data length in the index header */
+  private static final int COVERED_POS = 16;
+
+  /* Path of the data file */
+  private final Path dataFile;
+
+  /* Path of the index file */
+  private final Path indexFile;
+
+  /* Open data file */
+  private final FileChannel data;
+
+  /* Length of the data file */
+  private long dataLength;
+
+  /* Open index file */
+  private FileChannel indexChannel;
+
+  /* Mapped index file */
+  private MappedByteBuffer index;
+
+  /* Number of index slots */
+  private int capacity;
+
+  /* Number of players */
+  private int size;
+
+  /* Buffer records are read into */
+  private ByteBuffer readBuffer = ByteBuffer.allocate(READ_AHEAD);
+
+  /* Open a store whose files exist or have just been created */
+  private PlayerStatsStore(Path dataFile, Path indexFile) throws IOException {
+    this.dataFile = dataFile;
+    this.indexFile = indexFile;
+    data = FileChannel.open(dataFile, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      dataLength = data.size();
+      if (dataLength == 0) {
+        ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+        header.putInt(DATA_MAGIC).putInt(VERSION).flip();
+        writeFully(header, 0);
+        data.force(true);
+        dataLength = DATA_HEADER_SIZE;
+      } else {
+        checkDataHeader();
+      }
+      if (!Files.exists(indexFile)) {
+        createIndex(indexFile, INITIAL_CAPACITY, DATA_HEADER_SIZE).close();
+      }
+      mapIndex(FileChannel.open(indexFile, StandardOpenOption.READ,
+          StandardOpenOption.WRITE));
+      indexTail();
+    } catch (IOException | RuntimeException e) {
+      close();
+      throw e;
+    }
+  } // PlayerStatsStore()
+
+  /**
+   * Open a store, creating it if it does not exist. The data file is the
+   * given path and the index file the same path with ".idx" appended.
+   * @param file path of the data file
+   * @return open store
+   * @throws IOException if the files cannot be opened or are not a store
+   */
+  public static PlayerStatsStore open(Path file) throws IOException {
+    return new PlayerStatsStore(file,
+        file.resolveSibling(file.getFileName() + ".idx"));
+  } // open()
+
+  /**
+   * Retrieve the number of players in the store.
+   * @return number of players
+   */
+  public int size() {
+    return size;
+  } // size()
+
+  /**
+   * Look a player up by name.
+   * @param name name of the player
+   * @return latest statistics of the player, or null if unknown
+   * @throws IOException if the record cannot be read
+   */
+  public PlayerStats get(String name) throws IOException {
+    long hash = hash(name);
+    int mask = capacity - 1;
+    for (int slot = home(hash, mask); ; slot = (slot + 1) & mask) {
+      int pos = INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+      long slotHash = index.getLong(pos);
+      if (slotHash == 0) {
+        return null;
+      }
+      if (slotHash == hash) {
+        PlayerStats stats = read(index.getLong(pos + Long.BYTES));
+        if (stats.getName().equals(name)) {
+          return stats;
+        }
+      }
+    } // for
+  } // get()
+
+  /**
+   * Look a player up by name, with empty statistics for new players.
+   * @param name name of the player
+   * @return latest statistics of the player
+   * @throws IOException if the record cannot be read
+   */
+  public PlayerStats getOrNone(String name) throws IOException {
+    PlayerStats stats = get(name);
+    return stats == null ? PlayerStats.none(name) : stats;
+  } // getOrNone()
+
+  /**
+   * Store new statistics of several players in one batch. A player named
+   * twice keeps the last statistics given.
+   * @param batch statistics to store
+   * @throws IOException if the store cannot be written
+   */
+  public void putAll(Collection<PlayerStats> batch) throws IOException {
+    if (batch.isEmpty()) {
+      return;
+    }
+    int batchSize = 0;
+    for (PlayerStats stats : batch) {
+      batchSize += RECORD_HEADER_SIZE + utf8(stats.getName()).length;
+    } // for
+
+    // Append every record and make them durable before indexing them
+    ByteBuffer out = ByteBuffer.allocate(batchSize);
+    long[] offsets = new long[batch.size()];
+    int i = 0;
+    for (PlayerStats stats : batch) {
+      offsets[i++] = dataLength + out.position();
+      byte[] name = utf8(stats.getName());
+      out.putInt(RECORD_HEADER_SIZE + name.length)
+          .putLong(stats.getGames()).putLong(stats.getWins())
+          .putLong(stats.getWinnings()).putLong(stats.getGuesses())
+          .putLong(stats.getHits())
+          .putShort((short) name.length).put(name);
+    } // for
+    out.flip();
+    writeFully(out, dataLength);
+    data.force(false);
+    dataLength += batchSize;
+
+    i = 0;
+    for (PlayerStats stats : batch) {
+      indexRecord(hash(stats.getName()), stats.getName(), offsets[i++]);
+    } // for
+    index.putInt(SIZE_POS, size);
+    index.putLong(COVERED_POS, dataLength);
+    index.force();
+  } // putAll()
+
+  /**
+   * Close the store.
+   * @throws IOException if the files cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      data.close();
+    } finally {
+      if (indexChannel != null) {
+        indexChannel.close();
+      }
+    }
+  } // close()
+
+  /* Check the data file header */
+  private void checkDataHeader() throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_SIZE);
+    readFully(header, 0);
+    if (header.getInt(0) != DATA_MAGIC) {
+      throw new IOException("Not a player statistics file: " + dataFile);
+    }
+    if (header.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported player statistics version "
+          + header.getInt(Integer.BYTES));
+    }
+  } // checkDataHeader()
+
+  /* Create an empty index file, left open */
+  private static FileChannel createIndex(Path file, int capacity, long covered)
+      throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_SIZE);
+    header.putInt(INDEX_MAGIC).putInt(VERSION).putInt(capacity).putInt(0)
+        .putLong(covered).putLong(0).flip();
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    } // while
+    // Sparse until slots are written; free slots read as 0
+    ByteBuffer end = ByteBuffer.allocate(1);
+    channel.write(end, INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE - 1);
+    return channel;
+  } // createIndex()
+
+  /* Map an open index file and read its header */
+  private void mapIndex(FileChannel channel) throws IOException {
+    if (indexChannel != null) {
+      indexChannel.close();
+    }
+    indexChannel = channel;
+    index = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    if (index.getInt(0) != INDEX_MAGIC) {
+      throw new IOException("Not a player statistics index: " + indexFile);
+    }
+    if (index.getInt(Integer.BYTES) != VERSION) {
+      throw new IOException("Unsupported player statistics index version "
+          + index.getInt(Integer.BYTES));
+    }
+    capacity = index.getInt(CAPACITY_POS);
+    size = index.getInt(SIZE_POS);
+    if (Integer.bitCount(capacity) != 1
+        || channel.size() != INDEX_HEADER_SIZE + (long) capacity * SLOT_SIZE) {
+      throw new IOException("Corrupt player statistics index: " + indexFile);
+    }
+  } // mapIndex()
+
+  /* Index the records appended after the index was last forced, dropping
+     a record cut short by a crash */
+  private void indexTail() throws IOException {
+    long covered = index.getLong(COVERED_POS);
+    if (covered > dataLength) {
+      throw new IOException("Player statistics index is ahead of " + dataFile);
+    }
+    long offset = covered;
+    while (offset < dataLength) {
+      PlayerStats stats = readOrNull(offset);
+      if (stats == null) {
+        System.out.println("ERROR: Dropping partial player statistics record at "
+            + offset);
+        data.truncate(offset);
+        dataLength = offset;
+        break;
+      }
+      int recordSize = readBuffer.getInt(0);
+      indexRecord(hash(stats.getName()), stats.getName(), offset);
+      offset += recordSize;
+    } // while
+    if (offset != covered) {
+      // Slots may have been added before the crash without being counted
+      size = countPlayers();
+      index.putInt(SIZE_POS, size);
+      index.putLong(COVERED_POS, dataLength);
+      index.force();
+    }
+  } // indexTail()
+
+  /* Point the slot of a name at a record, adding the name if it is new */
+  private void indexRecord(long hash, String name, long offset)
+      throws IOException {
+    int mask = capacity - 1;
+    for (int slot = home(hash, mask); ; slot = (slot + 1) & mask) {
+      int pos = INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+      long slotHash = index.getLong(pos);
+      if (slotHash == 0) {
+        index.putLong(pos, hash);
+        index.putLong(pos + Long.BYTES, offset);
+        ++size;
+        if (size > capacity / 4 * 3) {
+          grow();
+        }
+        return;
+      }
+      if (slotHash == hash
+          && read(index.getLong(pos + Long.BYTES)).getName().equals(name)) {
+        index.putLong(pos + Long.BYTES, offset);
+        return;
+      }
+    } // for
+  } // indexRecord()
+
+  /* Count the used slots of the index */
+  private int countPlayers() {
+    int count = 0;
+    for (int slot = 0; slot < capacity; ++slot) {
+      if (index.getLong(INDEX_HEADER_SIZE + slot * SLOT_SIZE) != 0) {
+        ++count;
+      }
+    } // for
+    return count;
+  } // countPlayers()
+
+  /* Rehash the index into a table twice the size, which replaces the
+     index file once it is complete */
+  private void grow() throws IOException {
+    if (capacity == MAX_CAPACITY) {
+      throw new IOException("Player statistics index is full");
+    }
+    Path tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+    int newCapacity = capacity * 2;
+    FileChannel channel = createIndex(tmp, newCapacity, index.getLong(COVERED_POS));
+    MappedByteBuffer grown = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+        channel.size());
+    int mask = newCapacity - 1;
+    for (int slot = 0; slot < capacity; ++slot) {
+      int pos = INDEX_HEADER_SIZE + slot * SLOT_SIZE;
+      long hash = index.getLong(pos);
+      if (hash == 0) {
+        continue;
+      }
+      int to = home(hash, mask);
+      while (grown.getLong(INDEX_HEADER_SIZE + to * SLOT_SIZE) != 0) {
+        to = (to + 1) & mask;
+      } // while
+      grown.putLong(INDEX_HEADER_SIZE + to * SLOT_SIZE, hash);
+      grown.putLong(INDEX_HEADER_SIZE + to * SLOT_SIZE + Long.BYTES,
+          index.getLong(pos + Long.BYTES));
+    } // for
+    grown.putInt(SIZE_POS, size);
+    grown.force();
+    Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    mapIndex(channel);
+  } // grow()
+
+  /* Read the record at an offset */
+  private PlayerStats read(long offset) throws IOException {
+    PlayerStats stats = readOrNull(offset);
+    if (stats == null) {
+      throw new IOException("Corrupt player statistics record at " + offset);
+    }
+    return stats;
+  } // read()
+
+  /* Read the record at an offset, null if it runs past the end of the
+     data; readBuffer holds the record afterwards */
+  private PlayerStats readOrNull(long offset) throws IOException {
+    if (offset + RECORD_HEADER_SIZE > dataLength) {
+      return null;
+    }
+    readBuffer.clear().limit((int) Math.min(readBuffer.capacity(),
+        dataLength - offset));
+    readFully(readBuffer, offset);
+    int recordSize = readBuffer.getInt(0);
+    if (recordSize < RECORD_HEADER_SIZE || offset + recordSize > dataLength) {
+      return null;
+    }
+    if (recordSize > readBuffer.limit()) {
+      // Long name: read the rest of the record
+      ByteBuffer bigger = ByteBuffer.allocate(Math.max(recordSize, READ_AHEAD));
+      readBuffer.flip();
+      bigger.put(readBuffer).limit(recordSize);
+      readFully(bigger, offset);
+      readBuffer = bigger;
+    }
+    int nameLength = readBuffer.getShort(RECORD_HEADER_SIZE - Short.BYTES);
+    if (RECORD_HEADER_SIZE + nameLength != recordSize) {
+      return null;
+    }
+    String name = new String(readBuffer.array(), RECORD_HEADER_SIZE,
+        nameLength, StandardCharsets.UTF_8);
+    int pos = Integer.BYTES;
+    return new PlayerStats(name, readBuffer.getLong(pos),
+        readBuffer.getLong(pos + 8), readBuffer.getLong(pos + 16),
+        readBuffer.getLong(pos + 24), readBuffer.getLong(pos + 32));
+  } // readOrNull()
+
+  /* Fill the rest of a buffer from the data file, where index 0 of the
+     buffer is at a position of the file */
+  private void readFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (data.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of " + dataFile);
+      }
+    } // while
+  } // readFully()
+
+  /* Write the rest of a buffer to the data file, where index 0 of the
+     buffer is at a position of the file */
+  private void writeFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      data.write(buffer, position + buffer.position());
+    } // while
+  } // writeFully()
+
+  /* Encode a name, which must fit a short length */
+  private static byte[] utf8(String name) {
+    byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > Short.MAX_VALUE) {
+      throw new IllegalArgumentException("Player name too long");
+    }
+    return bytes;
+  } // utf8()
+
+  /* Hash a name to 64 bits, never 0 */
+  private static long hash(String name) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < name.length(); ++i) {
+      hash = (hash ^ name.charAt(i)) * 0x100000001B3L;
+    } // for
+    hash ^= hash >>> 31;
+    return hash == 0 ? 1 : hash;
+  } // hash()
+
+  /* Find the first slot to probe for a hash */
+  private static int home(long hash, int mask) {
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  } // home()
+
+  /**
+   * Time creating, opening and querying a store. Accepts "--file FILE"
+   * for the data file, "--players N" for the number of players and
+   * "--batch N" for the players committed per batch.
+   * @param args command line options
+   * @throws IOException if the store cannot be written or read
+   */
+  public static void main(String[] args) throws IOException {
+    Path file = Paths.get("player-stats.dat");
+    int numPlayers = 2_000_000;
+    int batchSize = 10_000;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--file")) {
+        file = Paths.get(args[i + 1]);
+      } else if (args[i].equals("--players")) {
+        numPlayers = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--batch")) {
+        batchSize = Integer.parseInt(args[i + 1]);
+      }
+    } // for
+
+    long start = System.nanoTime();
+    try (PlayerStatsStore store = open(file)) {
+      ArrayList<PlayerStats> batch = new ArrayList<>();
+      for (int p = store.size(); p < numPlayers; ++p) {
+        batch.add(new PlayerStats("Player " + p, 1, p % 4 == 0 ? 1 : 0, p, 10, 7));
+        if (batch.size() == batchSize || p == numPlayers - 1) {
+          store.putAll(batch);
+          batch.clear();
+        }
+      } // for
+      System.out.printf("filled %d players in %.0f ms%n", store.size(),
+          (System.nanoTime() - start) / 1e6);
+    }
+
+    start = System.nanoTime();
+    try (PlayerStatsStore store = open(file)) {
+      System.out.printf("opened %d players in %.2f ms%n", store.size(),
+          (System.nanoTime() - start) / 1e6);
+      Random random = new Random(1);
+      int numLookups = 100_000;
+      start = System.nanoTime();
+      long found = 0;
+      for (int i = 0; i < numLookups; ++i) {
+        if (store.get("Player " + random.nextInt(numPlayers)) != null) {
+          ++found;
+        }
+      } // for
+      System.out.printf("%d of %d lookups found, %.2f us each%n", found,
+          numLookups, (System.nanoTime() - start) / 1e3 / numLookups);
+      System.out.println(store.get("Player 12"));
+    }
+  } // main()
+
+} // PlayerStatsStore
@@ -0,0 +1,196 @@
+package hangman;
+
+/**
+ * Immutable puzzle with every letter indexed to its positions.
+ *
+ * The index is built once when the puzzle is loaded, so checking a guess
+ * is a single mask test and revealing a letter only touches the positions
+ * where it occurs. A Puzzle holds no game progress and may be shared by
+ * any number of games and threads.
+ **/
+public class Puzzle {
+  /** Number of letters in the alphabet. */
+  public static final int NUM_LETTERS = 26;
+
+  /** Character shown in place of a hidden letter. */
+  public static final char HIDDEN = '-';
+
+  /* Clear-text puzzle representation */
+  private final String text;
+
+  /* Bit n is set if letter 'A' + n appears in the puzzle */
+  private final int letterMask;
+
+  /* Offset of each letter's positions in the position table */
+  private final int[] start = new int[NUM_LETTERS + 1];
+
+  /* Puzzle positions grouped by letter */
+  private final int[] positions;
+
+  /* Number of letters to be revealed */
+  private final int numHidden;
+
+  /**
+   * Create a puzzle from a given entry.
+   * @param entry clear-text puzzle, in any case
+   */
+  public Puzzle(String entry) {
+    text = entry.toUpperCase();
+
+    // Count each letter, then turn counts into offsets
+    int mask = 0;
+    int[] counts = new int[NUM_LETTERS];
+    for (int i = 0; i < text.length(); ++i) {
+      int letter = letterIndex(text.charAt(i));
+      if (letter >= 0) {
+        ++counts[letter];
+        mask |= 1 << letter;
+      }
+    } // for
+    for (int l = 0; l < NUM_LETTERS; ++l) {
+      start[l + 1] = start[l] + counts[l];
+    } // for
+    letterMask = mask;
+    numHidden = start[NUM_LETTERS];
+
+    // Fill each letter's slice of the table in puzzle order
+    positions = new int[numHidden];
+    int[] next = start.clone();
+    for (int i = 0; i < text.length(); ++i) {
+      int letter = letterIndex(text.charAt(i));
+      if (letter >= 0) {
+        positions[next[letter]++] = i;
+      }
+    } // for
+  } // Puzzle()
+
+  /**
+   * Map a letter to its index in the alphabet.
+   * @param c character to map
+   * @return index from 0 to 25, or -1 if c is not a letter
+   */
+  public static int letterIndex(char c) {
+    if (c >= 'A' && c <= 'Z') {
+      return c - 'A';
+    }
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a';
+    }
+    return -1;
+  } // letterIndex()
+
+  /**
+   * Retrieve the clear-text puzzle.
+   * @return upper case puzzle
+   */
+  public String getText() {
+    return text;
+  } // getText()
+
+  /**
+   * Retrieve the length of the puzzle.
+   * @return number of characters in the puzzle
+   */
+  public int length() {
+    return text.length();
+  } // length()
+
+  /**
+   * Retrieve the number of letters that start out hidden.
+   * @return number of letters in the puzzle
+   */
+  public int numHidden() {
+    return numHidden;
+  } // numHidden()
+
+  /**
+   * Retrieve the set of letters in the puzzle.
+   * @return mask with bit n set if letter 'A' + n appears
+   */
+  public int letterMask() {
+    return letterMask;
+  } // letterMask()
+
+  /**
+   * Determine if a letter appears in the puzzle.
+   * @param letter letter to check
+   * @return whether or not the letter appears in the puzzle
+   */
+  public boolean contains(char letter) {
+    int l = letterIndex(letter);
+    return l >= 0 && (letterMask & (1 << l)) != 0;
+  } // contains()
+
+  /**
+   * Count the occurrences of a letter in the puzzle.
+   * @param letter letter to count
+   * @return number of occurrences
+   */
+  public int occurrences(char letter) {
+    int l = letterIndex(letter);
+    return l < 0 ? 0 : start[l + 1] - start[l];
+  } // occurrences()
+
+  /**
+   * Retrieve where a letter occurs in the puzzle.
+   * @param letter letter to find
+   * @param n which occurrence, from 0 to occurrences(letter) - 1
+   * @return position of the occurrence in the puzzle
+   */
+  public int position(char letter, int n) {
+    int l = letterIndex(letter);
+    if (l < 0 || n < 0 || n >= start[l + 1] - start[l]) {
+      throw new IndexOutOfBoundsException("No occurrence " + n + " of " + letter);
+    }
+    return positions[start[l] + n];
+  } // position()
+
+  /**
+   * Create the obfuscated form of the puzzle with every letter hidden.
+   * @return obfuscated puzzle
+   */
+  public char[] newHidden() {
+    char[] hidden = new char[text.length()];
+    hide(hidden);
+    return hidden;
+  } // newHidden()
+
+  /**
+   * Overwrite an array with the obfuscated form of the puzzle.
+   * @param hidden array of the same length as the puzzle
+   */
+  public void hide(char[] hidden) {
+    text.getChars(0, text.length(), hidden, 0);
+    for (int p : positions) {
+      hidden[p] = HIDDEN;
+    } // for
+  } // hide()
+
+  /**
+   * Reveal every occurrence of a letter in an obfuscated puzzle.
+   * @param letter letter to reveal
+   * @param hidden obfuscated puzzle created by newHidden()
+   * @return number of occurrences revealed
+   */
+  public int reveal(char letter, char[] hidden) {
+    int l = letterIndex(letter);
+    if (l < 0) {
+      return 0;
+    }
+    char upper = (char) ('A' + l);
+    for (int i = start[l]; i < start[l + 1]; ++i) {
+      hidden[positions[i]] = upper;
+    } // for
+    return start[l + 1] - start[l];
+  } // reveal()
+
+  /**
+   * Determine if a guess matches the puzzle.
+   * @param guess complete puzzle guess, in any case
+   * @return whether or not the guess is correct
+   */
+  public boolean matches(String guess) {
+    return text.equalsIgnoreCase(guess);
+  } // matches()
+
+} // Puzzle
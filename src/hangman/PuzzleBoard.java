@@ -0,0 +1,370 @@
+package hangman;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+
+/**
+ * Painted board of letter tiles showing a puzzle as it is revealed.
+ *
+ * Words are laid out into rows of tiles once for the width of the board,
+ * wrapping between words. Each character is rendered into a glyph image
+ * the first time it is needed and reused for every tile showing it.
+ * Revealing a letter repaints only the tiles where it occurs, found
+ * through the puzzle's position index, and painting draws only the rows
+ * inside the clip, so the cost of a reveal follows the number of
+ * occurrences rather than the length of the puzzle, and a puzzle far
+ * taller than the window costs no more to paint than the part in view.
+ * Inside a scroll pane the board takes the width of the viewport, wraps
+ * to it, and scrolls vertically a row of tiles at a time.
+ **/
+public class PuzzleBoard extends JComponent implements Scrollable {
+  /** Width and height of a tile. */
+  public static final int TILE = 32;
+
+  /** Columns the board asks for before it knows its width. */
+  public static final int PREFERRED_COLUMNS = 24;
+
+  /** Rows a scroll pane shows before it starts scrolling. */
+  public static final int VISIBLE_ROWS = 4;
+
+  /* Space between tiles */
+  private static final int GAP = 4;
+
+  /* Distance between tile origins */
+  private static final int PITCH = TILE + GAP;
+
+  /* Space around the tiles */
+  private static final int MARGIN = 8;
+
+  /* Colour of a hidden tile */
+  private static final Color HIDDEN_COLOR = new Color(0x1E, 0x88, 0x6E);
+
+  /* Colour of a shown tile */
+  private static final Color SHOWN_COLOR = Color.WHITE;
+
+  /* Colour of tile edges */
+  private static final Color EDGE_COLOR = Color.DARK_GRAY;
+
+  /* Font of the letters */
+  private static final Font FONT = new Font(Font.SANS_SERIF, Font.BOLD, 20);
+
+  /* Puzzle being shown */
+  private Puzzle puzzle;
+
+  /* Letters shown, see Letters */
+  private int shown;
+
+  /* Left edge of the tile of each position, -1 for spaces */
+  private int[] tileX = new int[0];
+
+  /* Top edge of the tile of each position */
+  private int[] tileY = new int[0];
+
+  /* First position of each row, plus the puzzle length */
+  private int[] rowStart = {0};
+
+  /* Width the tiles were laid out for, -1 if not laid out */
+  private int layoutWidth = -1;
+
+  /* Height the tiles need at layoutWidth */
+  private int layoutHeight;
+
+  /* Tile of a hidden letter */
+  private final BufferedImage hiddenTile;
+
+  /* Empty tile of a shown character */
+  private final BufferedImage shownTile;
+
+  /* Glyph images of ASCII characters, rendered on first use */
+  private final BufferedImage[] asciiGlyphs = new BufferedImage[128];
+
+  /* Glyph images of other characters, rendered on first use */
+  private final HashMap<Character, BufferedImage> otherGlyphs = new HashMap<>();
+
+  /**
+   * Create a board showing a puzzle.
+   * @param puzzle puzzle to show
+   * @param guessed letters already guessed, see Letters
+   */
+  public PuzzleBoard(Puzzle puzzle, int guessed) {
+    hiddenTile = renderTile(HIDDEN_COLOR);
+    shownTile = renderTile(SHOWN_COLOR);
+    setOpaque(true);
+    setPuzzle(puzzle, guessed);
+  } // PuzzleBoard()
+
+  /**
+   * Show a new puzzle, laying the tiles out again.
+   * @param puzzle puzzle to show
+   * @param guessed letters already guessed, see Letters
+   */
+  public void setPuzzle(Puzzle puzzle, int guessed) {
+    this.puzzle = puzzle;
+    this.shown = guessed & puzzle.letterMask();
+    layoutWidth = -1;
+    revalidate();
+    repaint();
+    scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+  } // setPuzzle()
+
+  /**
+   * Reveal every guessed letter that is not shown yet.
+   * @param guessed letters guessed so far, see Letters
+   */
+  public void showGuessed(int guessed) {
+    int reveal = guessed & puzzle.letterMask() & ~shown;
+    shown |= reveal;
+    if (layoutWidth < 0) {
+      // Painted with the rest of the board once it is laid out
+      return;
+    }
+    for (int l = 0; reveal != 0; ++l, reveal >>>= 1) {
+      if ((reveal & 1) != 0) {
+        showLetter((char) ('A' + l));
+      }
+    } // for
+  } // showGuessed()
+
+  /**
+   * Reveal the whole puzzle.
+   */
+  public void showAll() {
+    showGuessed(Letters.ALL);
+  } // showAll()
+
+  /* Repaint the tiles of every occurrence of a letter */
+  private void showLetter(char letter) {
+    for (int n = 0; n < puzzle.occurrences(letter); ++n) {
+      int pos = puzzle.position(letter, n);
+      repaint(tileX[pos], tileY[pos], TILE, TILE);
+    } // for
+  } // showLetter()
+
+  @Override
+  public Dimension getPreferredSize() {
+    if (isPreferredSizeSet()) {
+      return super.getPreferredSize();
+    }
+    int width = getWidth() > 0 ? getWidth()
+        : 2 * MARGIN + PREFERRED_COLUMNS * PITCH - GAP;
+    return new Dimension(width, heightFor(width));
+  } // getPreferredSize()
+
+  @Override
+  public Dimension getPreferredScrollableViewportSize() {
+    Dimension size = getPreferredSize();
+    size.height = Math.min(size.height, 2 * MARGIN + VISIBLE_ROWS * PITCH - GAP);
+    return size;
+  } // getPreferredScrollableViewportSize()
+
+  @Override
+  public int getScrollableUnitIncrement(Rectangle visible, int orientation,
+      int direction) {
+    return PITCH;
+  } // getScrollableUnitIncrement()
+
+  @Override
+  public int getScrollableBlockIncrement(Rectangle visible, int orientation,
+      int direction) {
+    int extent = orientation == SwingConstants.VERTICAL
+        ? visible.height : visible.width;
+    // Keep one row of the previous view in sight
+    return Math.max(PITCH, extent - PITCH);
+  } // getScrollableBlockIncrement()
+
+  @Override
+  public boolean getScrollableTracksViewportWidth() {
+    return true;
+  } // getScrollableTracksViewportWidth()
+
+  @Override
+  public boolean getScrollableTracksViewportHeight() {
+    // Fill the viewport when the tiles need less than its height
+    return getParent() instanceof JViewport
+        && getParent().getHeight() > getPreferredSize().height;
+  } // getScrollableTracksViewportHeight()
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    if (getWidth() != layoutWidth) {
+      layoutTiles(getWidth());
+      if (layoutHeight != getHeight()) {
+        // Ask for the height the tiles need at this width
+        revalidate();
+      }
+    }
+    Rectangle clip = g.getClipBounds();
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+    g.setColor(getBackground() == null ? Color.LIGHT_GRAY : getBackground());
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+    // Only the rows that overlap the clip
+    int numRows = rowStart.length - 1;
+    int first = Math.max(0, (clip.y - MARGIN) / PITCH);
+    int last = Math.min(numRows - 1, (clip.y + clip.height - MARGIN) / PITCH);
+    for (int r = first; r <= last; ++r) {
+      for (int i = rowStart[r]; i < rowStart[r + 1]; ++i) {
+        if (tileX[i] >= 0 && tileX[i] < clip.x + clip.width
+            && tileX[i] + TILE > clip.x) {
+          drawTile(g, i);
+        }
+      } // for
+    } // for
+  } // paintComponent()
+
+  /* Compute the height needed to lay the tiles out at a width */
+  private int heightFor(int width) {
+    return 2 * MARGIN + placeTiles(columnsFor(width), null, null) * PITCH - GAP;
+  } // heightFor()
+
+  /* Compute the number of columns that fit in a width */
+  private static int columnsFor(int width) {
+    return Math.max(1, (width - 2 * MARGIN + GAP) / PITCH);
+  } // columnsFor()
+
+  /* Lay the tiles out for a width */
+  private void layoutTiles(int width) {
+    int columns = columnsFor(width);
+    int length = puzzle.length();
+    int[] row = new int[length];
+    int[] column = new int[length];
+    int numRows = placeTiles(columns, row, column);
+
+    // Center each row
+    int[] rowLength = new int[numRows];
+    for (int i = 0; i < length; ++i) {
+      if (column[i] >= 0) {
+        rowLength[row[i]] = Math.max(rowLength[row[i]], column[i] + 1);
+      }
+    } // for
+    tileX = new int[length];
+    tileY = new int[length];
+    rowStart = new int[numRows + 1];
+    int r = 0;
+    for (int i = 0; i < length; ++i) {
+      if (column[i] < 0) {
+        tileX[i] = -1;
+        continue;
+      }
+      while (r < row[i]) {
+        rowStart[++r] = i;
+      } // while
+      int indent = (width - 2 * MARGIN - rowLength[r] * PITCH + GAP) / 2;
+      tileX[i] = MARGIN + Math.max(0, indent) + column[i] * PITCH;
+      tileY[i] = MARGIN + r * PITCH;
+    } // for
+    while (r < numRows) {
+      rowStart[++r] = length;
+    } // while
+    layoutWidth = width;
+    layoutHeight = 2 * MARGIN + numRows * PITCH - GAP;
+  } // layoutTiles()
+
+  /* Assign each position a row and column, wrapping between words; return
+     the number of rows. Spaces get column -1. Arrays may be null. */
+  private int placeTiles(int columns, int[] row, int[] column) {
+    String text = puzzle.getText();
+    int r = 0;
+    int c = 0;
+    int i = 0;
+    while (i < text.length()) {
+      if (text.charAt(i) == ' ') {
+        if (column != null) {
+          column[i] = -1;
+        }
+        if (c > 0) {
+          ++c;
+        }
+        ++i;
+        continue;
+      }
+      int end = text.indexOf(' ', i);
+      if (end < 0) {
+        end = text.length();
+      }
+      if (c > 0 && c + (end - i) > columns) {
+        ++r;
+        c = 0;
+      }
+      for (; i < end; ++i) {
+        if (c == columns) {
+          ++r;
+          c = 0;
+        }
+        if (row != null) {
+          row[i] = r;
+          column[i] = c;
+        }
+        ++c;
+      } // for
+    } // while
+    return r + 1;
+  } // placeTiles()
+
+  /* Draw the tile of a position */
+  private void drawTile(Graphics g, int pos) {
+    char c = puzzle.getText().charAt(pos);
+    int l = Puzzle.letterIndex(c);
+    boolean visible = l < 0 || (shown & (1 << l)) != 0;
+    int x = tileX[pos];
+    int y = tileY[pos];
+    if (visible) {
+      g.drawImage(shownTile, x, y, null);
+      g.drawImage(glyph(c), x, y, null);
+    } else {
+      g.drawImage(hiddenTile, x, y, null);
+    }
+  } // drawTile()
+
+  /* Render a tile background */
+  private static BufferedImage renderTile(Color color) {
+    BufferedImage tile = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = tile.createGraphics();
+    g.setColor(color);
+    g.fillRect(0, 0, TILE, TILE);
+    g.setColor(EDGE_COLOR);
+    g.drawRect(0, 0, TILE - 1, TILE - 1);
+    g.dispose();
+    return tile;
+  } // renderTile()
+
+  /* Retrieve the glyph image of a character, rendering it on first use */
+  private BufferedImage glyph(char c) {
+    BufferedImage glyph = c < asciiGlyphs.length ? asciiGlyphs[c] : otherGlyphs.get(c);
+    if (glyph != null) {
+      return glyph;
+    }
+    glyph = new BufferedImage(TILE, TILE, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = glyph.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g.setFont(FONT);
+    g.setColor(Color.BLACK);
+    FontMetrics metrics = g.getFontMetrics();
+    String text = String.valueOf(c);
+    g.drawString(text, (TILE - metrics.stringWidth(text)) / 2,
+        (TILE - metrics.getHeight()) / 2 + metrics.getAscent());
+    g.dispose();
+    if (c < asciiGlyphs.length) {
+      asciiGlyphs[c] = glyph;
+    } else {
+      otherGlyphs.put(c, glyph);
+    }
+    return glyph;
+  } // glyph()
+
+} // PuzzleBoard
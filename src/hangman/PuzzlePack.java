@@ -0,0 +1,254 @@
+package hangman;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only, memory-mapped collection of puzzles.
+ *
+ * A pack file holds a header, the category names, an offset table, one
+ * metadata record per puzzle and the packed puzzle text:
+ *
+ * <pre>
+ *   int    MAGIC
+ *   int    VERSION
+ *   int    number of puzzles, n
+ *   int    number of categories, c
+ *   c x    (short length, UTF-8 bytes) category names
+ *   pad    to a multiple of 8
+ *   long   n puzzle offsets, relative to the start of the text
+ *   int    n puzzle lengths in bytes
+ *   n x    (byte category, byte difficulty)
+ *   bytes  upper case UTF-8 puzzle text, padded at segment boundaries
+ * </pre>
+ *
+ * The tables and the text are each mapped in segments of SEGMENT_SIZE
+ * bytes and PuzzlePackWriter never lets a puzzle cross a text segment
+ * boundary, so packs may be larger than 2GB. Selecting a puzzle reads
+ * one offset and length and decodes only that puzzle; the rest of the
+ * corpus stays on disk until the OS pages it in.
+ **/
+public class PuzzlePack implements Closeable {
+  /** Marker at the start of every pack file, "HGPK". */
+  public static final int MAGIC = 0x4847504B;
+
+  /** Version of the pack format. */
+  public static final int VERSION = 1;
+
+  /** Size of each mapped segment of the file. */
+  public static final long SEGMENT_SIZE = 1L << 30;
+
+  /* Open file backing the mapped segments */
+  private final FileChannel channel;
+
+  /* Mapped header and tables */
+  private final MappedRegion tables;
+
+  /* Mapped puzzle text */
+  private final MappedRegion text;
+
+  /* Number of puzzles in the pack */
+  private final int size;
+
+  /* Category names by index */
+  private final String[] categories;
+
+  /* Position of the offset table */
+  private final long offsetTable;
+
+  /* Position of the length table */
+  private final long lengthTable;
+
+  /* Position of the metadata table */
+  private final long metaTable;
+
+  // Part of the file mapped as consecutive read-only segments.
+  private static class MappedRegion {
+    /* Mapped segments of the region */
+    private final MappedByteBuffer[] segments;
+
+    /* Map a region of an open file */
+    MappedRegion(FileChannel channel, long start, long length)
+        throws IOException {
+      segments = new MappedByteBuffer[(int) ((length + SEGMENT_SIZE - 1)
+          / SEGMENT_SIZE)];
+      for (int s = 0; s < segments.length; ++s) {
+        long offset = s * SEGMENT_SIZE;
+        segments[s] = channel.map(FileChannel.MapMode.READ_ONLY,
+            start + offset, Math.min(SEGMENT_SIZE, length - offset));
+        segments[s].order(ByteOrder.BIG_ENDIAN);
+      } // for
+    } // MappedRegion()
+
+    /* Read a byte */
+    byte getByte(long pos) {
+      return segments[(int) (pos / SEGMENT_SIZE)].get((int) (pos % SEGMENT_SIZE));
+    } // getByte()
+
+    /* Read a short in the first segment */
+    int getShort(long pos) {
+      return segments[0].getShort((int) pos);
+    } // getShort()
+
+    /* Read an int in the first segment */
+    int getInt(long pos) {
+      return segments[0].getInt((int) pos);
+    } // getInt()
+
+    /* Read an aligned int, which never crosses a segment */
+    int getAlignedInt(long pos) {
+      return segments[(int) (pos / SEGMENT_SIZE)]
+          .getInt((int) (pos % SEGMENT_SIZE));
+    } // getAlignedInt()
+
+    /* Read an aligned long, which never crosses a segment */
+    long getLong(long pos) {
+      return segments[(int) (pos / SEGMENT_SIZE)]
+          .getLong((int) (pos % SEGMENT_SIZE));
+    } // getLong()
+
+    /* Decode UTF-8 text that does not cross a segment */
+    String decode(long pos, int len) {
+      byte[] bytes = new byte[len];
+      segments[(int) (pos / SEGMENT_SIZE)].get((int) (pos % SEGMENT_SIZE), bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    } // decode()
+
+  } // MappedRegion
+
+  /**
+   * Open and map a pack file.
+   * @param file pack file written by PuzzlePackWriter
+   * @throws IOException if the file cannot be read or is not a pack
+   */
+  public PuzzlePack(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long length = channel.size();
+      MappedRegion header = new MappedRegion(channel, 0,
+          Math.min(length, SEGMENT_SIZE));
+      if (length < 16 || header.getInt(0) != MAGIC) {
+        throw new IOException("Not a puzzle pack: " + file);
+      }
+      if (header.getInt(4) != VERSION) {
+        throw new IOException("Unsupported pack version " + header.getInt(4));
+      }
+      size = header.getInt(8);
+      categories = new String[header.getInt(12)];
+
+      long pos = 16;
+      for (int c = 0; c < categories.length; ++c) {
+        int len = header.getShort(pos) & 0xFFFF;
+        categories[c] = header.decode(pos + 2, len);
+        pos += 2 + len;
+      } // for
+      offsetTable = (pos + 7) & ~7L;
+      lengthTable = offsetTable + 8L * size;
+      metaTable = lengthTable + 4L * size;
+
+      long textStart = metaTable + 2L * size;
+      if (textStart > length) {
+        throw new IOException("Truncated puzzle pack: " + file);
+      }
+      tables = new MappedRegion(channel, 0, textStart);
+      text = new MappedRegion(channel, textStart, length - textStart);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  } // PuzzlePack()
+
+  /**
+   * Retrieve the number of puzzles in the pack.
+   * @return number of puzzles
+   */
+  public int size() {
+    return size;
+  } // size()
+
+  /**
+   * Retrieve the text of a puzzle.
+   * @param index index of the puzzle
+   * @return upper case puzzle text
+   */
+  public String text(int index) {
+    checkIndex(index);
+    long start = tables.getLong(offsetTable + 8L * index);
+    int length = tables.getAlignedInt(lengthTable + 4L * index);
+    return text.decode(start, length);
+  } // text()
+
+  /**
+   * Retrieve an indexed puzzle.
+   * @param index index of the puzzle
+   * @return indexed puzzle
+   */
+  public Puzzle puzzle(int index) {
+    return new Puzzle(text(index));
+  } // puzzle()
+
+  /**
+   * Retrieve the category of a puzzle.
+   * @param index index of the puzzle
+   * @return category name
+   */
+  public String category(int index) {
+    checkIndex(index);
+    return categories[tables.getByte(metaTable + 2L * index) & 0xFF];
+  } // category()
+
+  /**
+   * Retrieve the difficulty of a puzzle.
+   * @param index index of the puzzle
+   * @return difficulty from 0 to 255
+   */
+  public int difficulty(int index) {
+    checkIndex(index);
+    return tables.getByte(metaTable + 2L * index + 1) & 0xFF;
+  } // difficulty()
+
+  /**
+   * Pick a random puzzle.
+   * @param generator random number generator, seeded for repeatable picks
+   * @return index of the chosen puzzle
+   */
+  public int randomIndex(RandomGenerator generator) {
+    if (size == 0) {
+      throw new IllegalStateException("Puzzle pack is empty");
+    }
+    return generator.nextInt(size);
+  } // randomIndex()
+
+  /**
+   * Pick and index a random puzzle.
+   * @param generator random number generator, seeded for repeatable picks
+   * @return indexed puzzle
+   */
+  public Puzzle randomPuzzle(RandomGenerator generator) {
+    return puzzle(randomIndex(generator));
+  } // randomPuzzle()
+
+  /**
+   * Close the pack file. Mapped segments are released once unreachable.
+   * @throws IOException if the file cannot be closed
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  } // close()
+
+  /* Reject indexes outside of the pack */
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("No puzzle at " + index);
+    }
+  } // checkIndex()
+
+} // PuzzlePack
@@ -0,0 +1,214 @@
+package hangman;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Builds a PuzzlePack file.
+ *
+ * Puzzle text is streamed to a temporary file as puzzles are added, so
+ * only the offset, length and metadata tables are held in memory while
+ * a large corpus is packed.
+ **/
+public class PuzzlePackWriter implements Closeable {
+  /** Largest number of distinct categories in a pack. */
+  public static final int MAX_CATEGORIES = 256;
+
+  /** Largest difficulty of a puzzle. */
+  public static final int MAX_DIFFICULTY = 255;
+
+  /* Pack file being written */
+  private final Path file;
+
+  /* Temporary file holding the packed text */
+  private final Path textFile;
+
+  /* Stream of packed text */
+  private final OutputStream text;
+
+  /* Category names by index */
+  private final ArrayList<String> categories = new ArrayList<>();
+
+  /* Category indexes by name */
+  private final HashMap<String, Integer> categoryIndex = new HashMap<>();
+
+  /* Text offset of each puzzle */
+  private long[] offsets = new long[1024];
+
+  /* Text length of each puzzle */
+  private int[] lengths = new int[1024];
+
+  /* Category and difficulty of each puzzle */
+  private byte[] meta = new byte[2048];
+
+  /* Number of puzzles added */
+  private int size = 0;
+
+  /* Number of text bytes written */
+  private long textSize = 0;
+
+  /**
+   * Start writing a pack file.
+   * @param file pack file to create
+   * @throws IOException if the temporary text file cannot be created
+   */
+  public PuzzlePackWriter(Path file) throws IOException {
+    this.file = file;
+    Path dir = file.toAbsolutePath().getParent();
+    textFile = Files.createTempFile(dir, "puzzles", ".tmp");
+    text = new BufferedOutputStream(Files.newOutputStream(textFile), 1 << 16);
+  } // PuzzlePackWriter()
+
+  /**
+   * Add a puzzle to the pack.
+   * @param puzzle clear-text puzzle, in any case
+   * @param category category of the puzzle
+   * @param difficulty difficulty from 0 to MAX_DIFFICULTY
+   * @throws IOException if the text cannot be written
+   */
+  public void add(String puzzle, String category, int difficulty)
+      throws IOException {
+    if (difficulty < 0 || difficulty > MAX_DIFFICULTY) {
+      throw new IllegalArgumentException("Invalid difficulty " + difficulty);
+    }
+    byte[] bytes = puzzle.toUpperCase().getBytes(StandardCharsets.UTF_8);
+    if (bytes.length > PuzzlePack.SEGMENT_SIZE) {
+      throw new IllegalArgumentException("Puzzle is too long");
+    }
+    int cat = categoryIndex(category);
+
+    // Pad so that no puzzle crosses a mapped segment
+    long segmentEnd = (textSize / PuzzlePack.SEGMENT_SIZE + 1)
+        * PuzzlePack.SEGMENT_SIZE;
+    if (textSize + bytes.length > segmentEnd) {
+      while (textSize < segmentEnd) {
+        text.write(0);
+        ++textSize;
+      } // while
+    }
+
+    if (size == offsets.length) {
+      offsets = Arrays.copyOf(offsets, size * 2);
+      lengths = Arrays.copyOf(lengths, size * 2);
+      meta = Arrays.copyOf(meta, size * 4);
+    }
+    offsets[size] = textSize;
+    lengths[size] = bytes.length;
+    meta[2 * size] = (byte) cat;
+    meta[2 * size + 1] = (byte) difficulty;
+    ++size;
+
+    text.write(bytes);
+    textSize += bytes.length;
+  } // add()
+
+  /**
+   * Write the header and tables followed by the text, then remove the
+   * temporary file.
+   * @throws IOException if the pack cannot be written
+   */
+  @Override
+  public void close() throws IOException {
+    text.close();
+    try {
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+          Files.newOutputStream(file), 1 << 16))) {
+        out.writeInt(PuzzlePack.MAGIC);
+        out.writeInt(PuzzlePack.VERSION);
+        out.writeInt(size);
+        out.writeInt(categories.size());
+        for (String category : categories) {
+          byte[] name = category.getBytes(StandardCharsets.UTF_8);
+          out.writeShort(name.length);
+          out.write(name);
+        } // for
+        while (out.size() % 8 != 0) {
+          out.writeByte(0);
+        } // while
+        for (int i = 0; i < size; ++i) {
+          out.writeLong(offsets[i]);
+        } // for
+        for (int i = 0; i < size; ++i) {
+          out.writeInt(lengths[i]);
+        } // for
+        out.write(meta, 0, 2 * size);
+      }
+
+      try (FileChannel in = FileChannel.open(textFile, StandardOpenOption.READ);
+           FileChannel out = FileChannel.open(file, StandardOpenOption.APPEND)) {
+        long copied = 0;
+        while (copied < textSize) {
+          copied += in.transferTo(copied, textSize - copied, out);
+        } // while
+      }
+    } finally {
+      Files.deleteIfExists(textFile);
+    }
+  } // close()
+
+  /* Find or create the index of a category */
+  private int categoryIndex(String category) {
+    Integer index = categoryIndex.get(category);
+    if (index == null) {
+      if (categories.size() == MAX_CATEGORIES) {
+        throw new IllegalArgumentException("Too many categories");
+      }
+      if (category.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+        throw new IllegalArgumentException("Category name is too long");
+      }
+      index = categories.size();
+      categories.add(category);
+      categoryIndex.put(category, index);
+    }
+    return index;
+  } // categoryIndex()
+
+  /**
+   * Pack a tab-separated text file of puzzles. Each line holds a
+   * category, a difficulty and the puzzle; other lines are reported and
+   * skipped.
+   * @param args input file and pack file
+   * @throws IOException if either file cannot be used
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2) {
+      System.out.println("Usage: PuzzlePackWriter <puzzles.tsv> <puzzles.pack>");
+      System.exit(1);
+    }
+
+    int lineNumber = 0;
+    try (BufferedReader in = Files.newBufferedReader(Paths.get(args[0]));
+         PuzzlePackWriter writer = new PuzzlePackWriter(Paths.get(args[1]))) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        ++lineNumber;
+        String[] fields = line.split("\t", 3);
+        if (fields.length != 3) {
+          System.out.println("Skipping line " + lineNumber);
+          continue;
+        }
+        try {
+          writer.add(fields[2], fields[0], Integer.parseInt(fields[1].trim()));
+        } catch (IllegalArgumentException badLine) {
+          // A bad difficulty or puzzle is rejected before anything is added
+          System.out.println("Skipping line " + lineNumber + ": "
+              + badLine.getMessage());
+        }
+      } // while
+    }
+  } // main()
+
+} // PuzzlePackWriter
@@ -0,0 +1,167 @@
+package hangman;
+
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.GridLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JPasswordField;
+import javax.swing.JScrollPane;
+import javax.swing.JSpinner;
+import javax.swing.JTextArea;
+import javax.swing.SpinnerNumberModel;
+
+/**
+ * Single form asking for everything needed to start a game: the player
+ * names, the number of computer players and the puzzle.
+ *
+ * Unlike the one-question HangmanDialog prompts the form is not modal, so
+ * the event dispatch thread stays free to build the game window while the
+ * form is being filled in.
+ **/
+public class SetupForm extends JDialog {
+  /* Player names, one per line */
+  private JTextArea namesArea;
+
+  /* Number of computer players, null if none are offered */
+  private JSpinner computersSpinner;
+
+  /* Puzzle entry, null if the puzzle is drawn from a pack */
+  private JPasswordField puzzleField;
+
+  /* Action run when the form is submitted */
+  private Runnable onStart = () -> { };
+
+  /* Action run when the form is closed without being submitted */
+  private Runnable onCancel = () -> { };
+
+  /* Whether the form was submitted */
+  private boolean started = false;
+
+  /**
+   * Create a setup form.
+   * @param mainFrame form parent, which may not be shown yet
+   * @param askComputers whether to ask for computer players
+   * @param askPuzzle whether to ask for the puzzle
+   */
+  public SetupForm(JFrame mainFrame, boolean askComputers, boolean askPuzzle) {
+    super(mainFrame, "New Game", false);
+    setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+    addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosed(WindowEvent event) {
+        if (!started) {
+          onCancel.run();
+        }
+      } // windowClosed()
+    });
+
+    JPanel fields = new JPanel(new BorderLayout(0, 10));
+    fields.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+    namesArea = new JTextArea(4, 30);
+    JPanel namesPanel = new JPanel(new BorderLayout());
+    namesPanel.add(new JLabel("Player names, one per line"), BorderLayout.NORTH);
+    namesPanel.add(new JScrollPane(namesArea), BorderLayout.CENTER);
+    fields.add(namesPanel, BorderLayout.NORTH);
+
+    JPanel options = new JPanel(new GridLayout(0, 2, 10, 5));
+    if (askComputers) {
+      computersSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 99, 1));
+      options.add(new JLabel("Computer players"));
+      options.add(computersSpinner);
+    }
+    if (askPuzzle) {
+      puzzleField = new JPasswordField(30);
+      options.add(new JLabel("Puzzle (entered by a non-player)"));
+      options.add(puzzleField);
+    }
+    fields.add(options, BorderLayout.CENTER);
+
+    JButton startButton = new JButton("Start");
+    startButton.addActionListener(event -> checkStatus());
+    getRootPane().setDefaultButton(startButton);
+    JPanel bottom = new JPanel(new FlowLayout());
+    bottom.add(startButton);
+
+    add(fields, BorderLayout.CENTER);
+    add(bottom, BorderLayout.SOUTH);
+    pack();
+    setLocationRelativeTo(null);
+  } // SetupForm()
+
+  /**
+   * Set the action run when the form is submitted. The form is still open
+   * when it runs.
+   * @param onStart action to run
+   */
+  public void setOnStart(Runnable onStart) {
+    this.onStart = onStart;
+  } // setOnStart()
+
+  /**
+   * Set the action run when the form is closed without being submitted.
+   * @param onCancel action to run
+   */
+  public void setOnCancel(Runnable onCancel) {
+    this.onCancel = onCancel;
+  } // setOnCancel()
+
+  /**
+   * Retrieve the player names entered, skipping blank lines.
+   * @return player names in order
+   */
+  public List<String> getNames() {
+    List<String> names = new ArrayList<>();
+    for (String line : namesArea.getText().split("\n")) {
+      String name = line.trim();
+      if (!name.isEmpty()) {
+        names.add(name);
+      }
+    } // for
+    return names;
+  } // getNames()
+
+  /**
+   * Retrieve the number of computer players entered.
+   * @return number of computer players, 0 if none were offered
+   */
+  public int getNumComputers() {
+    return computersSpinner == null ? 0 : (Integer) computersSpinner.getValue();
+  } // getNumComputers()
+
+  /**
+   * Retrieve the puzzle entered.
+   * @return puzzle text, empty if the puzzle is drawn from a pack
+   */
+  public String getPuzzle() {
+    return puzzleField == null ? "" : new String(puzzleField.getPassword()).trim();
+  } // getPuzzle()
+
+  /* Submit the form if it has valid entries */
+  private void checkStatus() {
+    if (getNames().isEmpty()) {
+      JOptionPane.showMessageDialog(this,
+          "Enter at least one player name", "Input Error",
+          JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    if (puzzleField != null && getPuzzle().isEmpty()) {
+      JOptionPane.showMessageDialog(this,
+          "Enter a puzzle", "Input Error", JOptionPane.ERROR_MESSAGE);
+      return;
+    }
+    started = true;
+    onStart.run();
+  } // checkStatus()
+
+} // SetupForm
@@ -0,0 +1,835 @@
+package hangman;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streams the view of one game to any number of spectators.
+ *
+ * The broadcaster listens to the engine of the game, but events only mark
+ * it dirty. The game loop calls tick() at its own pace; every tick that
+ * follows a change compares the game with what the spectators last saw
+ * and publishes one Delta holding the positions newly revealed, the
+ * balances that changed, the current player and the winner. Many moves in
+ * one tick therefore cost one delta, and the delta is shared by every
+ * spectator rather than encoded for each.
+ *
+ * The game loop only hands each delta to a fan-out thread, which offers
+ * it to every Subscription. Each subscription has its own bounded queue,
+ * and a spectator whose queue is full is dropped on the spot, so neither
+ * the number of spectators nor a lagging one slows the game loop. The
+ * fan-out thread keeps its own copy of the view, built from the deltas,
+ * so a new spectator can be sent a key frame without touching the game: a
+ * delta from an empty board holding every position and balance. Everyone
+ * is sent a key frame when a new puzzle starts, or if the fan-out thread
+ * ever falls so far behind that a delta could not be handed over.
+ *
+ * tick() and the engine must be used on the game loop thread; subscribe()
+ * and the Subscription methods may be called from any thread.
+ **/
+public class SpectatorBroadcaster implements GameListener, Closeable {
+  /** Deltas a spectator may fall behind by default before being dropped. */
+  public static final int DEFAULT_QUEUE_SIZE = 64;
+
+  /* Deltas the game loop may get ahead of the fan-out thread by */
+  private static final int HANDOFF_SIZE = 256;
+
+  /* Marks the end of a subscription in its queue */
+  private static final Delta END = new Delta(-1, false, 0, 0, new int[0],
+      new char[0], new int[0], new long[0]);
+
+  /* State of the game being watched */
+  private final GameState state;
+
+  /* Engine of the game being watched */
+  private final GameEngine engine;
+
+  /* Deltas handed from the game loop to the fan-out thread */
+  private final ArrayBlockingQueue<Delta> handoff =
+      new ArrayBlockingQueue<>(HANDOFF_SIZE);
+
+  /* Spectators waiting for their key frame */
+  private final ConcurrentLinkedQueue<Subscription> joining =
+      new ConcurrentLinkedQueue<>();
+
+  /* Thread offering deltas to the spectators */
+  private final Thread fanout;
+
+  /* Spectators receiving deltas, used by the fan-out thread */
+  private final ArrayList<Subscription> subscribers = new ArrayList<>();
+
+  /* Number of spectators receiving deltas */
+  private volatile int numSubscribers = 0;
+
+  /* Whether the broadcaster was closed, ending later subscriptions */
+  private volatile boolean closed = false;
+
+  /* Number of spectators dropped for falling behind */
+  private final AtomicInteger numDropped = new AtomicInteger();
+
+  /* Whether the game changed since the last tick */
+  private boolean dirty = true;
+
+  /* Whether the next delta must be a key frame */
+  private boolean resync = false;
+
+  /* Puzzle the spectators last saw */
+  private Puzzle puzzle;
+
+  /* Puzzle as the spectators last saw it */
+  private char[] hidden = new char[0];
+
+  /* Balances the spectators last saw */
+  private long[] balances = new long[0];
+
+  /* Current player the spectators last saw */
+  private int current;
+
+  /* Winner the spectators last saw */
+  private int winner = GameState.NO_WINNER;
+
+  /* Sequence number of the last delta */
+  private long sequence = 0;
+
+  /* Number of deltas published */
+  private long numDeltas = 0;
+
+  /* Encoded bytes of the deltas published */
+  private long deltaBytes = 0;
+
+  /* Puzzle as the fan-out thread last published it, or null before the
+     first key frame */
+  private char[] view;
+
+  /* Balances the fan-out thread last published */
+  private long[] viewBalances;
+
+  /* Last delta the fan-out thread published */
+  private Delta viewLast;
+
+  // Change in the view of a game, shared by every spectator.
+  public static final class Delta {
+    /* Sequence number, increasing by one per tick with a change */
+    private final long sequence;
+
+    /* Whether this delta starts from an empty board */
+    private final boolean keyFrame;
+
+    /* Current player */
+    private final int current;
+
+    /* Winner, or GameState.NO_WINNER */
+    private final int winner;
+
+    /* Positions of the puzzle that changed */
+    private final int[] positions;
+
+    /* What each changed position now shows */
+    private final char[] letters;
+
+    /* Players whose balance changed */
+    private final int[] players;
+
+    /* New balance of each changed player */
+    private final long[] balances;
+
+    Delta(long sequence, boolean keyFrame, int current, int winner,
+        int[] positions, char[] letters, int[] players, long[] balances) {
+      this.sequence = sequence;
+      this.keyFrame = keyFrame;
+      this.current = current;
+      this.winner = winner;
+      this.positions = positions;
+      this.letters = letters;
+      this.players = players;
+      this.balances = balances;
+    } // Delta()
+
+    /**
+     * Retrieve the sequence number. Deltas after a key frame follow it
+     * without gaps.
+     * @return sequence number
+     */
+    public long getSequence() {
+      return sequence;
+    } // getSequence()
+
+    /**
+     * Determine if this delta replaces the board rather than changing it.
+     * It then holds every position of the puzzle and every balance.
+     * @return whether or not this is a key frame
+     */
+    public boolean isKeyFrame() {
+      return keyFrame;
+    } // isKeyFrame()
+
+    /**
+     * Retrieve the current player.
+     * @return index of the current player
+     */
+    public int getCurrent() {
+      return current;
+    } // getCurrent()
+
+    /**
+     * Retrieve the winner.
+     * @return index of the winner, or GameState.NO_WINNER while playing
+     */
+    public int getWinner() {
+      return winner;
+    } // getWinner()
+
+    /**
+     * Retrieve the number of positions that changed.
+     * @return number of positions
+     */
+    public int getNumPositions() {
+      return positions.length;
+    } // getNumPositions()
+
+    /**
+     * Retrieve a position that changed.
+     * @param i index among the changed positions
+     * @return position in the puzzle
+     */
+    public int getPosition(int i) {
+      return positions[i];
+    } // getPosition()
+
+    /**
+     * Retrieve what a changed position now shows.
+     * @param i index among the changed positions
+     * @return letter, or Puzzle.HIDDEN in a key frame
+     */
+    public char getLetter(int i) {
+      return letters[i];
+    } // getLetter()
+
+    /**
+     * Retrieve the number of balances that changed.
+     * @return number of balances
+     */
+    public int getNumBalances() {
+      return players.length;
+    } // getNumBalances()
+
+    /**
+     * Retrieve a player whose balance changed.
+     * @param i index among the changed balances
+     * @return index of the player
+     */
+    public int getPlayer(int i) {
+      return players[i];
+    } // getPlayer()
+
+    /**
+     * Retrieve a changed balance.
+     * @param i index among the changed balances
+     * @return new balance of the player
+     */
+    public long getBalance(int i) {
+      return balances[i];
+    } // getBalance()
+
+    /**
+     * Apply this delta to a spectator's copy of the puzzle.
+     * @param board puzzle as last seen, or null before a key frame
+     * @return the board updated, a new board for a key frame
+     */
+    public char[] applyTo(char[] board) {
+      if (keyFrame) {
+        board = new char[positions.length];
+      }
+      for (int i = 0; i < positions.length; ++i) {
+        board[positions[i]] = letters[i];
+      } // for
+      return board;
+    } // applyTo()
+
+    /**
+     * Compute the size of this delta once encoded.
+     * @return number of bytes
+     */
+    public int encodedSize() {
+      int size = 8 + 1 + 2 + 2 + varintSize(positions.length);
+      int previous = -1;
+      for (int i = 0; i < positions.length; ++i) {
+        size += varintSize(positions[i] - previous - 1) + varintSize(letters[i]);
+        previous = positions[i];
+      } // for
+      return size + 2 + 10 * players.length;
+    } // encodedSize()
+
+    /**
+     * Encode this delta for sending to a remote spectator. The number of
+     * positions, each position as the gap after the one before it, and each
+     * letter as its char value are written as unsigned varints, seven bits
+     * per byte with the high bit set on all but the last, so puzzles of any
+     * length and letters outside ASCII survive the trip, while a key frame
+     * of an ASCII puzzle still costs two bytes a position.
+     * @param buffer buffer to write to, with encodedSize() bytes remaining
+     */
+    public void write(ByteBuffer buffer) {
+      buffer.putLong(sequence);
+      buffer.put((byte) (keyFrame ? 1 : 0));
+      buffer.putShort((short) current);
+      buffer.putShort((short) winner);
+      putVarint(buffer, positions.length);
+      int previous = -1;
+      for (int i = 0; i < positions.length; ++i) {
+        putVarint(buffer, positions[i] - previous - 1);
+        putVarint(buffer, letters[i]);
+        previous = positions[i];
+      } // for
+      buffer.putShort((short) players.length);
+      for (int i = 0; i < players.length; ++i) {
+        buffer.putShort((short) players[i]);
+        buffer.putLong(balances[i]);
+      } // for
+    } // write()
+
+    /* Write a non-negative int seven bits per byte, low bits first */
+    private static void putVarint(ByteBuffer buffer, int value) {
+      while ((value & ~0x7F) != 0) {
+        buffer.put((byte) (value & 0x7F | 0x80));
+        value >>>= 7;
+      } // while
+      buffer.put((byte) value);
+    } // putVarint()
+
+    /* Compute the number of bytes putVarint() writes for a value */
+    private static int varintSize(int value) {
+      int size = 1;
+      while ((value & ~0x7F) != 0) {
+        ++size;
+        value >>>= 7;
+      } // while
+      return size;
+    } // varintSize()
+
+    @Override
+    public String toString() {
+      StringBuilder out = new StringBuilder();
+      out.append(keyFrame ? "key #" : "#").append(sequence)
+          .append(" current ").append(current);
+      if (winner != GameState.NO_WINNER) {
+        out.append(" winner ").append(winner);
+      }
+      for (int i = 0; i < positions.length; ++i) {
+        out.append(' ').append(positions[i]).append('=').append(letters[i]);
+      } // for
+      for (int i = 0; i < players.length; ++i) {
+        out.append(" $").append(players[i]).append('=').append(balances[i]);
+      } // for
+      return out.toString();
+    } // toString()
+
+  } // Delta
+
+  // Spectator's bounded queue of deltas.
+  public final class Subscription {
+    /* Deltas not yet taken */
+    private final ArrayBlockingQueue<Delta> queue;
+
+    /* Whether the subscription has ended */
+    private volatile boolean ended = false;
+
+    /* Whether the spectator was dropped for falling behind */
+    private volatile boolean dropped = false;
+
+    Subscription(int queueSize) {
+      queue = new ArrayBlockingQueue<>(queueSize);
+    } // Subscription()
+
+    /**
+     * Wait for the next delta.
+     * @return next delta, or null once the subscription has ended
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Delta take() throws InterruptedException {
+      if (ended && queue.isEmpty()) {
+        return null;
+      }
+      Delta delta = queue.take();
+      return delta == END ? null : delta;
+    } // take()
+
+    /**
+     * Wait a limited time for the next delta.
+     * @param timeout longest time to wait
+     * @param unit unit of the timeout
+     * @return next delta, or null if none came or the subscription has ended
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Delta poll(long timeout, TimeUnit unit) throws InterruptedException {
+      if (ended && queue.isEmpty()) {
+        return null;
+      }
+      Delta delta = queue.poll(timeout, unit);
+      return delta == END ? null : delta;
+    } // poll()
+
+    /**
+     * Determine if the subscription has ended, whether closed or dropped.
+     * @return whether or not the subscription has ended
+     */
+    public boolean isEnded() {
+      return ended;
+    } // isEnded()
+
+    /**
+     * Determine if the spectator was dropped for falling behind.
+     * @return whether or not the spectator was dropped
+     */
+    public boolean isDropped() {
+      return dropped;
+    } // isDropped()
+
+    /**
+     * Stop receiving deltas. The broadcaster forgets the subscription when
+     * it next publishes.
+     */
+    public void close() {
+      end();
+    } // close()
+
+    /* Offer a delta; drop the spectator if it has fallen behind */
+    boolean offer(Delta delta) {
+      if (ended) {
+        return false;
+      }
+      if (!queue.offer(delta)) {
+        dropped = true;
+        numDropped.incrementAndGet();
+        end();
+        return false;
+      }
+      return true;
+    } // offer()
+
+    /* End the subscription, waking a waiting spectator */
+    void end() {
+      ended = true;
+      queue.clear();
+      queue.offer(END);
+    } // end()
+
+  } // Subscription
+
+  /**
+   * Create a broadcaster watching a game and start its fan-out thread.
+   * @param engine engine of the game, used on the game loop thread
+   */
+  public SpectatorBroadcaster(GameEngine engine) {
+    this.engine = engine;
+    this.state = engine.getState();
+    engine.addListener(this);
+    fanout = new Thread(this::fanOut, "spectator-fanout");
+    fanout.setDaemon(true);
+    fanout.start();
+  } // SpectatorBroadcaster()
+
+  /**
+   * Add a spectator. Its first delta is a key frame; a spectator added
+   * after close() is ended at once.
+   * @param queueSize deltas the spectator may fall behind by before it is
+   *   dropped
+   * @return subscription of the spectator
+   */
+  public Subscription subscribe(int queueSize) {
+    Subscription subscription = new Subscription(queueSize);
+    joining.add(subscription);
+    if (closed) {
+      // The fan-out thread may already have drained joining for good
+      subscription.end();
+    }
+    LockSupport.unpark(fanout);
+    return subscription;
+  } // subscribe()
+
+  /**
+   * Add a spectator with the default queue size.
+   * @return subscription of the spectator
+   */
+  public Subscription subscribe() {
+    return subscribe(DEFAULT_QUEUE_SIZE);
+  } // subscribe()
+
+  /**
+   * Retrieve the number of spectators.
+   * @return number of spectators receiving deltas
+   */
+  public int getNumSubscribers() {
+    return numSubscribers;
+  } // getNumSubscribers()
+
+  /**
+   * Retrieve the number of spectators dropped for falling behind.
+   * @return number of spectators dropped
+   */
+  public int getNumDropped() {
+    return numDropped.get();
+  } // getNumDropped()
+
+  /**
+   * Retrieve the number of deltas published, key frames excluded.
+   * @return number of deltas
+   */
+  public long getNumDeltas() {
+    return numDeltas;
+  } // getNumDeltas()
+
+  /**
+   * Retrieve the encoded bytes of the deltas published, key frames
+   * excluded.
+   * @return number of bytes
+   */
+  public long getDeltaBytes() {
+    return deltaBytes;
+  } // getDeltaBytes()
+
+  /**
+   * Publish what changed since the last tick, if anything. Call on the
+   * game loop thread.
+   */
+  public void tick() {
+    if ((!dirty && !resync) || state.getPuzzle() == null) {
+      return;
+    }
+    dirty = false;
+    Delta delta;
+    if (state.getPuzzle() != puzzle || state.getNumPlayers() != balances.length) {
+      // A new game: everyone starts again from a key frame
+      remember();
+      delta = keyFrame(sequence, current, winner, hidden, balances);
+    } else {
+      delta = delta();
+      if (resync) {
+        delta = keyFrame(sequence, current, winner, hidden, balances);
+      } else if (delta != null) {
+        ++numDeltas;
+        deltaBytes += delta.encodedSize();
+      }
+    }
+    if (delta != null) {
+      // A delta that cannot be handed over is replaced by a key frame later
+      resync = !handoff.offer(delta);
+      LockSupport.unpark(fanout);
+    }
+  } // tick()
+
+  /**
+   * Stop watching the game and end every subscription.
+   */
+  @Override
+  public void close() {
+    engine.removeListener(this);
+    closed = true;
+    fanout.interrupt();
+  } // close()
+
+  /* Offer every delta to the spectators until closed */
+  private void fanOut() {
+    try {
+      while (true) {
+        Delta delta = handoff.poll();
+        if (delta == null && joining.isEmpty()) {
+          LockSupport.park(this);
+          if (Thread.interrupted()) {
+            break;
+          }
+          continue;
+        }
+        if (delta != null) {
+          see(delta);
+          publish(delta);
+        }
+        Subscription subscription = joining.poll();
+        if (subscription != null) {
+          Delta frame = view == null ? null : keyFrame(viewLast.sequence,
+              viewLast.current, viewLast.winner, view, viewBalances);
+          do {
+            if (frame == null || subscription.offer(frame)) {
+              subscribers.add(subscription);
+            }
+            subscription = joining.poll();
+          } while (subscription != null);
+          numSubscribers = subscribers.size();
+        }
+      } // while
+    } finally {
+      for (Subscription subscription : subscribers) {
+        subscription.end();
+      } // for
+      subscribers.clear();
+      numSubscribers = 0;
+      for (Subscription subscription = joining.poll(); subscription != null;
+          subscription = joining.poll()) {
+        subscription.end();
+      } // for
+    }
+  } // fanOut()
+
+  /* Apply a delta to the fan-out thread's copy of the view */
+  private void see(Delta delta) {
+    if (delta.keyFrame) {
+      view = delta.letters.clone();
+      viewBalances = delta.balances.clone();
+    } else {
+      delta.applyTo(view);
+      for (int i = 0; i < delta.players.length; ++i) {
+        viewBalances[delta.players[i]] = delta.balances[i];
+      } // for
+    }
+    viewLast = delta;
+  } // see()
+
+  /* Offer a delta to every spectator, forgetting those that have ended */
+  private void publish(Delta delta) {
+    int kept = 0;
+    for (int i = 0; i < subscribers.size(); ++i) {
+      Subscription subscription = subscribers.get(i);
+      if (subscription.offer(delta)) {
+        subscribers.set(kept++, subscription);
+      }
+    } // for
+    while (subscribers.size() > kept) {
+      subscribers.remove(subscribers.size() - 1);
+    } // while
+    numSubscribers = kept;
+  } // publish()
+
+  /* Compare the game with what spectators saw and remember the difference */
+  private Delta delta() {
+    int numChanged = 0;
+    int[] positions = null;
+    for (int i = 0; i < hidden.length; ++i) {
+      char c = state.hiddenAt(i);
+      if (c != hidden[i]) {
+        if (positions == null) {
+          positions = new int[hidden.length - i];
+        }
+        positions[numChanged++] = i;
+        hidden[i] = c;
+      }
+    } // for
+    char[] letters = new char[numChanged];
+    for (int i = 0; i < numChanged; ++i) {
+      letters[i] = hidden[positions[i]];
+    } // for
+
+    int numPlayers = 0;
+    int[] players = new int[balances.length];
+    long[] changed = new long[balances.length];
+    for (int p = 0; p < balances.length; ++p) {
+      long balance = state.getBalance(p);
+      if (balance != balances[p]) {
+        balances[p] = balance;
+        players[numPlayers] = p;
+        changed[numPlayers++] = balance;
+      }
+    } // for
+
+    if (numChanged == 0 && numPlayers == 0 && state.getCurrent() == current
+        && state.getWinner() == winner) {
+      return null;
+    }
+    current = state.getCurrent();
+    winner = state.getWinner();
+    return new Delta(++sequence, false, current, winner,
+        numChanged == 0 ? new int[0] : Arrays.copyOf(positions, numChanged),
+        letters, Arrays.copyOf(players, numPlayers),
+        Arrays.copyOf(changed, numPlayers));
+  } // delta()
+
+  /* Remember the whole game as seen by spectators */
+  private void remember() {
+    puzzle = state.getPuzzle();
+    hidden = new char[puzzle == null ? 0 : puzzle.length()];
+    for (int i = 0; i < hidden.length; ++i) {
+      hidden[i] = state.hiddenAt(i);
+    } // for
+    balances = new long[state.getNumPlayers()];
+    for (int p = 0; p < balances.length; ++p) {
+      balances[p] = state.getBalance(p);
+    } // for
+    current = state.getNumPlayers() > 0 ? state.getCurrent() : 0;
+    winner = state.getWinner();
+    ++sequence;
+  } // remember()
+
+  /* Describe a view of the game from an empty board */
+  private static Delta keyFrame(long sequence, int current, int winner,
+      char[] board, long[] balances) {
+    int[] positions = new int[board.length];
+    for (int i = 0; i < positions.length; ++i) {
+      positions[i] = i;
+    } // for
+    int[] players = new int[balances.length];
+    for (int p = 0; p < players.length; ++p) {
+      players[p] = p;
+    } // for
+    return new Delta(sequence, true, current, winner, positions, board.clone(),
+        players, balances.clone());
+  } // keyFrame()
+
+  @Override
+  public void wheelValueSet(int money) {
+    dirty = true;
+  } // wheelValueSet()
+
+  @Override
+  public void letterGuessed(char letter, int found) {
+    dirty = true;
+  } // letterGuessed()
+
+  @Override
+  public void vowelBought() {
+    dirty = true;
+  } // vowelBought()
+
+  @Override
+  public void playerBankrupt(int player) {
+    dirty = true;
+  } // playerBankrupt()
+
+  @Override
+  public void solveAttempted(String guess, boolean correct) {
+    dirty = true;
+  } // solveAttempted()
+
+  @Override
+  public void turnChanged(int previous, int current) {
+    dirty = true;
+  } // turnChanged()
+
+  /**
+   * Stream games to spectators and measure what publishing costs the game
+   * loop. Every tick plays a few actions and publishes them. Accepts
+   * "--viewers N", "--slow N" viewers that lag, "--ticks N", "--tick-ms N"
+   * and "--moves N" actions per tick.
+   * @param args command line options
+   * @throws InterruptedException if interrupted while waiting for viewers
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int numViewers = 500;
+    int numSlow = 10;
+    int numTicks = 500;
+    long tickMillis = 10;
+    int movesPerTick = 3;
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--viewers")) {
+        numViewers = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--slow")) {
+        numSlow = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--ticks")) {
+        numTicks = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--tick-ms")) {
+        tickMillis = Long.parseLong(args[i + 1]);
+      } else if (args[i].equals("--moves")) {
+        movesPerTick = Integer.parseInt(args[i + 1]);
+      }
+    } // for
+    Puzzle[] puzzles = {
+      new Puzzle("The quick brown fox jumps over the lazy dog"),
+      new Puzzle("A penny saved is a penny earned"),
+      new Puzzle("Actions speak louder than words"),
+      new Puzzle("Better late than never"),
+      new Puzzle("Every cloud has a silver lining"),
+    };
+    Strategy[] seats = {
+      new FrequencyStrategy("never-buy", -1, 0.6),
+      new FrequencyStrategy("buy-at-250", 0, 0.6),
+      new FrequencyStrategy("buy-at-1000", 750, 0.6),
+    };
+    Wheel wheel = new Wheel();
+    SplittableRandom generator = new SplittableRandom(1);
+    GameState state = new GameState();
+    for (Strategy seat : seats) {
+      state.addPlayer(seat.getName());
+    } // for
+    state.setPuzzle(puzzles[0]);
+    GameEngine engine = new GameEngine(state);
+    SpectatorBroadcaster broadcaster = new SpectatorBroadcaster(engine);
+
+    char[][] boards = new char[numViewers][];
+    Subscription[] subscriptions = new Subscription[numViewers];
+    for (int v = 0; v < numViewers; ++v) {
+      int viewer = v;
+      boolean slow = v < numSlow;
+      subscriptions[v] = broadcaster.subscribe();
+      Thread thread = new Thread(() -> {
+        try {
+          for (Delta delta = subscriptions[viewer].take(); delta != null;
+              delta = subscriptions[viewer].take()) {
+            boards[viewer] = delta.applyTo(boards[viewer]);
+            if (slow) {
+              Thread.sleep(50);
+            }
+          } // for
+        } catch (InterruptedException interrupted) {
+          // Stop watching
+        }
+      });
+      thread.setDaemon(true);
+      thread.start();
+    } // for
+
+    long tickNanos = 0;
+    long maxTickNanos = 0;
+    int game = 0;
+    for (int t = 0; t < numTicks; ++t) {
+      for (int m = 0; m < movesPerTick; ++m) {
+        if (engine.isOver()) {
+          state.restart(puzzles[++game % puzzles.length]);
+        }
+        StrategySimulator.playGame(engine, seats, wheel, generator, 1);
+      } // for
+      long start = System.nanoTime();
+      broadcaster.tick();
+      long nanos = System.nanoTime() - start;
+      tickNanos += nanos;
+      maxTickNanos = Math.max(maxTickNanos, nanos);
+      Thread.sleep(tickMillis);
+    } // for
+
+    // Let the viewers catch up, then check that they see the game
+    for (int wait = 0; wait < 100
+        && (broadcaster.resync || !broadcaster.handoff.isEmpty()); ++wait) {
+      Thread.sleep(100);
+      broadcaster.tick();
+    } // for
+    Thread.sleep(200);
+    int inSync = 0;
+    char[] expected = new char[state.getPuzzle().length()];
+    for (int i = 0; i < expected.length; ++i) {
+      expected[i] = state.hiddenAt(i);
+    } // for
+    for (int v = 0; v < numViewers; ++v) {
+      if (!subscriptions[v].isDropped() && Arrays.equals(boards[v], expected)) {
+        ++inSync;
+      }
+    } // for
+    broadcaster.close();
+
+    System.out.printf("%d ticks of %d actions, %d games, %d viewers%n", numTicks,
+        movesPerTick, game + 1, numViewers);
+    System.out.printf("  tick: %.1f us on average, %.1f us at most%n",
+        tickNanos / 1e3 / numTicks, maxTickNanos / 1e3);
+    System.out.printf("  %,d deltas of %.1f bytes on average, key frame %d bytes%n",
+        broadcaster.getNumDeltas(),
+        broadcaster.getDeltaBytes() / (double) Math.max(1, broadcaster.getNumDeltas()),
+        keyFrame(0, 0, 0, expected, new long[seats.length]).encodedSize());
+    System.out.printf("  %d dropped for lagging, %d of %d in sync at the end%n",
+        broadcaster.getNumDropped(), inSync, numViewers);
+  } // main()
+
+} // SpectatorBroadcaster
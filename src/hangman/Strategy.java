@@ -0,0 +1,56 @@
+package hangman;
+
+/**
+ * Decisions made by a simulated player on its turn.
+ *
+ * The simulator asks for an action, then spins the wheel or charges for
+ * a vowel as needed and asks for the letter. Implementations are shared
+ * by every game a simulation thread plays and must not keep per-game
+ * state.
+ **/
+public interface Strategy {
+  /** Action that spins the wheel and guesses a consonant. */
+  int SPIN = 0;
+
+  /** Action that buys and guesses a vowel. */
+  int BUY_VOWEL = 1;
+
+  /** Action that attempts to solve the puzzle. */
+  int SOLVE = 2;
+
+  /**
+   * Retrieve the name of the strategy for reports.
+   * @return strategy name
+   */
+  String getName();
+
+  /**
+   * Choose the action for the current player. SPIN is only allowed when
+   * engine.canSpin() and BUY_VOWEL only when engine.canBuyVowel().
+   * @param engine engine of the game
+   * @return SPIN, BUY_VOWEL or SOLVE
+   */
+  int chooseAction(GameEngine engine);
+
+  /**
+   * Choose a consonant that has not been guessed.
+   * @param state state of the game
+   * @return upper case consonant
+   */
+  char chooseConsonant(GameState state);
+
+  /**
+   * Choose a vowel that has not been guessed.
+   * @param state state of the game
+   * @return upper case vowel
+   */
+  char chooseVowel(GameState state);
+
+  /**
+   * Produce a guess at the complete puzzle.
+   * @param state state of the game
+   * @return complete puzzle guess
+   */
+  String solve(GameState state);
+
+} // Strategy
@@ -0,0 +1,315 @@
+package hangman;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * Monte Carlo simulation of strategies playing against each other.
+ *
+ * Each game is seeded from the simulation seed and its game number, so
+ * results do not depend on the number of threads. Worker threads claim
+ * games in chunks, reuse one GameState each and keep their totals in
+ * local arrays, which are added to shared LongAdder/DoubleAdder cells
+ * after every chunk. Nothing is locked and the workers share no mutable
+ * state beyond the chunk counter, so throughput grows with cores.
+ *
+ * The opening player rotates from game to game, so every strategy moves
+ * first equally often and the results measure the strategy rather than
+ * its place at the table.
+ **/
+public class StrategySimulator {
+  /** Turns after which a game is abandoned as unsolved. */
+  public static final int MAX_TURNS = 1000;
+
+  /* Games claimed by a worker at a time */
+  private static final int CHUNK_SIZE = 4096;
+
+  /* z-score of a 95% confidence interval */
+  private static final double Z_95 = 1.96;
+
+  /* Strategy playing in each seat */
+  private final Strategy[] seats;
+
+  /* Puzzles drawn for the games */
+  private final Puzzle[] puzzles;
+
+  /* Wheel spun in every game */
+  private final Wheel wheel;
+
+  /* Wins of each strategy */
+  private final LongAdder[] wins;
+
+  /* Winnings of each strategy */
+  private final DoubleAdder[] winnings;
+
+  /* Squared winnings of each strategy */
+  private final DoubleAdder[] winningsSquared;
+
+  /* Games abandoned after MAX_TURNS */
+  private final LongAdder unsolved = new LongAdder();
+
+  /**
+   * Create a simulator for a given set of strategies.
+   * @param seats strategy playing in each seat, in turn order from the
+   *     seat that opens the game
+   * @param puzzles puzzles drawn at random for each game
+   * @param wheel wheel spun in every game
+   */
+  public StrategySimulator(Strategy[] seats, Puzzle[] puzzles, Wheel wheel) {
+    if (seats.length == 0 || puzzles.length == 0) {
+      throw new IllegalArgumentException("Need at least one seat and puzzle");
+    }
+    this.seats = seats.clone();
+    this.puzzles = puzzles.clone();
+    this.wheel = wheel;
+    wins = new LongAdder[seats.length];
+    winnings = new DoubleAdder[seats.length];
+    winningsSquared = new DoubleAdder[seats.length];
+    for (int s = 0; s < seats.length; ++s) {
+      wins[s] = new LongAdder();
+      winnings[s] = new DoubleAdder();
+      winningsSquared[s] = new DoubleAdder();
+    } // for
+  } // StrategySimulator()
+
+  /**
+   * Play one game to the end.
+   * @param engine engine of a game whose players sit in the given seats
+   * @param seats strategy playing in each seat
+   * @param wheel wheel to spin
+   * @param generator random number generator for the spins
+   * @param maxTurns actions after which the game is abandoned
+   * @return index of the winner, or GameState.NO_WINNER if abandoned
+   */
+  public static int playGame(GameEngine engine, Strategy[] seats, Wheel wheel,
+      RandomGenerator generator, int maxTurns) {
+    GameState state = engine.getState();
+    for (int turn = 0; turn < maxTurns && !engine.isOver(); ++turn) {
+      Strategy strategy = seats[state.getCurrent()];
+      switch (strategy.chooseAction(engine)) {
+        case Strategy.SPIN:
+          if (wheel.apply(engine, wheel.spin(generator))) {
+            engine.guessConsonant(strategy.chooseConsonant(state));
+          }
+          break;
+        case Strategy.BUY_VOWEL:
+          engine.buyVowel();
+          engine.guessVowel(strategy.chooseVowel(state));
+          break;
+        default:
+          engine.solve(strategy.solve(state));
+          break;
+      } // switch
+    } // for
+    return state.getWinner();
+  } // playGame()
+
+  /**
+   * Play a number of games and report the results. May be called more
+   * than once; results accumulate.
+   * @param numGames number of games to play
+   * @param seed seed of the first game
+   * @param numThreads number of worker threads
+   * @return report of every game played so far
+   * @throws InterruptedException if interrupted while waiting for workers
+   */
+  public Report run(long numGames, long seed, int numThreads)
+      throws InterruptedException {
+    AtomicLong nextGame = new AtomicLong();
+    ExecutorService workers = Executors.newFixedThreadPool(numThreads);
+    long start = System.nanoTime();
+    for (int t = 0; t < numThreads; ++t) {
+      workers.execute(() -> work(nextGame, numGames, seed));
+    } // for
+    workers.shutdown();
+    workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    return new Report(System.nanoTime() - start);
+  } // run()
+
+  /* Claim and play chunks of games until all have been played */
+  private void work(AtomicLong nextGame, long numGames, long seed) {
+    GameState state = new GameState();
+    for (Strategy strategy : seats) {
+      state.addPlayer(strategy.getName());
+    } // for
+    GameEngine engine = new GameEngine(state);
+
+    long[] localWins = new long[seats.length];
+    double[] localWinnings = new double[seats.length];
+    double[] localSquared = new double[seats.length];
+    long localUnsolved = 0;
+
+    long first;
+    while ((first = nextGame.getAndAdd(CHUNK_SIZE)) < numGames) {
+      long last = Math.min(first + CHUNK_SIZE, numGames);
+      for (long game = first; game < last; ++game) {
+        SplittableRandom generator = new SplittableRandom(seed + game);
+        state.restart(puzzles[generator.nextInt(puzzles.length)]);
+        state.setCurrent((int) (game % seats.length));
+        int winner = playGame(engine, seats, wheel, generator, MAX_TURNS);
+        if (winner == GameState.NO_WINNER) {
+          ++localUnsolved;
+        } else {
+          double money = state.getBalance(winner);
+          ++localWins[winner];
+          localWinnings[winner] += money;
+          localSquared[winner] += money * money;
+        }
+      } // for
+
+      // Publish the chunk and start the next one from zero
+      for (int s = 0; s < seats.length; ++s) {
+        wins[s].add(localWins[s]);
+        winnings[s].add(localWinnings[s]);
+        winningsSquared[s].add(localSquared[s]);
+        localWins[s] = 0;
+        localWinnings[s] = 0;
+        localSquared[s] = 0;
+      } // for
+      unsolved.add(localUnsolved);
+      localUnsolved = 0;
+    } // while
+  } // work()
+
+  // Snapshot of the results with 95% confidence intervals.
+  public class Report {
+    /* Time taken by the run */
+    private final long elapsedNanos;
+
+    /* Games played so far */
+    private final long games;
+
+    Report(long elapsedNanos) {
+      this.elapsedNanos = elapsedNanos;
+      long total = unsolved.sum();
+      for (LongAdder seatWins : wins) {
+        total += seatWins.sum();
+      } // for
+      games = total;
+    } // Report()
+
+    /**
+     * Retrieve the number of games played.
+     * @return number of games
+     */
+    public long getGames() {
+      return games;
+    } // getGames()
+
+    /**
+     * Retrieve the fraction of games a strategy solved.
+     * @param strategy index of the strategy
+     * @return solve rate
+     */
+    public double solveRate(int strategy) {
+      return games == 0 ? 0 : (double) wins[strategy].sum() / games;
+    } // solveRate()
+
+    /**
+     * Retrieve the half-width of the 95% interval of a solve rate.
+     * @param strategy index of the strategy
+     * @return margin of the solve rate
+     */
+    public double solveRateMargin(int strategy) {
+      double p = solveRate(strategy);
+      return games == 0 ? 0 : Z_95 * Math.sqrt(p * (1 - p) / games);
+    } // solveRateMargin()
+
+    /**
+     * Retrieve the expected winnings of a strategy per game, counting
+     * lost games as zero.
+     * @param strategy index of the strategy
+     * @return mean winnings
+     */
+    public double meanWinnings(int strategy) {
+      return games == 0 ? 0 : winnings[strategy].sum() / games;
+    } // meanWinnings()
+
+    /**
+     * Retrieve the half-width of the 95% interval of mean winnings.
+     * @param strategy index of the strategy
+     * @return margin of the mean winnings
+     */
+    public double meanWinningsMargin(int strategy) {
+      if (games < 2) {
+        return 0;
+      }
+      double mean = meanWinnings(strategy);
+      double variance = (winningsSquared[strategy].sum() - games * mean * mean)
+          / (games - 1);
+      return Z_95 * Math.sqrt(Math.max(variance, 0) / games);
+    } // meanWinningsMargin()
+
+    @Override
+    public String toString() {
+      StringBuilder out = new StringBuilder();
+      double seconds = elapsedNanos / 1e9;
+      out.append(String.format("%d games in %.2fs (%.0f games/s), %d unsolved%n",
+          games, seconds, games / seconds, unsolved.sum()));
+      for (int s = 0; s < seats.length; ++s) {
+        out.append(String.format("  %-16s solve rate %.4f +/- %.4f"
+            + "  winnings $%.2f +/- %.2f%n", seats[s].getName(),
+            solveRate(s), solveRateMargin(s), meanWinnings(s),
+            meanWinningsMargin(s)));
+      } // for
+      return out.toString();
+    } // toString()
+
+  } // Report
+
+  /**
+   * Simulate frequency strategies with different vowel reserves against
+   * each other. Accepts "--games N", "--seed N", "--threads N" and
+   * "--pack FILE" to draw puzzles from a puzzle pack.
+   * @param args command line options
+   * @throws IOException if the puzzle pack cannot be read
+   * @throws InterruptedException if interrupted while simulating
+   */
+  public static void main(String[] args)
+      throws IOException, InterruptedException {
+    long numGames = 1_000_000;
+    long seed = 0;
+    int numThreads = Runtime.getRuntime().availableProcessors();
+    Puzzle[] puzzles = {
+      new Puzzle("The quick brown fox jumps over the lazy dog"),
+      new Puzzle("A penny saved is a penny earned"),
+      new Puzzle("Actions speak louder than words"),
+      new Puzzle("Better late than never"),
+      new Puzzle("Every cloud has a silver lining"),
+    };
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--games")) {
+        numGames = Long.parseLong(args[i + 1]);
+      } else if (args[i].equals("--seed")) {
+        seed = Long.parseLong(args[i + 1]);
+      } else if (args[i].equals("--threads")) {
+        numThreads = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--pack")) {
+        try (PuzzlePack pack = new PuzzlePack(Paths.get(args[i + 1]))) {
+          puzzles = new Puzzle[Math.min(pack.size(), 100_000)];
+          SplittableRandom generator = new SplittableRandom(seed);
+          for (int p = 0; p < puzzles.length; ++p) {
+            puzzles[p] = pack.randomPuzzle(generator);
+          } // for
+        }
+      }
+    } // for
+
+    Strategy[] seats = {
+      new FrequencyStrategy("never-buy", -1, 0.6),
+      new FrequencyStrategy("buy-at-250", 0, 0.6),
+      new FrequencyStrategy("buy-at-1000", 750, 0.6),
+    };
+    StrategySimulator simulator = new StrategySimulator(seats, puzzles, new Wheel());
+    System.out.print(simulator.run(numGames, seed, numThreads));
+  } // main()
+
+} // StrategySimulator
@@ -0,0 +1,298 @@
+package hangman;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tournament of many tables of computer players playing rounds at once.
+ *
+ * Every round seats the entrants at random tables and plays each table's
+ * game headless with StrategySimulator.playGame(). The tables of a round
+ * are split into ForkJoin tasks, so idle workers steal tables from busy
+ * ones and a slow game never holds up a whole share of the round. At the
+ * end of each game every seat's balance is added to the player's total
+ * on a Leaderboard, which can be queried for the top players at any time
+ * without blocking the game threads.
+ *
+ * Seating and every game are seeded from the tournament seed, so results
+ * do not depend on the number of threads.
+ **/
+public class Tournament {
+  /* Tables played by a task without splitting */
+  private static final int TABLES_PER_TASK = 4;
+
+  /* Names of the entrants */
+  private final String[] names;
+
+  /* Strategy of each entrant */
+  private final Strategy[] strategies;
+
+  /* Players at a table */
+  private final int seatsPerTable;
+
+  /* Puzzles drawn for the games */
+  private final Puzzle[] puzzles;
+
+  /* Wheel spun in every game */
+  private final Wheel wheel = new Wheel();
+
+  /* Cumulative balances */
+  private final Leaderboard leaderboard;
+
+  /* Games played */
+  private final LongAdder games = new LongAdder();
+
+  /* Games abandoned after StrategySimulator.MAX_TURNS */
+  private final LongAdder unsolved = new LongAdder();
+
+  /**
+   * Create a tournament.
+   * @param strategies strategy of each entrant
+   * @param seatsPerTable players at a table
+   * @param puzzles puzzles drawn at random for each game
+   */
+  public Tournament(Strategy[] strategies, int seatsPerTable, Puzzle[] puzzles) {
+    if (strategies.length == 0 || puzzles.length == 0 || seatsPerTable < 1) {
+      throw new IllegalArgumentException("Need entrants, puzzles and seats");
+    }
+    this.strategies = strategies.clone();
+    this.seatsPerTable = seatsPerTable;
+    this.puzzles = puzzles.clone();
+    names = new String[strategies.length];
+    for (int p = 0; p < names.length; ++p) {
+      names[p] = "#" + p + " " + strategies[p].getName();
+    } // for
+    leaderboard = new Leaderboard(names);
+  } // Tournament()
+
+  /**
+   * Retrieve the live ranking of the entrants.
+   * @return leaderboard
+   */
+  public Leaderboard getLeaderboard() {
+    return leaderboard;
+  } // getLeaderboard()
+
+  /**
+   * Retrieve the number of games played so far.
+   * @return games played
+   */
+  public long getGames() {
+    return games.sum();
+  } // getGames()
+
+  /**
+   * Retrieve the number of games abandoned as unsolved.
+   * @return games abandoned
+   */
+  public long getUnsolved() {
+    return unsolved.sum();
+  } // getUnsolved()
+
+  /**
+   * Play rounds one after another, each spread over a pool.
+   * @param firstRound number of the first round, for seeding
+   * @param numRounds number of rounds to play
+   * @param seed seed of the tournament
+   * @param pool pool playing the tables
+   */
+  public void run(int firstRound, int numRounds, long seed, ForkJoinPool pool) {
+    int numTables = (names.length + seatsPerTable - 1) / seatsPerTable;
+    for (int round = firstRound; round < firstRound + numRounds; ++round) {
+      int[] seating = seat(round, seed);
+      pool.invoke(new TableTask(round, seed, seating, 0, numTables));
+    } // for
+  } // run()
+
+  /* Shuffle the entrants for a round */
+  private int[] seat(int round, long seed) {
+    SplittableRandom generator = new SplittableRandom(seed * 31 + round);
+    int[] seating = new int[names.length];
+    for (int p = 0; p < seating.length; ++p) {
+      seating[p] = p;
+    } // for
+    for (int p = seating.length - 1; p > 0; --p) {
+      int other = generator.nextInt(p + 1);
+      int swap = seating[p];
+      seating[p] = seating[other];
+      seating[other] = swap;
+    } // for
+    return seating;
+  } // seat()
+
+  /* Play the game of one table and credit every seat */
+  private void playTable(int round, long seed, int[] seating, int table) {
+    int first = table * seatsPerTable;
+    int numSeats = Math.min(seatsPerTable, seating.length - first);
+    GameState state = new GameState();
+    Strategy[] seats = new Strategy[numSeats];
+    for (int s = 0; s < numSeats; ++s) {
+      int player = seating[first + s];
+      state.addPlayer(names[player]);
+      seats[s] = strategies[player];
+    } // for
+    SplittableRandom generator =
+        new SplittableRandom((seed * 31 + round) * 1_000_003L + table);
+    state.setPuzzle(puzzles[generator.nextInt(puzzles.length)]);
+    GameEngine engine = new GameEngine(state);
+    int winner = StrategySimulator.playGame(engine, seats, wheel, generator,
+        StrategySimulator.MAX_TURNS);
+    if (winner == GameState.NO_WINNER) {
+      unsolved.increment();
+    }
+    for (int s = 0; s < numSeats; ++s) {
+      leaderboard.add(seating[first + s], state.getBalance(s));
+    } // for
+    games.increment();
+  } // playTable()
+
+  // Task playing a range of a round's tables, split in halves until small.
+  private class TableTask extends RecursiveAction {
+    /* Round being played */
+    private final int round;
+
+    /* Seed of the tournament */
+    private final long seed;
+
+    /* Entrants in seat order */
+    private final int[] seating;
+
+    /* First table of the range */
+    private final int from;
+
+    /* Table after the range */
+    private final int to;
+
+    /* Create a task for a range of tables */
+    TableTask(int round, long seed, int[] seating, int from, int to) {
+      this.round = round;
+      this.seed = seed;
+      this.seating = seating;
+      this.from = from;
+      this.to = to;
+    } // TableTask()
+
+    @Override
+    protected void compute() {
+      if (to - from <= TABLES_PER_TASK) {
+        for (int table = from; table < to; ++table) {
+          playTable(round, seed, seating, table);
+        } // for
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new TableTask(round, seed, seating, from, middle),
+          new TableTask(round, seed, seating, middle, to));
+    } // compute()
+
+  } // TableTask
+
+  /**
+   * Run a tournament and print the leaderboard while it plays. Accepts
+   * "--entrants N", "--seats N" for the players at a table, "--rounds N",
+   * "--seed N", "--threads N" for the pool size, "--top N" for the size
+   * of the leaderboard shown, "--every MS" for how often it is shown and
+   * "--pack FILE" to draw puzzles from a puzzle pack.
+   * @param args command line options
+   * @throws IOException if the puzzle pack cannot be read
+   * @throws InterruptedException if interrupted while waiting for rounds
+   */
+  public static void main(String[] args)
+      throws IOException, InterruptedException {
+    int numEntrants = 600;
+    int seatsPerTable = 3;
+    int numRounds = 200;
+    long seed = 0;
+    int numThreads = Runtime.getRuntime().availableProcessors();
+    int topN = 10;
+    long every = 1000;
+    Path packPath = null;
+    Puzzle[] puzzles = {
+      new Puzzle("The quick brown fox jumps over the lazy dog"),
+      new Puzzle("A penny saved is a penny earned"),
+      new Puzzle("Actions speak louder than words"),
+      new Puzzle("Better late than never"),
+      new Puzzle("Every cloud has a silver lining"),
+    };
+    for (int i = 0; i + 1 < args.length; i += 2) {
+      if (args[i].equals("--entrants")) {
+        numEntrants = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--seats")) {
+        seatsPerTable = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--rounds")) {
+        numRounds = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--seed")) {
+        seed = Long.parseLong(args[i + 1]);
+      } else if (args[i].equals("--threads")) {
+        numThreads = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--top")) {
+        topN = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("--every")) {
+        every = Long.parseLong(args[i + 1]);
+      } else if (args[i].equals("--pack")) {
+        packPath = Paths.get(args[i + 1]);
+      }
+    } // for
+    if (packPath != null) {
+      // Sampled after every option is read, so "--seed" may come later
+      try (PuzzlePack pack = new PuzzlePack(packPath)) {
+        puzzles = new Puzzle[Math.min(pack.size(), 100_000)];
+        SplittableRandom generator = new SplittableRandom(seed);
+        for (int p = 0; p < puzzles.length; ++p) {
+          puzzles[p] = pack.randomPuzzle(generator);
+        } // for
+      }
+    }
+
+    // Entrants differ in when they buy vowels and when they solve
+    long[] reserves = { -1, 0, 250, 500, 750, 1000 };
+    double[] recognizeAt = { 0.5, 0.6, 0.7, 0.8 };
+    Strategy[] strategies = new Strategy[numEntrants];
+    for (int p = 0; p < numEntrants; ++p) {
+      long reserve = reserves[p % reserves.length];
+      double recognize = recognizeAt[p / reserves.length % recognizeAt.length];
+      strategies[p] = new FrequencyStrategy("reserve " + reserve + " solve at "
+          + recognize, reserve, recognize);
+    } // for
+
+    Tournament tournament = new Tournament(strategies, seatsPerTable, puzzles);
+    ForkJoinPool pool = new ForkJoinPool(numThreads);
+    long startSeed = seed;
+    int rounds = numRounds;
+    Thread runner = new Thread(() -> tournament.run(0, rounds, startSeed, pool),
+        "tournament");
+    long start = System.nanoTime();
+    runner.start();
+
+    // Query the leaderboard while the games are played
+    long maxQueryNanos = 0;
+    long numQueries = 0;
+    while (runner.isAlive()) {
+      runner.join(every);
+      long queryStart = System.nanoTime();
+      List<Leaderboard.Standing> top = tournament.getLeaderboard().top(topN);
+      maxQueryNanos = Math.max(maxQueryNanos, System.nanoTime() - queryStart);
+      ++numQueries;
+      System.out.printf("after %d games: %s%n", tournament.getGames(), top);
+    } // while
+    pool.shutdown();
+
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.printf("%d rounds, %d games (%d unsolved) in %.2fs, %.0f games/s on %d threads%n",
+        numRounds, tournament.getGames(), tournament.getUnsolved(), seconds,
+        tournament.getGames() / seconds, numThreads);
+    System.out.printf("%d leaderboard queries, slowest %.1fus%n", numQueries,
+        maxQueryNanos / 1e3);
+    List<Leaderboard.Standing> top = tournament.getLeaderboard().top(topN);
+    for (int r = 0; r < top.size(); ++r) {
+      System.out.printf("%3d. %s%n", r + 1, top.get(r));
+    } // for
+  } // main()
+
+} // Tournament
@@ -0,0 +1,107 @@
+package hangman;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Wheel of money values and penalty spaces.
+ *
+ * A space is stored as an int: a positive value is the money won per
+ * correct consonant, and BANKRUPT and LOSE_A_TURN mark the penalty spaces.
+ * A Wheel is immutable and may be shared by any number of games.
+ **/
+public class Wheel {
+  /** Space that empties the balance of the spinning player. */
+  public static final int BANKRUPT = -1;
+
+  /** Space that passes the turn. */
+  public static final int LOSE_A_TURN = -2;
+
+  /** Spaces of the standard wheel, clockwise. */
+  public static final int[] STANDARD = { 2500, 600, 700, 600, 650, 500, 700,
+    BANKRUPT, 600, 550, 500, 600, BANKRUPT, 650, 700, LOSE_A_TURN, 800, 500,
+    650, 500, 900, BANKRUPT, 3500, 500 };
+
+  /* Spaces of this wheel, clockwise */
+  private final int[] spaces;
+
+  /**
+   * Create the standard wheel.
+   */
+  public Wheel() {
+    this(STANDARD);
+  } // Wheel()
+
+  /**
+   * Create a wheel with given spaces.
+   * @param spaces money values, BANKRUPT or LOSE_A_TURN, clockwise
+   */
+  public Wheel(int[] spaces) {
+    if (spaces.length == 0) {
+      throw new IllegalArgumentException("Wheel has no spaces");
+    }
+    this.spaces = spaces.clone();
+  } // Wheel()
+
+  /**
+   * Retrieve the number of spaces on the wheel.
+   * @return number of spaces
+   */
+  public int size() {
+    return spaces.length;
+  } // size()
+
+  /**
+   * Retrieve a space of the wheel.
+   * @param index index of the space, clockwise
+   * @return money value, BANKRUPT or LOSE_A_TURN
+   */
+  public int space(int index) {
+    return spaces[index];
+  } // space()
+
+  /**
+   * Spin the wheel.
+   * @param generator random number generator, seeded for repeatable spins
+   * @return index of the space landed on
+   */
+  public int spin(RandomGenerator generator) {
+    return generator.nextInt(spaces.length);
+  } // spin()
+
+  /**
+   * Apply the space landed on to a game: penalties are applied at once,
+   * money values become the value of the next consonant.
+   * @param engine engine of the game
+   * @param index index of the space landed on
+   * @return whether or not the player may now guess a consonant
+   */
+  public boolean apply(GameEngine engine, int index) {
+    int space = spaces[index];
+    if (space == BANKRUPT) {
+      engine.bankrupt();
+      return false;
+    }
+    if (space == LOSE_A_TURN) {
+      engine.loseATurn();
+      return false;
+    }
+    engine.setToAdd(space);
+    return true;
+  } // apply()
+
+  /**
+   * Describe a space for display.
+   * @param space money value, BANKRUPT or LOSE_A_TURN
+   * @return text shown on the space
+   */
+  public static String label(int space) {
+    if (space == BANKRUPT) {
+      return "BANKRUPT";
+    }
+    if (space == LOSE_A_TURN) {
+      return "LOSE A TURN";
+    }
+    return "$" + space;
+  } // label()
+
+} // Wheel
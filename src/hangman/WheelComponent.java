@@ -0,0 +1,213 @@
+package hangman;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.function.IntConsumer;
+import java.util.random.RandomGenerator;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * Painted, animated view of a Wheel.
+ *
+ * The face of the wheel is rendered into an image once; every animation
+ * frame only draws that image rotated, plus a fixed pointer and the last
+ * result. A Swing timer drives the animation at about 60 frames per
+ * second, so a spin never creates components or blocks the EDT.
+ **/
+public class WheelComponent extends JComponent {
+  /** Delay between animation frames, about 60 frames per second. */
+  public static final int FRAME_MILLIS = 16;
+
+  /** Duration of a spin. */
+  public static final long SPIN_NANOS = 3_000_000_000L;
+
+  /* Diameter of the wheel */
+  private static final int DIAMETER = 260;
+
+  /* Margin around the wheel for the pointer */
+  private static final int MARGIN = 20;
+
+  /* Full turns made before settling on the result */
+  private static final int TURNS = 4;
+
+  /* Colours of alternating money spaces */
+  private static final Color[] SPACE_COLORS = {
+    new Color(0xE5, 0x39, 0x35), new Color(0xFB, 0x8C, 0x00),
+    new Color(0xFD, 0xD8, 0x35), new Color(0x43, 0xA0, 0x47),
+    new Color(0x1E, 0x88, 0xE5), new Color(0x8E, 0x24, 0xAA) };
+
+  /* Wheel being shown */
+  private final Wheel wheel;
+
+  /* Pre-rendered face of the wheel */
+  private final BufferedImage face;
+
+  /* Pointer at the top of the wheel */
+  private final Polygon pointer;
+
+  /* Timer that drives the animation */
+  private final Timer timer;
+
+  /* Clockwise rotation of the wheel, in radians */
+  private double angle = 0;
+
+  /* Rotation at the start of the current spin */
+  private double startAngle;
+
+  /* Rotation at the end of the current spin */
+  private double endAngle;
+
+  /* Time the current spin started */
+  private long startNanos;
+
+  /* Space the current spin lands on */
+  private int target;
+
+  /* Called with the landed space when the spin stops */
+  private IntConsumer onStop;
+
+  /* Text of the last result */
+  private String result = "";
+
+  /**
+   * Create a view of a given wheel.
+   * @param wheel wheel to show
+   */
+  public WheelComponent(Wheel wheel) {
+    this.wheel = wheel;
+    face = renderFace();
+    int center = MARGIN + DIAMETER / 2;
+    pointer = new Polygon(new int[] { center - 10, center + 10, center },
+        new int[] { 0, 0, MARGIN + 15 }, 3);
+    timer = new Timer(FRAME_MILLIS, event -> step());
+    timer.setCoalesce(true);
+    setPreferredSize(new Dimension(DIAMETER + 2 * MARGIN,
+        DIAMETER + 2 * MARGIN + 20));
+  } // WheelComponent()
+
+  /**
+   * Spin the wheel to a random space.
+   * @param generator random number generator, seeded for repeatable spins
+   * @param onStop called on the EDT with the landed space
+   */
+  public void spin(RandomGenerator generator, IntConsumer onStop) {
+    if (timer.isRunning()) {
+      throw new IllegalStateException("Wheel is already spinning");
+    }
+    this.onStop = onStop;
+    target = wheel.spin(generator);
+    result = "";
+
+    // Settle with the middle of the target space under the pointer
+    double space = 2 * Math.PI / wheel.size();
+    double rest = -(target + 0.5) * space - angle;
+    rest -= 2 * Math.PI * Math.floor(rest / (2 * Math.PI));
+    startAngle = angle;
+    endAngle = angle + TURNS * 2 * Math.PI + rest;
+    startNanos = System.nanoTime();
+    timer.start();
+  } // spin()
+
+  /**
+   * Determine if the wheel is spinning.
+   * @return whether or not a spin is in progress
+   */
+  public boolean isSpinning() {
+    return timer.isRunning();
+  } // isSpinning()
+
+  /**
+   * Paint the rotated face, the pointer and the last result.
+   * @param g graphics to paint with
+   */
+  @Override
+  protected void paintComponent(Graphics g) {
+    Graphics2D g2 = (Graphics2D) g;
+    double center = MARGIN + DIAMETER / 2.0;
+    AffineTransform saved = g2.getTransform();
+    g2.rotate(angle, center, center);
+    g2.drawImage(face, MARGIN, MARGIN, null);
+    g2.setTransform(saved);
+
+    g2.setColor(Color.BLACK);
+    g2.fillPolygon(pointer);
+    FontMetrics metrics = g2.getFontMetrics();
+    g2.drawString(result, (int) center - metrics.stringWidth(result) / 2,
+        DIAMETER + 2 * MARGIN + 15);
+  } // paintComponent()
+
+  /* Advance the animation by one frame */
+  private void step() {
+    double t = Math.min(1.0, (System.nanoTime() - startNanos) / (double) SPIN_NANOS);
+    double eased = 1 - Math.pow(1 - t, 3);
+    angle = startAngle + (endAngle - startAngle) * eased;
+    if (t >= 1.0) {
+      timer.stop();
+      angle %= 2 * Math.PI;
+      result = Wheel.label(wheel.space(target));
+      onStop.accept(target);
+    }
+    repaint();
+  } // step()
+
+  /* Render every space of the wheel into one image */
+  private BufferedImage renderFace() {
+    BufferedImage image = new BufferedImage(DIAMETER, DIAMETER,
+        BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g2 = image.createGraphics();
+    g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+        RenderingHints.VALUE_ANTIALIAS_ON);
+    g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+        RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g2.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 11));
+    FontMetrics metrics = g2.getFontMetrics();
+
+    double spaceDegrees = 360.0 / wheel.size();
+    double radius = DIAMETER / 2.0;
+    for (int i = 0; i < wheel.size(); ++i) {
+      int space = wheel.space(i);
+      Color color;
+      if (space == Wheel.BANKRUPT) {
+        color = Color.BLACK;
+      } else if (space == Wheel.LOSE_A_TURN) {
+        color = Color.WHITE;
+      } else {
+        color = SPACE_COLORS[i % SPACE_COLORS.length];
+      }
+
+      // Arcs run counter-clockwise from 3 o'clock; spaces run clockwise
+      // from 12 o'clock
+      int start = (int) Math.round(90 - (i + 1) * spaceDegrees);
+      int extent = (int) Math.round(90 - i * spaceDegrees) - start;
+      g2.setColor(color);
+      g2.fillArc(0, 0, DIAMETER, DIAMETER, start, extent);
+
+      String label = Wheel.label(space);
+      AffineTransform saved = g2.getTransform();
+      // Turn the middle of the space to 3 o'clock and write outwards
+      g2.rotate(Math.toRadians((i + 0.5) * spaceDegrees - 90), radius, radius);
+      g2.setColor(color == Color.BLACK ? Color.WHITE : Color.BLACK);
+      g2.drawString(label,
+          (float) (DIAMETER - 6 - metrics.stringWidth(label)),
+          (float) (radius + metrics.getAscent() / 2.0 - 1));
+      g2.setTransform(saved);
+    } // for
+
+    g2.setColor(Color.DARK_GRAY);
+    g2.setStroke(new BasicStroke(2));
+    g2.drawOval(1, 1, DIAMETER - 2, DIAMETER - 2);
+    g2.dispose();
+    return image;
+  } // renderFace()
+
+} // WheelComponent
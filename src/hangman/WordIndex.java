@@ -0,0 +1,493 @@
+package hangman;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Dictionary that answers "which words fit this partly revealed word"
+ * questions.
+ *
+ * Words are bucketed by length and stored as a DAWG: a trie whose
+ * identical subtrees are merged, so common prefixes and suffixes are kept
+ * once. Each node is a 26-bit child mask plus the index of its first child
+ * in a shared child table, all in primitive arrays. A pattern uses
+ * Puzzle.HIDDEN for hidden letters; a query only walks the branches that
+ * agree with the revealed letters and avoid the excluded ones.
+ *
+ * As in the game, a hidden position can never hold a letter that is
+ * revealed elsewhere in the pattern, since a guess reveals every
+ * occurrence.
+ *
+ * Every word below a node has the same length, so a node is always met at
+ * the same position of a pattern. Counting queries remember the result of
+ * each node with at least 64 words below it, so a merged suffix is counted
+ * once per query however many prefixes lead to it; only the smaller
+ * subtrees are walked word by word. A query therefore costs about one
+ * visit per node it reaches, plus at most 64 words per edge into a small
+ * subtree, rather than one walk per matching word. The results live in a
+ * per-thread memo of up to 27 ints per remembered node, reused by the next
+ * query on that thread. matches() still costs one walk per word returned,
+ * which its limit bounds.
+ *
+ * Queries do not allocate once the memo has grown, apart from the words
+ * returned by matches(), and the index is safe to share between threads
+ * once built.
+ **/
+public class WordIndex {
+  /** Longest word kept in the index. */
+  public static final int MAX_LENGTH = 64;
+
+  /* Node reached after the last letter of a word */
+  private static final int TERMINAL = 0;
+
+  /* Depth down to which matches() checks its deadline */
+  private static final int DEADLINE_DEPTH = 3;
+
+  /* Fewest words below a node for counting queries to memoize it */
+  private static final int MEMO_WORDS = 64;
+
+  /* Child mask of each node */
+  private int[] masks = new int[1024];
+
+  /* Index of each node's first child in the child table */
+  private int[] firstChild = new int[1024];
+
+  /* Number of words below each node */
+  private int[] counts = new int[1024];
+
+  /* Child node indexes, grouped by parent in letter order */
+  private int[] children = new int[1024];
+
+  /* Number of nodes, including the terminal node */
+  private int numNodes = 1;
+
+  /* Number of entries in the child table */
+  private int numChildren = 0;
+
+  /* Root node for each word length, or -1 if there are no such words */
+  private final int[] roots = new int[MAX_LENGTH + 1];
+
+  /* Number of distinct words */
+  private final int size;
+
+  /* Memo of each thread's counting queries */
+  private final ThreadLocal<Memo> memos = ThreadLocal.withInitial(Memo::new);
+
+  // Results of the nodes visited by one counting query, reused by a thread.
+  private final class Memo {
+    /* Query that filled in each node's slot */
+    private final int[] stamps = new int[numNodes];
+
+    /* Slot of each node's result in results */
+    private final int[] slots = new int[numNodes];
+
+    /* Word count of each slot, followed by 26 letter counts when counting
+       letters */
+    private int[] results = new int[1024];
+
+    /* Number of ints in use in results */
+    private int used;
+
+    /* Ints per slot */
+    private int width;
+
+    /* Current query, never 0 */
+    private int query = 0;
+
+    /* Start a query, forgetting the results of the last one */
+    void start(boolean letters) {
+      if (++query == 0) {
+        Arrays.fill(stamps, 0);
+        query = 1;
+      }
+      width = letters ? 1 + Puzzle.NUM_LETTERS : 1;
+      used = 0;
+    } // start()
+
+    /* Add a zeroed slot */
+    int allocate() {
+      if (used + width > results.length) {
+        results = Arrays.copyOf(results,
+            Math.max(results.length * 2, used + width));
+      }
+      int slot = used;
+      Arrays.fill(results, slot, slot + width, 0);
+      used += width;
+      return slot;
+    } // allocate()
+
+    /* Retrieve the slot of a node, or -1 if not visited by this query */
+    int lookup(int node) {
+      return stamps[node] == query ? slots[node] : -1;
+    } // lookup()
+
+    /* Record the slot of a node */
+    void remember(int node, int slot) {
+      stamps[node] = query;
+      slots[node] = slot;
+    } // remember()
+
+  } // Memo
+
+  /**
+   * Build an index over a collection of words. Words are upper cased and
+   * any word with characters other than A-Z is skipped.
+   * @param words words to index
+   */
+  public WordIndex(Collection<String> words) {
+    ArrayList<ArrayList<String>> buckets = new ArrayList<>();
+    for (int len = 0; len <= MAX_LENGTH; ++len) {
+      buckets.add(new ArrayList<>());
+    } // for
+    for (String word : words) {
+      String upper = word.trim().toUpperCase();
+      if (!upper.isEmpty() && upper.length() <= MAX_LENGTH && isWord(upper)) {
+        buckets.get(upper.length()).add(upper);
+      }
+    } // for
+
+    masks[TERMINAL] = 0;
+    counts[TERMINAL] = 1;
+    HashMap<String, Integer> unique = new HashMap<>();
+    int total = 0;
+    for (int len = 0; len <= MAX_LENGTH; ++len) {
+      ArrayList<String> bucket = buckets.get(len);
+      if (bucket.isEmpty()) {
+        roots[len] = -1;
+        continue;
+      }
+      String[] sorted = bucket.stream().sorted().distinct().toArray(String[]::new);
+      bucket.clear();
+      roots[len] = build(sorted, 0, sorted.length, 0, unique);
+      total += sorted.length;
+    } // for
+    size = total;
+
+    masks = Arrays.copyOf(masks, numNodes);
+    firstChild = Arrays.copyOf(firstChild, numNodes);
+    counts = Arrays.copyOf(counts, numNodes);
+    children = Arrays.copyOf(children, numChildren);
+  } // WordIndex()
+
+  /**
+   * Build an index over a word list with one word per line.
+   * @param file word list
+   * @return index of the words in the list
+   * @throws IOException if the file cannot be read
+   */
+  public static WordIndex load(Path file) throws IOException {
+    ArrayList<String> words = new ArrayList<>();
+    try (BufferedReader in = Files.newBufferedReader(file)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        words.add(line);
+      } // while
+    }
+    return new WordIndex(words);
+  } // load()
+
+  /**
+   * Retrieve the number of distinct words in the index.
+   * @return number of words
+   */
+  public int size() {
+    return size;
+  } // size()
+
+  /**
+   * Retrieve the number of nodes in the index, a measure of its memory.
+   * @return number of nodes
+   */
+  public int numNodes() {
+    return numNodes;
+  } // numNodes()
+
+  /**
+   * Count the words that match a pattern.
+   * @param pattern revealed letters and Puzzle.HIDDEN markers
+   * @param excluded letters known not to be hidden, see Letters
+   * @return number of matching words
+   */
+  public int count(char[] pattern, int excluded) {
+    return letterFrequencies(pattern, 0, pattern.length, excluded, null);
+  } // count()
+
+  /**
+   * Count the matching words that could hold each letter in a hidden
+   * position.
+   * @param pattern revealed letters and Puzzle.HIDDEN markers
+   * @param excluded letters known not to be hidden, see Letters
+   * @param freq 26 counters, cleared and then filled in letter order
+   * @return number of matching words
+   */
+  public int letterFrequencies(char[] pattern, int excluded, int[] freq) {
+    return letterFrequencies(pattern, 0, pattern.length, excluded, freq);
+  } // letterFrequencies()
+
+  /**
+   * Count the words that match part of a pattern, and for each letter the
+   * matching words that hold it in a hidden position.
+   * @param pattern revealed letters and Puzzle.HIDDEN markers
+   * @param start first position of the word in the pattern
+   * @param length length of the word
+   * @param excluded letters known not to be hidden, see Letters
+   * @param freq 26 counters to fill, or null to only count
+   * @return number of matching words
+   */
+  public int letterFrequencies(char[] pattern, int start, int length,
+      int excluded, int[] freq) {
+    if (freq != null) {
+      Arrays.fill(freq, 0, Puzzle.NUM_LETTERS, 0);
+    }
+    int root = rootFor(length);
+    if (root < 0) {
+      return 0;
+    }
+    int blocked = excluded | revealed(pattern, start, length);
+    Memo memo = memos.get();
+    memo.start(freq != null);
+    int slot = search(root, pattern, start, start + length, blocked, memo);
+    if (freq != null) {
+      System.arraycopy(memo.results, slot + 1, freq, 0, Puzzle.NUM_LETTERS);
+    }
+    return memo.results[slot];
+  } // letterFrequencies()
+
+  /**
+   * Find the words that match a pattern.
+   * @param pattern revealed letters and Puzzle.HIDDEN markers
+   * @param excluded letters known not to be hidden, see Letters
+   * @param limit largest number of words to return
+   * @return matching words in alphabetical order
+   */
+  public List<String> matches(char[] pattern, int excluded, int limit) {
+    return matches(pattern, excluded, limit, Long.MAX_VALUE);
+  } // matches()
+
+  /**
+   * Find the words that match a pattern, unless it takes too long.
+   * @param pattern revealed letters and Puzzle.HIDDEN markers
+   * @param excluded letters known not to be hidden, see Letters
+   * @param limit largest number of words to return
+   * @param deadline System.nanoTime() after which the search is abandoned
+   * @return matching words in alphabetical order, or null if abandoned
+   */
+  public List<String> matches(char[] pattern, int excluded, int limit,
+      long deadline) {
+    ArrayList<String> found = new ArrayList<>();
+    int root = rootFor(pattern.length);
+    if (root >= 0 && limit > 0) {
+      int blocked = excluded | revealed(pattern, 0, pattern.length);
+      if (!collect(root, pattern, 0, blocked, new char[pattern.length], found,
+          limit, deadline)) {
+        return null;
+      }
+    }
+    return found;
+  } // matches()
+
+  /* Retrieve the root for a word length, or -1 */
+  private int rootFor(int length) {
+    return length < 0 || length > MAX_LENGTH ? -1 : roots[length];
+  } // rootFor()
+
+  /* Determine if a word only has the letters A-Z */
+  private static boolean isWord(String word) {
+    for (int i = 0; i < word.length(); ++i) {
+      char c = word.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        return false;
+      }
+    } // for
+    return true;
+  } // isWord()
+
+  /* Collect the set of letters revealed in part of a pattern */
+  private static int revealed(char[] pattern, int start, int length) {
+    int set = 0;
+    for (int i = start; i < start + length; ++i) {
+      set |= Letters.bit(pattern[i]);
+    } // for
+    return set;
+  } // revealed()
+
+  /* Find the child of a node for a letter index */
+  private int child(int node, int letter) {
+    int below = masks[node] & ((1 << letter) - 1);
+    return children[firstChild[node] + Integer.bitCount(below)];
+  } // child()
+
+  /* Count matches below a node into a memo slot and return the slot; when
+     counting letters, the slot also counts the words below holding each
+     letter in a hidden position */
+  private int search(int node, char[] pattern, int pos, int end,
+      int blocked, Memo memo) {
+    int slot = memo.lookup(node);
+    if (slot < 0) {
+      slot = memo.allocate();
+      add(node, pattern, pos, end, blocked, 0, slot, memo);
+      memo.remember(node, slot);
+    }
+    return slot;
+  } // search()
+
+  /* Add the matches below a node to a memo slot, given the hidden letters
+     used between the slot's node and this one */
+  private void add(int node, char[] pattern, int pos, int end, int blocked,
+      int used, int slot, Memo memo) {
+    if (pos == end) {
+      int[] results = memo.results;
+      ++results[slot];
+      if (memo.width > 1) {
+        for (int rest = used; rest != 0; rest &= rest - 1) {
+          ++results[slot + 1 + Integer.numberOfTrailingZeros(rest)];
+        } // for
+      }
+      return;
+    }
+
+    int mask = masks[node];
+    char c = pattern[pos];
+    if (c != Puzzle.HIDDEN) {
+      int letter = Puzzle.letterIndex(c);
+      if (letter >= 0 && (mask & (1 << letter)) != 0) {
+        visit(child(node, letter), pattern, pos + 1, end, blocked, used, slot,
+            memo);
+      }
+      return;
+    }
+
+    // Without counters, a node whose remaining letters are all hidden and
+    // unrestricted matches every word below it
+    if (memo.width == 1 && blocked == 0 && allHidden(pattern, pos, end)) {
+      memo.results[slot] += counts[node];
+      return;
+    }
+    for (int rest = mask & ~blocked; rest != 0; rest &= rest - 1) {
+      int letter = Integer.numberOfTrailingZeros(rest);
+      visit(child(node, letter), pattern, pos + 1, end, blocked,
+          used | (1 << letter), slot, memo);
+    } // for
+  } // add()
+
+  /* Add the matches below a node to a memo slot, through the node's own
+     memo slot unless so few words are below that walking them is cheaper */
+  private void visit(int node, char[] pattern, int pos, int end, int blocked,
+      int used, int slot, Memo memo) {
+    if (counts[node] < MEMO_WORDS) {
+      add(node, pattern, pos, end, blocked, used, slot, memo);
+      return;
+    }
+    int below = search(node, pattern, pos, end, blocked, memo);
+    // Read after the search, which may have grown the results
+    int[] results = memo.results;
+    if (results[below] == 0) {
+      return;
+    }
+    results[slot] += results[below];
+    if (memo.width > 1) {
+      for (int l = 0; l < Puzzle.NUM_LETTERS; ++l) {
+        results[slot + 1 + l] += (used & (1 << l)) != 0 ? results[below]
+            : results[below + 1 + l];
+      } // for
+    }
+  } // visit()
+
+  /* Determine if every position in a range is hidden */
+  private static boolean allHidden(char[] pattern, int from, int end) {
+    for (int i = from; i < end; ++i) {
+      if (pattern[i] != Puzzle.HIDDEN) {
+        return false;
+      }
+    } // for
+    return true;
+  } // allHidden()
+
+  /* Collect matching words below a node, false if the deadline passed */
+  private boolean collect(int node, char[] pattern, int pos, int blocked,
+      char[] word, List<String> found, int limit, long deadline) {
+    if (pos == pattern.length) {
+      found.add(new String(word));
+      return true;
+    }
+    if (pos < DEADLINE_DEPTH && System.nanoTime() > deadline) {
+      return false;
+    }
+
+    int mask = masks[node];
+    char c = pattern[pos];
+    int allowed;
+    if (c != Puzzle.HIDDEN) {
+      allowed = mask & Letters.bit(c);
+    } else {
+      allowed = mask & ~blocked;
+    }
+    for (int rest = allowed; rest != 0 && found.size() < limit;
+        rest &= rest - 1) {
+      int letter = Integer.numberOfTrailingZeros(rest);
+      word[pos] = (char) ('A' + letter);
+      if (!collect(child(node, letter), pattern, pos + 1, blocked, word,
+          found, limit, deadline)) {
+        return false;
+      }
+    } // for
+    return true;
+  } // collect()
+
+  /* Build the node for sorted words sharing a prefix, merging duplicates */
+  private int build(String[] words, int lo, int hi, int depth,
+      HashMap<String, Integer> unique) {
+    if (depth == words[lo].length()) {
+      return TERMINAL;
+    }
+
+    int mask = 0;
+    int numKids = 0;
+    int[] kids = new int[Puzzle.NUM_LETTERS];
+    int i = lo;
+    while (i < hi) {
+      char c = words[i].charAt(depth);
+      int j = i + 1;
+      while (j < hi && words[j].charAt(depth) == c) {
+        ++j;
+      } // while
+      kids[numKids++] = build(words, i, j, depth + 1, unique);
+      mask |= 1 << (c - 'A');
+      i = j;
+    } // while
+
+    StringBuilder key = new StringBuilder().append(mask);
+    for (int k = 0; k < numKids; ++k) {
+      key.append(',').append(kids[k]);
+    } // for
+    Integer existing = unique.get(key.toString());
+    if (existing != null) {
+      return existing;
+    }
+
+    if (numNodes == masks.length) {
+      masks = Arrays.copyOf(masks, numNodes * 2);
+      firstChild = Arrays.copyOf(firstChild, numNodes * 2);
+      counts = Arrays.copyOf(counts, numNodes * 2);
+    }
+    while (numChildren + numKids > children.length) {
+      children = Arrays.copyOf(children, children.length * 2);
+    } // while
+    int node = numNodes++;
+    masks[node] = mask;
+    firstChild[node] = numChildren;
+    counts[node] = hi - lo;
+    System.arraycopy(kids, 0, children, numChildren, numKids);
+    numChildren += numKids;
+    unique.put(key.toString(), node);
+    return node;
+  } // build()
+
+} // WordIndex